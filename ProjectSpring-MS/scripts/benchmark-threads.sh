@@ -0,0 +1,135 @@
+#!/usr/bin/env bash
+#
+# Compares request throughput of the platform-thread and the virtual-thread
+# mode. Starts the application once per mode with the same Tomcat thread limit,
+# runs the same wrk load against GET /posts/{id} and POST /jobs/match, and
+# prints requests per second, p99 latency and the number of pinned virtual
+# threads reported by -Djdk.tracePinnedThreads.
+#
+# Needs wrk and curl, and the same environment as a normal start (MongoDB URI,
+# HUGGING_FACE_ACCESS_TOKEN, ...). Rate limiting is switched off for the run.
+#
+# Usage: scripts/benchmark-threads.sh
+#   DURATION=30s CONNECTIONS=400 WRK_THREADS=4 TOMCAT_THREADS=200 PORT=8089
+#   BENCH_USER=bench BENCH_PASSWORD=bench-password
+#   MATCH_PROFILE="Backend developer with 5 years of Java and Spring"
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+DURATION=${DURATION:-30s}
+CONNECTIONS=${CONNECTIONS:-400}
+WRK_THREADS=${WRK_THREADS:-4}
+TOMCAT_THREADS=${TOMCAT_THREADS:-200}
+PORT=${PORT:-8089}
+BENCH_USER=${BENCH_USER:-bench}
+BENCH_PASSWORD=${BENCH_PASSWORD:-bench-password}
+MATCH_PROFILE=${MATCH_PROFILE:-"Backend developer with 5 years of Java and Spring"}
+BASE_URL="http://localhost:${PORT}"
+OUT=target/benchmark
+RESULTS=()
+
+for tool in wrk curl java; do
+    command -v "$tool" >/dev/null || { echo "$tool is required" >&2; exit 1; }
+done
+
+mkdir -p "$OUT"
+JAR=$(ls target/ProjectSpring-*.jar 2>/dev/null | grep -v original | head -n 1 || true)
+if [[ -z "$JAR" ]]; then
+    ./mvnw -q -B -DskipTests package
+    JAR=$(ls target/ProjectSpring-*.jar | grep -v original | head -n 1)
+fi
+
+APP_PID=
+stop_app() {
+    if [[ -n "$APP_PID" ]]; then
+        kill "$APP_PID" 2>/dev/null || true
+        wait "$APP_PID" 2>/dev/null || true
+        APP_PID=
+    fi
+}
+trap stop_app EXIT
+
+# $1: mode name, $2: Spring profile ("" for the default platform-thread mode)
+start_app() {
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --server.port="$PORT" \
+        --server.tomcat.threads.max="$TOMCAT_THREADS" \
+        --jobmatch.rate-limit.enabled=false \
+        ${2:+--spring.profiles.active="$2"} \
+        > "$OUT/$1.log" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 120); do
+        if curl -fs -o /dev/null "$BASE_URL/.well-known/jwks.json"; then
+            return
+        fi
+        kill -0 "$APP_PID" 2>/dev/null || { echo "$1 mode failed to start, see $OUT/$1.log" >&2; exit 1; }
+        sleep 1
+    done
+    echo "$1 mode did not start within 120s, see $OUT/$1.log" >&2
+    exit 1
+}
+
+# Prints an access token, registering the benchmark user on first use
+login() {
+    local credentials="{\"username\":\"$BENCH_USER\",\"password\":\"$BENCH_PASSWORD\"}" token
+    token=$(curl -s -H 'Content-Type: application/json' -d "$credentials" "$BASE_URL/login" \
+        | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+    if [[ -z "$token" ]]; then
+        curl -fs -o /dev/null -H 'Content-Type: application/json' -d "$credentials" "$BASE_URL/register"
+        token=$(curl -s -H 'Content-Type: application/json' -d "$credentials" "$BASE_URL/login" \
+            | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+    fi
+    echo "$token"
+}
+
+# $1: wrk output file; prints "requests/s p99"
+summarize() {
+    local rps p99
+    rps=$(awk '/^Requests\/sec:/ {print $2}' "$1")
+    p99=$(awk '$1 == "99%" {print $2}' "$1")
+    echo "${rps:-n/a} ${p99:-n/a}"
+}
+
+# $1: mode name, $2: Spring profile
+run_mode() {
+    echo "== $1 threads" >&2
+    start_app "$1" "$2"
+    local token id
+    token=$(login)
+    [[ -n "$token" ]] || { echo "login failed in $1 mode" >&2; exit 1; }
+    id=$(curl -fs -H "Authorization: Bearer $token" "$BASE_URL/posts?limit=1" \
+        | sed -n 's/.*"id":"\([^"]*\)".*/\1/p' | head -n 1)
+    [[ -n "$id" ]] || { echo "no post to read in $1 mode" >&2; exit 1; }
+
+    cat > "$OUT/match.lua" <<EOF
+wrk.method = "POST"
+wrk.body = "$MATCH_PROFILE"
+wrk.headers["Content-Type"] = "text/plain"
+wrk.headers["Authorization"] = "Bearer $token"
+EOF
+    # A short warm-up, so both modes are measured with a warm JIT and caches
+    wrk -t"$WRK_THREADS" -c"$CONNECTIONS" -d5s -H "Authorization: Bearer $token" "$BASE_URL/posts/$id" > /dev/null
+    wrk -t"$WRK_THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency -H "Authorization: Bearer $token" \
+        "$BASE_URL/posts/$id" > "$OUT/$1-post.txt"
+    wrk -t"$WRK_THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency -s "$OUT/match.lua" \
+        "$BASE_URL/jobs/match" > "$OUT/$1-match.txt"
+    stop_app
+
+    local pinned
+    pinned=$(grep -c '<== monitors' "$OUT/$1.log" || true)
+    RESULTS+=("$1 GET/posts/{id} $(summarize "$OUT/$1-post.txt") -")
+    RESULTS+=("$1 POST/jobs/match $(summarize "$OUT/$1-match.txt") $pinned")
+}
+
+run_mode platform ""
+run_mode virtual virtual
+
+# Pinned threads are counted over the whole run of a mode, shown on its last row
+printf '\n%-9s %-17s %12s %10s %7s\n' mode endpoint requests/s p99 pinned
+for row in "${RESULTS[@]}"; do
+    # shellcheck disable=SC2086
+    printf '%-9s %-17s %12s %10s %7s\n' $row
+done
+echo "Raw wrk output and application logs are in $OUT" >&2
@@ -0,0 +1,49 @@
+package com.george.Cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.george.Service.PostChangeListener;
+import com.george.model.Post;
+
+/**
+ * In-process {@link PostChangeFeed} used when the change stream is disabled.
+ * <p>
+ * On a single node every write already reaches local listeners through
+ * {@code PostService}, so nothing is published here in production. Tests use
+ * {@link #publishSaved(Post)} and {@link #publishDeleted(String)} to simulate
+ * writes made by another node without a replica set.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "jobmatch.cache.change-stream.enabled", havingValue = "false", matchIfMissing = true)
+public class LocalPostChangeFeed implements PostChangeFeed {
+
+    private final List<PostChangeListener> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void subscribe(PostChangeListener listener) {
+        subscribers.add(listener);
+    }
+
+    /**
+     * Delivers a saved post to every subscriber.
+     *
+     * @param post the saved post
+     */
+    public void publishSaved(Post post) {
+        subscribers.forEach(listener -> listener.postSaved(post));
+    }
+
+    /**
+     * Delivers a deletion to every subscriber.
+     *
+     * @param id the ID of the deleted post
+     */
+    public void publishDeleted(String id) {
+        subscribers.forEach(listener -> listener.postDeleted(id));
+    }
+}
@@ -0,0 +1,146 @@
+package com.george.Cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.george.Service.PostChangeListener;
+import com.george.model.Post;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+/**
+ * {@link PostChangeFeed} backed by a MongoDB change stream on the JobPost collection.
+ * <p>
+ * Enabled with {@code jobmatch.cache.change-stream.enabled=true} for multi-node
+ * deployments. Every node watches the collection on a dedicated daemon thread
+ * and relays inserts, updates, replacements and deletes to its subscribers, so
+ * a write on one node invalidates caches on all of them. The stream resumes
+ * from the last seen token after transient failures.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "jobmatch.cache.change-stream.enabled", havingValue = "true")
+public class MongoChangeStreamFeed implements PostChangeFeed, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoChangeStreamFeed.class);
+
+    /** Server error raised when the resume token is no longer in the oplog */
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<PostChangeListener> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private BsonDocument resumeToken;
+    private Thread worker;
+
+    @Override
+    public void subscribe(PostChangeListener listener) {
+        subscribers.add(listener);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("post-change-stream").start(this::watch);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> current = cursor;
+        if (current != null) {
+            current.close(); // unblocks the worker waiting in next()
+        }
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watch() {
+        String collectionName = mongoTemplate.getCollectionName(Post.class);
+        while (running) {
+            try {
+                ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(collectionName)
+                        .watch()
+                        .fullDocument(FullDocument.UPDATE_LOOKUP);
+                if (resumeToken != null) {
+                    stream = stream.resumeAfter(resumeToken);
+                }
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = stream.cursor()) {
+                    cursor = opened;
+                    logger.info("Watching {} for post changes", collectionName);
+                    while (running) {
+                        ChangeStreamDocument<Document> event = opened.next();
+                        resumeToken = event.getResumeToken();
+                        dispatch(event);
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                if (e instanceof MongoCommandException mce && mce.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    // Missed events are covered by cache TTLs; start again from now
+                    resumeToken = null;
+                }
+                logger.warn("Post change stream interrupted, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(ChangeStreamDocument<Document> event) {
+        BsonDocument key = event.getDocumentKey();
+        if (key == null || !key.containsKey("_id")) {
+            return;
+        }
+        String id = toId(key.get("_id"));
+        switch (event.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document document = event.getFullDocument();
+                if (document == null) {
+                    // Deleted again before the lookup ran
+                    subscribers.forEach(listener -> listener.postDeleted(id));
+                } else {
+                    Post post = mongoTemplate.getConverter().read(Post.class, document);
+                    subscribers.forEach(listener -> listener.postSaved(post));
+                }
+            }
+            case DELETE -> subscribers.forEach(listener -> listener.postDeleted(id));
+            default -> logger.info("Ignoring {} event on post change stream", event.getOperationType());
+        }
+    }
+
+    private static String toId(BsonValue value) {
+        return value.isObjectId() ? value.asObjectId().getValue().toHexString() : value.asString().getValue();
+    }
+}
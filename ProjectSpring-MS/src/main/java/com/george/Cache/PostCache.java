@@ -0,0 +1,200 @@
+package com.george.Cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.george.Service.PostChangeListener;
+import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.SearchPageRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Read-through cache for post lookups by ID and for search result pages.
+ * <p>
+ * Both caches are bounded in size and expire entries after a configurable
+ * TTL. Writes invalidate precisely instead of flushing everything:
+ * <ul>
+ *   <li>a saved or deleted post evicts its own ID entry;</li>
+ *   <li>a search page is evicted when it contains the changed post, or when a
+ *       saved post contains one of the page's query terms and could therefore
+ *       now belong to it.</li>
+ * </ul>
+ * Local writes arrive through {@link PostChangeListener}; writes made by other
+ * nodes arrive through the {@link PostChangeFeed}.
+ * </p>
+ */
+@Component
+public class PostCache implements PostChangeListener {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Value("${jobmatch.cache.posts.max-size:10000}")
+    private long postsMaxSize;
+
+    @Value("${jobmatch.cache.posts.ttl:10m}")
+    private Duration postsTtl;
+
+    @Value("${jobmatch.cache.search.max-size:1000}")
+    private long searchMaxSize;
+
+    @Value("${jobmatch.cache.search.ttl:2m}")
+    private Duration searchTtl;
+
+    @Autowired
+    private PostChangeFeed changeFeed;
+
+    private Cache<String, Post> posts;
+    private Cache<SearchKey, SearchPage> searches;
+
+    /** Incremented by every write, so page loads that raced a write are not cached */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * A cached page of search results.
+     *
+     * @param items the posts on the page, in result order
+     * @param nextPageToken the token for the following page, or null
+     * @param ids the IDs of the posts on the page
+     * @param terms the normalized query terms the page was produced for
+     */
+    public record SearchPage(List<Post> items, String nextPageToken, Set<String> ids, Set<String> terms) {}
+
+    private record SearchKey(String text, int limit, String pageToken, boolean includeDescription, PostFields fields,
+            boolean includeArchived) {
+        static SearchKey of(SearchPageRequest request) {
+            return new SearchKey(request.getText().trim(), request.getLimit(), request.getPageToken(),
+                    request.isIncludeDescription(), request.getFields(), request.isIncludeArchived());
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        posts = Caffeine.newBuilder()
+                .maximumSize(postsMaxSize)
+                .expireAfterWrite(postsTtl)
+                .build();
+        searches = Caffeine.newBuilder()
+                .maximumSize(searchMaxSize)
+                .expireAfterWrite(searchTtl)
+                .build();
+        changeFeed.subscribe(this);
+    }
+
+    /**
+     * Returns the post with the given ID, loading and caching it on a miss.
+     *
+     * @param id the post ID
+     * @param loader loads the post from the database, returning null if it does not exist
+     * @return the post, or null if it does not exist (absence is not cached)
+     */
+    public Post getPost(String id, Function<String, Post> loader) {
+        return posts.get(id, loader);
+    }
+
+    /**
+     * Returns the post with the given ID only if it is already cached.
+     *
+     * @param id the post ID
+     * @return the cached post, or null
+     */
+    public Post peekPost(String id) {
+        return posts.getIfPresent(id);
+    }
+
+    /**
+     * @return the current write generation, to be passed to {@link #putSearchPage}
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @param request the search page request
+     * @return the cached page, or null on a miss
+     */
+    public SearchPage getSearchPage(SearchPageRequest request) {
+        return searches.getIfPresent(SearchKey.of(request));
+    }
+
+    /**
+     * Caches a page of search results unless a write happened while it was loaded.
+     *
+     * @param request the search page request
+     * @param items the posts on the page
+     * @param nextPageToken the token for the following page, or null
+     * @param loadedAtGeneration the value of {@link #generation()} read before the query ran
+     */
+    public void putSearchPage(SearchPageRequest request, List<Post> items, String nextPageToken,
+            long loadedAtGeneration) {
+        if (generation.get() != loadedAtGeneration) {
+            return;
+        }
+        Set<String> ids = new HashSet<>();
+        items.forEach(post -> ids.add(post.getId()));
+        SearchKey key = SearchKey.of(request);
+        searches.put(key, new SearchPage(List.copyOf(items), nextPageToken, ids, tokenize(request.getText())));
+        if (generation.get() != loadedAtGeneration) {
+            searches.invalidate(key); // a write slipped in between the check and the put
+        }
+    }
+
+    /**
+     * Drops every cached entry.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        posts.invalidateAll();
+        searches.invalidateAll();
+    }
+
+    @Override
+    public void postSaved(Post post) {
+        generation.incrementAndGet();
+        if (post.getId() != null) {
+            posts.invalidate(post.getId());
+        }
+        Set<String> postTokens = new HashSet<>();
+        postTokens.addAll(tokenize(post.getJobTitle()));
+        postTokens.addAll(tokenize(post.getJobDescription()));
+        if (post.getRequiredTechs() != null) {
+            post.getRequiredTechs().forEach(tech -> postTokens.addAll(tokenize(tech)));
+        }
+        searches.asMap().values().removeIf(page -> page.ids().contains(post.getId())
+                || !Collections.disjoint(page.terms(), postTokens));
+    }
+
+    @Override
+    public void postDeleted(String id) {
+        generation.incrementAndGet();
+        posts.invalidate(id);
+        searches.asMap().values().removeIf(page -> page.ids().contains(id));
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,23 @@
+package com.george.Cache;
+
+import com.george.Service.PostChangeListener;
+
+/**
+ * Source of post changes made anywhere in the deployment, including writes
+ * handled by other application nodes.
+ * <p>
+ * {@link com.george.Service.PostService} only informs listeners in its own
+ * JVM. Components whose state must stay consistent across nodes (caches)
+ * additionally subscribe to the feed, which is backed by a MongoDB change
+ * stream in multi-node deployments and by {@link LocalPostChangeFeed} otherwise.
+ * </p>
+ */
+public interface PostChangeFeed {
+
+    /**
+     * Registers a listener for changes delivered by this feed.
+     *
+     * @param listener the listener to invoke for every change
+     */
+    void subscribe(PostChangeListener listener);
+}
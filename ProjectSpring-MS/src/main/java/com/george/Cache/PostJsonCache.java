@@ -0,0 +1,119 @@
+package com.george.Cache;
+
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.george.Service.PostChangeListener;
+import com.george.model.Post;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Near cache of posts already serialized to UTF-8 JSON.
+ * <p>
+ * Hot posts are read far more often than they change, so the bytes are produced
+ * once per post version and copied straight into responses afterwards. Entries
+ * are keyed by post ID and only served for the version they were produced from,
+ * so a missed invalidation does not serve stale bytes as long as every write
+ * goes through {@code PostService}, which increments the version. Posts written
+ * before versioning have no version to compare and are never cached; their
+ * first write gives them one. The cache is bounded by the total size of the
+ * cached JSON, not by entry count.
+ * </p>
+ * <p>
+ * Writes through {@code PostService} and, via the {@link PostChangeFeed}, on
+ * other nodes evict the post's entry. Hit, miss and eviction counts are published
+ * to Micrometer as {@code cache.*{cache=posts.json}}, together with a
+ * {@code jobmatch.cache.json.hit.ratio} gauge.
+ * </p>
+ */
+@Component
+public class PostJsonCache implements PostChangeListener {
+
+    static final String CACHE_NAME = "posts.json";
+
+    @Value("${jobmatch.cache.json.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Autowired
+    private PostChangeFeed changeFeed;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, Entry> entries;
+
+    /** Lookups are counted here by hand, because a hit requires the version to match too */
+    private final ConcurrentStatsCounter stats = new ConcurrentStatsCounter();
+
+    private record Entry(long version, byte[] json) {}
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String id, Entry entry) -> entry.json().length + id.length())
+                .recordStats(() -> stats)
+                .build();
+        changeFeed.subscribe(this);
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+            Gauge.builder("jobmatch.cache.json.hit.ratio", entries, cache -> cache.stats().hitRate())
+                    .description("Share of post serializations served from the JSON near cache")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns the JSON of a post, serializing and caching it on a miss or when
+     * the cached bytes belong to another version. Posts without a version are
+     * serialized every time.
+     *
+     * @param post the post, including its current version
+     * @param serializer serializes the post to UTF-8 JSON
+     * @return the JSON bytes; callers must not modify them
+     */
+    public byte[] getJson(Post post, Function<Post, byte[]> serializer) {
+        if (post.getVersion() == null) {
+            stats.recordMisses(1);
+            return serializer.apply(post);
+        }
+        Entry entry = entries.asMap().get(post.getId()); // map views do not record stats
+        if (entry != null && entry.version() == post.getVersion().longValue()) {
+            stats.recordHits(1);
+            return entry.json();
+        }
+        stats.recordMisses(1);
+        byte[] json = serializer.apply(post);
+        entries.put(post.getId(), new Entry(post.getVersion(), json));
+        return json;
+    }
+
+    /**
+     * @return the share of lookups served from the cache since startup
+     */
+    public double hitRatio() {
+        return entries.stats().hitRate();
+    }
+
+    @Override
+    public void postSaved(Post post) {
+        if (post.getId() != null) {
+            entries.invalidate(post.getId());
+        }
+    }
+
+    @Override
+    public void postDeleted(String id) {
+        entries.invalidate(id);
+    }
+}
@@ -1,5 +1,6 @@
 package com.george.Exception;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -12,6 +13,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @ControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
 
     /**
@@ -30,6 +32,22 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.UNAUTHORIZED, request);
     }
 
+    /**
+     * Handles PostVersionConflictException and returns a 412 response.
+     */
+    @ExceptionHandler(PostVersionConflictException.class)
+    public ResponseEntity<Map<String, Object>> handlePostVersionConflictException(PostVersionConflictException ex, WebRequest request) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.PRECONDITION_FAILED, request);
+    }
+
+    /**
+     * Handles PasswordHashingBusyException and returns a 429 response.
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, Object>> handlePasswordHashingBusyException(PasswordHashingBusyException ex, WebRequest request) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS, request);
+    }
+
     /**
      * Handles validation errors for @RequestBody payloads.
      */
@@ -0,0 +1,19 @@
+package com.george.Exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the password hashing pool and its queue are full.
+ * The reactive stack maps it through the annotation, Spring MVC through
+ * {@link GlobalExceptionHandler}, and HTTP Basic on the servlet stack through
+ * {@link com.george.Security.PasswordHashingBusyFilter}.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.george.Exception;
+
+/**
+ * Thrown when a conditional write names a post version that is no longer current.
+ */
+public class PostVersionConflictException extends RuntimeException {
+
+    public PostVersionConflictException(String message) {
+        super(message);
+    }
+
+}
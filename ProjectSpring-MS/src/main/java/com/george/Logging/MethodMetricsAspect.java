@@ -0,0 +1,189 @@
+package com.george.Logging;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Aspect timing every method of the controller, service and repository layers.
+ * <p>
+ * Each method gets a pair of {@code jobmatch.method} timers, tagged with the
+ * class, the method and {@code outcome=success|error}. The timers are built
+ * once per method and then only record a duration. Their percentiles come from
+ * Micrometer's HdrHistogram recorders, which do not lock, and they are served
+ * by the actuator metrics endpoint, e.g.
+ * {@code /actuator/metrics/jobmatch.method?tag=class:PostService}.
+ * Calls slower than {@code jobmatch.method-metrics.slow-threshold} are logged
+ * as warnings.
+ * </p>
+ * <p>
+ * Arguments and results are never logged by default. With
+ * {@code jobmatch.payload-logging.sample-rate} above zero and DEBUG enabled
+ * for the {@code com.george.Logging.payload} logger, that fraction of calls is
+ * logged. Collections and arrays are summarized by size and other values are
+ * cut to {@code jobmatch.payload-logging.max-length} characters. When
+ * sampling is off, a call costs two clock reads and one timer update.
+ * </p>
+ */
+@Aspect
+@Component
+public class MethodMetricsAspect {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodMetricsAspect.class);
+
+    /** Separate logger, so payloads can be enabled without the rest of the package */
+    private static final Logger PAYLOAD_LOGGER = LoggerFactory.getLogger("com.george.Logging.payload");
+
+    private record MethodTimers(String name, Timer success, Timer error) {}
+
+    @Value("${jobmatch.method-metrics.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jobmatch.method-metrics.slow-threshold:1s}")
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /** Fraction of calls whose arguments and result are logged, 0 to disable */
+    @Value("${jobmatch.payload-logging.sample-rate:0}")
+    private double payloadSampleRate;
+
+    @Value("${jobmatch.payload-logging.max-length:500}")
+    private int payloadMaxLength = 500;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private MeterRegistry registry;
+    private long slowThresholdNanos;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        registry = meterRegistry == null ? null : meterRegistry.getIfAvailable();
+        slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    /**
+     * Pointcut that matches all classes in controller, service, and repository packages
+     */
+    @Pointcut("within(com.george.controller..*) || within(com.george.Service..*) || within(com.george.repository..*)")
+    public void applicationPointcut() {}
+
+    /**
+     * Times a method and, for sampled calls, logs its arguments and result.
+     *
+     * @param joinPoint the intercepted call
+     * @return the result from the method execution
+     * @throws Throwable allows propagation of original exception
+     */
+    @Around("applicationPointcut()")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean sampled = payloadSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < payloadSampleRate
+                && PAYLOAD_LOGGER.isDebugEnabled();
+        if (!enabled && !sampled) {
+            return joinPoint.proceed();
+        }
+        MethodTimers method = timersFor(((MethodSignature) joinPoint.getSignature()).getMethod());
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            long elapsed = System.nanoTime() - start;
+            record(method, method.success(), elapsed);
+            if (sampled) {
+                PAYLOAD_LOGGER.debug("{} took {} ms with arguments {} and returned {}", method.name(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), describeArguments(joinPoint.getArgs()), describe(result));
+            }
+            return result;
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            record(method, method.error(), elapsed);
+            if (sampled) {
+                PAYLOAD_LOGGER.debug("{} failed after {} ms with arguments {}: {}", method.name(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), describeArguments(joinPoint.getArgs()), e.toString());
+            }
+            throw e;
+        }
+    }
+
+    private MethodTimers timersFor(Method method) {
+        MethodTimers existing = timers.get(method);
+        return existing != null ? existing : timers.computeIfAbsent(method, this::register);
+    }
+
+    private MethodTimers register(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        String name = className + "." + method.getName();
+        if (registry == null || !enabled) {
+            return new MethodTimers(name, null, null);
+        }
+        return new MethodTimers(name, timer(className, method.getName(), "success"),
+                timer(className, method.getName(), "error"));
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer.builder("jobmatch.method")
+                .description("Execution time of controller, service and repository methods")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    private void record(MethodTimers method, Timer timer, long elapsed) {
+        if (timer != null) {
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        if (elapsed > slowThresholdNanos) {
+            LOGGER.warn("Slow execution - {} took {} ms", method.name(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private String describeArguments(Object[] args) {
+        StringBuilder description = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            description.append(i == 0 ? "" : ", ").append(describe(args[i]));
+        }
+        return description.append(']').toString();
+    }
+
+    /**
+     * Summarizes a value for the payload log without rendering large structures.
+     */
+    private String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Collection<?> collection) {
+            return value.getClass().getSimpleName() + "(size=" + collection.size() + ")";
+        }
+        if (value instanceof Map<?, ?> map) {
+            return value.getClass().getSimpleName() + "(size=" + map.size() + ")";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        String text = String.valueOf(value);
+        return text.length() <= payloadMaxLength ? text : text.substring(0, payloadMaxLength) + "...(" + text.length() + " chars)";
+    }
+}
@@ -0,0 +1,66 @@
+package com.george.RateLimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * {@link RateLimitStore} in this node's memory, the default.
+ * <p>
+ * Every bucket is an {@link AtomicLong} updated with compare-and-set, so
+ * requests never wait for each other; lookups go through a Caffeine map,
+ * which is itself concurrent. Buckets idle for
+ * {@code jobmatch.rate-limit.local.idle-timeout} are dropped, which loses
+ * nothing once they have refilled, and at most
+ * {@code jobmatch.rate-limit.local.max-buckets} are kept. With several nodes
+ * each enforces its limits separately.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "jobmatch.rate-limit.store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitStore implements RateLimitStore {
+
+    @Value("${jobmatch.rate-limit.local.idle-timeout:1h}")
+    private Duration idleTimeout = Duration.ofHours(1);
+
+    @Value("${jobmatch.rate-limit.local.max-buckets:100000}")
+    private long maxBuckets = 100_000;
+
+    private Cache<String, AtomicLong> buckets;
+
+    @PostConstruct
+    void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public Consumption consume(String key, long increment, long tolerance, long now) {
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long current = tat.get();
+            long arrival = Math.max(current, now) + increment;
+            if (arrival - now > tolerance) {
+                return new Consumption(false, arrival);
+            }
+            if (tat.compareAndSet(current, arrival)) {
+                return new Consumption(true, arrival);
+            }
+        }
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.george.RateLimit;
+
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+
+/**
+ * {@link RateLimitStore} in the RateLimitBucket collection, shared by all nodes.
+ * <p>
+ * Enabled with {@code jobmatch.rate-limit.store=mongo}. Each request is one
+ * {@code findOneAndUpdate} whose update pipeline applies the same check as
+ * {@link LocalRateLimitStore} on the server, so concurrent requests from
+ * different nodes cannot both take the last token. This costs a round trip per
+ * request. A TTL index on {@code expiresAt}, declared in
+ * {@link com.george.Vector.IndexBootstrap}, drops buckets once they are full again.
+ * Node clocks should be synchronized, since each node supplies the current time.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "jobmatch.rate-limit.store", havingValue = "mongo")
+public class MongoRateLimitStore implements RateLimitStore {
+
+    public static final String COLLECTION = "RateLimitBucket";
+    public static final String EXPIRES_AT = "expiresAt";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Consumption consume(String key, long increment, long tolerance, long now) {
+        Document bucket = mongoTemplate.getCollection(COLLECTION).findOneAndUpdate(
+                Filters.eq("_id", key),
+                consumePipeline(increment, tolerance, now),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        long arrival = bucket.getLong("base") + increment;
+        return new Consumption(bucket.getBoolean("allowed"), arrival);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    /**
+     * Builds the update applied to a bucket document: {@code base} becomes the
+     * later of the stored TAT and now, {@code allowed} tells whether the
+     * request fits, and {@code tat} only advances if it does.
+     */
+    static List<Document> consumePipeline(long increment, long tolerance, long now) {
+        Document arrival = new Document("$add", List.of("$base", increment));
+        return List.of(
+                new Document("$set", new Document("base",
+                        new Document("$max", List.of(new Document("$ifNull", List.of("$tat", now)), now)))),
+                new Document("$set", new Document("allowed",
+                        new Document("$lte", List.of(new Document("$subtract", List.of(arrival, now)), tolerance)))),
+                new Document("$set", new Document("tat", new Document("$cond", List.of("$allowed", arrival, "$base")))
+                        // Full again by then at the latest
+                        .append(EXPIRES_AT, new Date((now + increment + tolerance) / 1000))));
+    }
+}
@@ -0,0 +1,49 @@
+package com.george.RateLimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of charging a request to its rate limit buckets, reported in the
+ * {@code X-RateLimit-*} headers of every response and in {@code Retry-After}
+ * when the request is refused.
+ *
+ * @param allowed whether the request may proceed
+ * @param limit the capacity of the bucket that decided
+ * @param remaining the tokens left in that bucket
+ * @param resetSeconds the seconds until that bucket is full again
+ * @param retryAfterSeconds the seconds until the request would fit, 0 if allowed
+ * @param cost the tokens the request costs
+ */
+public record RateLimitDecision(boolean allowed, long limit, long remaining, long resetSeconds,
+        long retryAfterSeconds, int cost) {
+
+    /**
+     * @param other the decision of another bucket for the same request
+     * @return the decision that restricts the client more
+     */
+    public RateLimitDecision stricter(RateLimitDecision other) {
+        if (allowed != other.allowed) {
+            return allowed ? other : this;
+        }
+        if (!allowed) {
+            return retryAfterSeconds >= other.retryAfterSeconds ? this : other;
+        }
+        return remaining <= other.remaining ? this : other;
+    }
+
+    /**
+     * @return the response headers describing this decision
+     */
+    public Map<String, String> headers() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("X-RateLimit-Limit", Long.toString(limit));
+        headers.put("X-RateLimit-Remaining", Long.toString(remaining));
+        headers.put("X-RateLimit-Reset", Long.toString(resetSeconds));
+        headers.put("X-RateLimit-Cost", Integer.toString(cost));
+        if (!allowed) {
+            headers.put("Retry-After", Long.toString(retryAfterSeconds));
+        }
+        return headers;
+    }
+}
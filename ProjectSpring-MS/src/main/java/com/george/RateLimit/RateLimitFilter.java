@@ -0,0 +1,58 @@
+package com.george.RateLimit;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the {@link RateLimiter} in the Spring MVC security chain.
+ * <p>
+ * Registered by {@link com.george.Security.SecurityConfig} after the
+ * authentication filters, so authenticated requests are charged to their
+ * user. It is deliberately not a bean, which would also register it as a
+ * plain servlet filter. Refused requests get 429 with a {@code Retry-After}
+ * header and never reach a controller.
+ * </p>
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!rateLimiter.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String user = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        RateLimitDecision decision = rateLimiter.consume(user, request.getRemoteAddr(), path);
+        decision.headers().forEach(response::setHeader);
+        if (!decision.allowed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded, retry in "
+                    + decision.retryAfterSeconds() + " s\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,42 @@
+package com.george.RateLimit;
+
+/**
+ * Holds the state of the rate limit buckets.
+ * <p>
+ * Each bucket is reduced to one number, its theoretical arrival time (TAT):
+ * the time at which the bucket would be full again if nothing else arrived.
+ * A request of a given cost moves the TAT forward, and it is allowed while
+ * the TAT stays within the bucket's tolerance ahead of now. This is the
+ * generic cell rate algorithm, which behaves exactly like a token bucket but
+ * needs a single compare-and-set per request instead of a lock. Stores
+ * differ only in where that number lives: {@link LocalRateLimitStore} keeps
+ * it per node, {@link MongoRateLimitStore} shares it between nodes.
+ * </p>
+ */
+public interface RateLimitStore {
+
+    /**
+     * Outcome of one attempt.
+     *
+     * @param allowed whether the request fits in the bucket
+     * @param arrival the TAT including this request, whether or not it was stored
+     */
+    record Consumption(boolean allowed, long arrival) {}
+
+    /**
+     * Atomically advances a bucket's TAT by {@code increment} if it then stays
+     * within {@code tolerance} of {@code now}. All values are in microseconds.
+     *
+     * @param key the bucket, e.g. {@code user:alice}
+     * @param increment the request cost times the refill interval of one token
+     * @param tolerance the capacity times the refill interval of one token
+     * @param now the current wall-clock time
+     * @return the outcome
+     */
+    Consumption consume(String key, long increment, long tolerance, long now);
+
+    /**
+     * @return true if {@link #consume} performs I/O and must not run on an event loop
+     */
+    boolean isBlocking();
+}
@@ -0,0 +1,132 @@
+package com.george.RateLimit;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Charges requests to per-user and per-IP token buckets.
+ * <p>
+ * Requests are weighted by endpoint: {@code jobmatch.rate-limit.costs} lists
+ * {@code path=cost} pairs, and every other path costs one token. An
+ * authenticated request is charged to its user's bucket and then to its
+ * client IP's bucket. An anonymous request is charged to the IP bucket only.
+ * The stricter of the two results is reported. Each bucket holds
+ * {@code capacity} tokens and refills {@code refill-per-minute} of them
+ * continuously. A cost above a bucket's capacity is capped at the capacity,
+ * so such an endpoint needs a full bucket.
+ * </p>
+ */
+@Service
+public class RateLimiter {
+
+    private static final long MICROS_PER_MINUTE = TimeUnit.MINUTES.toMicros(1);
+
+    @Value("${jobmatch.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jobmatch.rate-limit.user.capacity:100}")
+    private long userCapacity = 100;
+
+    @Value("${jobmatch.rate-limit.user.refill-per-minute:100}")
+    private long userRefillPerMinute = 100;
+
+    @Value("${jobmatch.rate-limit.ip.capacity:300}")
+    private long ipCapacity = 300;
+
+    @Value("${jobmatch.rate-limit.ip.refill-per-minute:300}")
+    private long ipRefillPerMinute = 300;
+
+    @Value("${jobmatch.rate-limit.costs:/jobs/match=10,/generate-embeddings=100,/login=5,/register=5,/token/refresh=2}")
+    private List<String> costs = List.of();
+
+    @Autowired
+    private RateLimitStore store;
+
+    private final Map<String, Integer> costByPath = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (String entry : costs) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid jobmatch.rate-limit.costs entry '" + entry + "', expected path=cost");
+            }
+            costByPath.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+    }
+
+    /**
+     * @return false if rate limiting is switched off
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if charging a request performs I/O
+     */
+    public boolean isBlocking() {
+        return store.isBlocking();
+    }
+
+    /**
+     * @param path the request path without the context path
+     * @return the tokens a request to the path costs
+     */
+    public int costOf(String path) {
+        return costByPath.getOrDefault(path, 1);
+    }
+
+    /**
+     * Charges a request to its buckets.
+     *
+     * @param user the authenticated username, or null for anonymous requests
+     * @param ip the client address
+     * @param path the request path without the context path
+     * @return the decision, reporting the most restrictive bucket
+     */
+    public RateLimitDecision consume(String user, String ip, String path) {
+        int cost = costOf(path);
+        long now = nowMicros();
+        RateLimitDecision decision = null;
+        if (user != null) {
+            decision = consume("user:" + user, cost, userCapacity, userRefillPerMinute, now);
+            if (!decision.allowed()) {
+                return decision; // the IP is not charged for a refused request
+            }
+        }
+        RateLimitDecision byIp = consume("ip:" + ip, cost, ipCapacity, ipRefillPerMinute, now);
+        return decision == null ? byIp : decision.stricter(byIp);
+    }
+
+    private RateLimitDecision consume(String key, int cost, long capacity, long refillPerMinute, long now) {
+        long interval = Math.max(1, MICROS_PER_MINUTE / refillPerMinute); // refill time of one token
+        long tolerance = interval * capacity;
+        long increment = interval * Math.min(cost, capacity);
+        RateLimitStore.Consumption consumption = store.consume(key, increment, tolerance, now);
+        long ahead = consumption.arrival() - now;
+        if (consumption.allowed()) {
+            return new RateLimitDecision(true, capacity, (tolerance - ahead) / interval, seconds(ahead), 0, cost);
+        }
+        return new RateLimitDecision(false, capacity, (tolerance - ahead + increment) / interval,
+                seconds(ahead - increment), Math.max(1, seconds(ahead - tolerance)), cost);
+    }
+
+    private static long seconds(long micros) {
+        return micros <= 0 ? 0 : (micros + 999_999) / 1_000_000; // rounded up
+    }
+
+    private static long nowMicros() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + now.getNano() / 1000;
+    }
+}
@@ -0,0 +1,66 @@
+package com.george.Reactive;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Infrastructure of the non-blocking request path, active with the "reactive" profile.
+ * <p>
+ * Requests are served by Netty instead of Tomcat, MongoDB is reached through the
+ * Reactive Streams driver, and Hugging Face through a {@link WebClient}, so an
+ * in-flight match holds no thread while it waits. The blocking MongoDB client
+ * stays available for startup work such as rebuilding the in-memory indexes.
+ * </p>
+ */
+@Configuration
+@Profile("reactive")
+@EnableReactiveMongoRepositories(basePackages = "com.george.Reactive")
+public class ReactiveConfig {
+
+    @Value("${jobmatch.reactive.embeddings.connect-timeout:5s}")
+    private Duration embeddingsConnectTimeout;
+
+    /**
+     * Netty is preferred explicitly because Tomcat is on the classpath too.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Uses the same tuned and instrumented settings as the blocking client.
+     */
+    @Bean
+    public MongoClient reactiveMongoClient(MongoClientSettings mongoClientSettings) {
+        return MongoClients.create(mongoClientSettings);
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient) {
+        return new ReactiveMongoTemplate(reactiveMongoClient, "sample_db");
+    }
+
+    @Bean
+    public WebClient embeddingsWebClient(WebClient.Builder builder) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) embeddingsConnectTimeout.toMillis());
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+}
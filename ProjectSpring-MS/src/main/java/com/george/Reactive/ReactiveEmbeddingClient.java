@@ -0,0 +1,64 @@
+package com.george.Reactive;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.BsonArray;
+import org.bson.BsonDouble;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking client for the Hugging Face feature-extraction endpoint.
+ * <p>
+ * Calls the same model as {@link com.george.Vector.VectorEmbeddings}, so query
+ * embeddings are interchangeable with the stored ones, but over a
+ * {@link WebClient} instead of the blocking langchain4j client.
+ * </p>
+ */
+@Service
+@Profile("reactive")
+public class ReactiveEmbeddingClient {
+
+    private static final ParameterizedTypeReference<List<List<Double>>> VECTORS = new ParameterizedTypeReference<>() {};
+
+    @Value("${jobmatch.reactive.embeddings.url:https://api-inference.huggingface.co/pipeline/feature-extraction/mixedbread-ai/mxbai-embed-large-v1}")
+    private String url;
+
+    @Value("${jobmatch.reactive.embeddings.timeout:60s}")
+    private Duration timeout;
+
+    @Autowired
+    private WebClient embeddingsWebClient;
+
+    /**
+     * Embeds a single text.
+     *
+     * @param text the text to embed
+     * @return the embedding, or an error if the call fails or exceeds the timeout
+     */
+    public Mono<BsonArray> getEmbedding(String text) {
+        String accessToken = System.getenv("HUGGING_FACE_ACCESS_TOKEN");
+        if (accessToken == null || accessToken.isEmpty()) {
+            return Mono.error(new IllegalStateException("HUGGING_FACE_ACCESS_TOKEN env variable is not set or is empty."));
+        }
+        return embeddingsWebClient.post()
+                .uri(url)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("inputs", List.of(text), "options", Map.of("wait_for_model", true)))
+                .retrieve()
+                .bodyToMono(VECTORS)
+                .timeout(timeout)
+                .map(vectors -> new BsonArray(vectors.get(0).stream().map(BsonDouble::new).toList()));
+    }
+}
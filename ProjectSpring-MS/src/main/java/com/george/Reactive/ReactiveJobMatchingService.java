@@ -0,0 +1,74 @@
+package com.george.Reactive;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.george.Service.JobMatchingService;
+import com.george.Service.PostColumnsService;
+import com.george.model.JobMatch;
+import com.george.model.JobMatchFilter;
+import com.george.model.PostFields;
+import com.mongodb.reactivestreams.client.MongoClient;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link JobMatchingService}.
+ * <p>
+ * The embedding call and the vector aggregation are composed as one reactive
+ * pipeline, each with its own timeout, so a pending match occupies no thread
+ * while Hugging Face or Atlas is working. Pipeline and result mapping are shared
+ * with the blocking service.
+ * </p>
+ */
+@Service
+@Profile("reactive")
+public class ReactiveJobMatchingService {
+
+    @Value("${jobmatch.reactive.match.search-timeout:10s}")
+    private Duration searchTimeout;
+
+    @Autowired
+    private MongoClient reactiveMongoClient;
+
+    @Autowired
+    private ReactiveEmbeddingClient embeddingClient;
+
+    @Autowired
+    private PostColumnsService postColumnsService;
+
+    @Value("${jobmatch.match.max-filter-ids:1000}")
+    private int maxFilterIds;
+
+    /**
+     * Finds matching jobs based on user profile using vector similarity search.
+     *
+     * @param userProfile Text description of user's skills and preferences
+     * @param fields the post fields to return in each match
+     * @param includeArchived whether closed and archived posts may match
+     * @param filter restrictions on experience and technologies
+     * @return the matching jobs with similarity scores, in score order
+     */
+    public Flux<JobMatch> findMatchingJobs(String userProfile, PostFields fields, boolean includeArchived,
+            JobMatchFilter filter) {
+        // An in-memory scan, cheap enough to run on the calling thread
+        List<String> selected = filter.isEmpty() || includeArchived ? null : postColumnsService.select(filter);
+        if (selected != null && selected.isEmpty()) {
+            return Flux.empty();
+        }
+        List<String> candidateIds = selected != null && selected.size() <= maxFilterIds ? selected : null;
+        return embeddingClient.getEmbedding(userProfile)
+                .flatMapMany(embedding -> Flux.from(reactiveMongoClient.getDatabase("sample_db")
+                        .getCollection("JobPost")
+                        .aggregate(JobMatchingService.vectorSearchPipeline(embedding, fields, includeArchived, filter,
+                                candidateIds), Document.class))
+                        .timeout(searchTimeout))
+                .map(doc -> JobMatchingService.toJobMatch(doc, userProfile, fields));
+    }
+}
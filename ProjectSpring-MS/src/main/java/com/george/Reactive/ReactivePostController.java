@@ -0,0 +1,399 @@
+package com.george.Reactive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.george.Exception.PostVersionConflictException;
+import com.george.Service.FacetService;
+import com.george.Service.PostService;
+import com.george.Service.TypeaheadService;
+import com.george.controller.PostETags;
+import com.george.controller.PostFormat;
+import com.george.controller.PostJsonWriters;
+import com.george.model.JobMatch;
+import com.george.model.JobMatchFilter;
+import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.PostPatch;
+import com.george.model.SearchFacets;
+import com.george.model.SearchPageRequest;
+import com.george.model.Suggestion;
+
+import io.swagger.v3.oas.annotations.Operation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux equivalent of {@link com.george.controller.PostController}, active with
+ * the "reactive" profile.
+ * <p>
+ * Paths, parameters, ETags and response bodies are the same as on the servlet
+ * stack. Handlers return publishers, so no request thread waits on MongoDB or
+ * Hugging Face. Facet counts still read IDs through the blocking repository and
+ * are moved to the bounded elastic scheduler. Bulk import stays servlet-only.
+ * </p>
+ */
+@RestController
+@Profile("reactive")
+public class ReactivePostController {
+
+    @Autowired
+    private ReactivePostService postService;
+
+    @Autowired
+    private ReactiveJobMatchingService jobMatchingService;
+
+    @Autowired
+    private TypeaheadService typeaheadService;
+
+    @Autowired
+    private FacetService facetService;
+
+    @Autowired
+    private PostJsonWriters postJsonWriters;
+
+    /**
+     * Retrieves posts using keyset pagination, or streams them as NDJSON.
+     *
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit the page size (capped at 500), ignored when streaming
+     * @param stream whether to stream all remaining posts as NDJSON
+     * @param fields comma-separated post fields to return, or null for all fields
+     * @param accept the Accept header of the request
+     * @param ifNoneMatch the ETag of the page the client already has, if any
+     * @return a page of posts, NOT_MODIFIED, or an NDJSON stream
+     */
+    @Operation(summary = "Get all posts", description = "Returns a page of posts ordered by ID, or streams them as NDJSON")
+    @GetMapping("/posts")
+    public Mono<ResponseEntity<?>> getAllPosts(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PostFields fieldset;
+        try {
+            fieldset = PostFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        }
+        if (stream || (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE))) {
+            ObjectWriter writer = postJsonWriters.writerFor(fieldset);
+            Flux<DataBuffer> lines = postService.streamPosts(cursor, fieldset)
+                    .map(post -> DefaultDataBufferFactory.sharedInstance.wrap(ndjsonLine(writer, post)));
+            return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(lines));
+        }
+        PostFormat format = PostFormat.negotiate(accept);
+        return postService.getPostsPage(cursor, limit, fieldset)
+                .<ResponseEntity<?>>map(page -> {
+                    String etag = format.etag(PostETags.forPage(page, fieldset));
+                    if (PostETags.matches(ifNoneMatch, etag)) {
+                        return notModified(etag);
+                    }
+                    return writeResponse(page, fieldset, format, etag);
+                })
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Searches for posts that contain the given text, one page at a time.
+     *
+     * @param text the search text
+     * @param limit the page size (capped at 100)
+     * @param pageToken the nextPageToken of the previous page, if any
+     * @param includeDescription whether to return the job description
+     * @param includeArchived whether closed and archived posts are searched too
+     * @param fields comma-separated post fields to return, or null for all fields
+     * @param accept the Accept header of the request, selecting JSON, CBOR or Smile
+     * @return {"items": [...], "nextPageToken": ...}
+     */
+    @Operation(summary = "Search posts by text", description = "Returns one page of posts matching the search text, ordered by relevance")
+    @GetMapping("/posts/search/{text}")
+    public Mono<ResponseEntity<?>> getPostByText(@PathVariable String text,
+            @RequestParam(defaultValue = "" + SearchPageRequest.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "true") boolean includeDescription,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        PostFormat format = PostFormat.negotiate(accept);
+        Mono<ReactivePostService.SearchPage> page;
+        PostFields fieldset;
+        try {
+            fieldset = PostFields.parse(fields);
+            page = postService.searchPage(new SearchPageRequest(text, limit, pageToken, includeDescription, fieldset,
+                    includeArchived));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        }
+        return page.<ResponseEntity<?>>map(result -> {
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("items", result.items());
+                    body.put("nextPageToken", result.nextPageToken());
+                    return writeBytes(postJsonWriters.writerFor(fieldset, format), format, body, null);
+                })
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Counts technologies and experience buckets across all posts matching the text.
+     *
+     * @param text the search text
+     * @param size the maximum number of technologies to report (capped at 100)
+     * @return the facet counts
+     */
+    @Operation(summary = "Search facets", description = "Returns counts per technology and experience bucket for posts matching the search text")
+    @GetMapping("/posts/search/{text}/facets")
+    public Mono<ResponseEntity<SearchFacets>> getSearchFacets(@PathVariable String text,
+            @RequestParam(defaultValue = "20") int size) {
+        return Mono.fromCallable(() -> facetService.facetsForText(text, size))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Suggests job titles and technologies starting with the typed prefix.
+     *
+     * @param prefix the text typed so far
+     * @param field which values to complete: "jobTitle", "requiredTechs" or "all"
+     * @param limit the maximum number of suggestions (capped at 50)
+     * @return suggestions ordered by popularity
+     */
+    @Operation(summary = "Autocomplete titles and technologies", description = "Returns the most popular job titles and technologies starting with the prefix")
+    @GetMapping("/posts/autocomplete")
+    public Mono<List<Suggestion>> autocomplete(@RequestParam String prefix,
+            @RequestParam(defaultValue = "all") String field,
+            @RequestParam(defaultValue = "10") int limit) {
+        return Mono.fromSupplier(() -> typeaheadService.complete(prefix, field, limit));
+    }
+
+    /**
+     * Retrieves a post by its ID.
+     *
+     * @param id the ID of the post
+     * @param fields comma-separated post fields to return, or null for all fields
+     * @param includeArchived whether to look the post up in the archive if it is not live
+     * @param ifNoneMatch the ETag of the post the client already has, if any
+     * @return the post, NOT_MODIFIED, or NOT_FOUND
+     */
+    @Operation(summary = "Get post by ID", description = "Returns a post by its ID")
+    @GetMapping("/posts/{id}")
+    public Mono<ResponseEntity<?>> getPostById(@PathVariable String id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PostFormat format = PostFormat.negotiate(accept);
+        PostFields fieldset;
+        try {
+            fieldset = PostFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        }
+        Mono<Post> lookup = postService.findById(id, fieldset);
+        if (includeArchived) {
+            lookup = lookup.switchIfEmpty(Mono.defer(() -> postService.findArchivedById(id, fieldset)));
+        }
+        return lookup
+                .<ResponseEntity<?>>map(post -> {
+                    String etag = format.etag(PostETags.forPost(post, fieldset));
+                    if (PostETags.matches(ifNoneMatch, etag)) {
+                        return notModified(etag);
+                    }
+                    if (fieldset.isAll() && format.isJson()) {
+                        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                                .contentType(MediaType.APPLICATION_JSON).body(postJsonWriters.postBytes(post));
+                    }
+                    return writeResponse(post, fieldset, format, etag);
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build())
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Creates a new post.
+     *
+     * @param post the post object to be created
+     * @return the created post
+     */
+    @Operation(summary = "Create a post", description = "Creates a new post")
+    @PostMapping("/post")
+    public Mono<ResponseEntity<Post>> addPost(@RequestBody Post post) {
+        return postService.addPost(post)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Creates multiple posts.
+     *
+     * @param posts the list of posts to be created
+     * @return the created posts
+     */
+    @Operation(summary = "Create multiple posts", description = "Creates multiple new posts")
+    @PostMapping("/posts")
+    public Mono<ResponseEntity<List<Post>>> addPosts(@RequestBody List<Post> posts) {
+        return postService.addPosts(posts)
+                .collectList()
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Updates an existing post.
+     *
+     * @param post the updated post object
+     * @param id the ID of the post to be updated
+     * @return the updated post, or NOT_FOUND
+     */
+    @Operation(summary = "Update a post", description = "Updates an existing post")
+    @PutMapping("/updatepost/{id}")
+    public Mono<ResponseEntity<Post>> updatePost(@RequestBody Post post, @PathVariable String id) {
+        return postService.updatePost(post, id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build())
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Changes individual fields of a post in one atomic database round trip.
+     *
+     * @param id the ID of the post to change
+     * @param patch the fields to change; omitted fields are kept
+     * @param ifMatch the ETag the change is conditional on, if any
+     * @return the updated post and its new ETag, NOT_FOUND, or PRECONDITION_FAILED
+     */
+    @Operation(summary = "Partially update a post", description = "Sets the given fields of a post, optionally conditional on its ETag")
+    @PatchMapping("/posts/{id}")
+    public Mono<ResponseEntity<Post>> patchPost(@PathVariable String id, @RequestBody PostPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (patch.isEmpty()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        }
+        Long expectedVersion;
+        String expectedContentTag;
+        try {
+            expectedVersion = PostETags.expectedVersion(ifMatch, id);
+            expectedContentTag = PostETags.expectedContentTag(ifMatch, id);
+        } catch (PostVersionConflictException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+        }
+        return postService.patchPost(id, patch, expectedVersion, expectedContentTag)
+                .map(post -> ResponseEntity.ok().eTag(PostETags.forPost(post, PostFields.ALL)).body(post))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build())
+                .onErrorResume(PostVersionConflictException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Deletes a post by its ID.
+     *
+     * @param id the ID of the post to be deleted
+     * @return NO_CONTENT if deleted, NOT_FOUND if not found
+     */
+    @Operation(summary = "Delete a post", description = "Deletes a post by its ID")
+    @DeleteMapping("/post/{id}")
+    public Mono<ResponseEntity<Void>> deletePostById(@PathVariable String id) {
+        return postService.deleteById(id)
+                .map(deleted -> ResponseEntity.status(deleted ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND).<Void>build())
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Finds jobs matching a free-text user profile without blocking a thread on
+     * the embedding call or the vector search.
+     *
+     * @param userProfile the user's skills and preferences
+     * @param fields comma-separated post fields to return for each job, or null for all fields
+     * @param includeArchived whether filled, expired and archived posts may match
+     * @param minExperience only match posts requiring at least this many years, if set
+     * @param maxExperience only match posts requiring at most this many years, if set
+     * @param techs comma-separated technologies of which a matched post requires at least one, if set
+     * @param ifNoneMatch the ETag of the results the client already has, if any
+     * @return the matching jobs with scores and reasons, or NOT_MODIFIED
+     */
+    @Operation(summary = "Find matching jobs", description = "Returns jobs matching the user profile")
+    @PostMapping("/jobs/match")
+    public Mono<ResponseEntity<?>> findMatchingJobs(@RequestBody String userProfile,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) Integer minExperience,
+            @RequestParam(required = false) Integer maxExperience,
+            @RequestParam(required = false) List<String> techs,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PostFormat format = PostFormat.negotiate(accept);
+        JobMatchFilter filter = new JobMatchFilter(minExperience, maxExperience, techs);
+        PostFields fieldset;
+        try {
+            fieldset = PostFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        }
+        return jobMatchingService.findMatchingJobs(userProfile, fieldset, includeArchived, filter)
+                .collectList()
+                .<ResponseEntity<?>>map(matches -> {
+                    String etag = format.etag(PostETags.forMatches(matches, fieldset));
+                    if (PostETags.matches(ifNoneMatch, etag)) {
+                        return notModified(etag);
+                    }
+                    if (fieldset.isAll() && format.isJson()) {
+                        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                                .contentType(MediaType.APPLICATION_JSON).body(postJsonWriters.matchesBytes(matches));
+                    }
+                    return writeResponse(matches, fieldset, format, etag);
+                })
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    private ResponseEntity<?> writeResponse(Object value, PostFields fields, PostFormat format, String etag) {
+        return writeBytes(postJsonWriters.writerFor(fields, format), format, value, etag);
+    }
+
+    private static ResponseEntity<?> writeBytes(ObjectWriter writer, PostFormat format, Object value, String etag) {
+        try {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(format.mediaType())
+                    .varyBy(HttpHeaders.ACCEPT);
+            if (etag != null) {
+                response.eTag(etag);
+            }
+            return response.body(writer.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] ndjsonLine(ObjectWriter writer, Post post) {
+        try {
+            byte[] json = writer.writeValueAsBytes(post);
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+}
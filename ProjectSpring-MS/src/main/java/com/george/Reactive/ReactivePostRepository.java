@@ -0,0 +1,11 @@
+package com.george.Reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.george.model.Post;
+
+/**
+ * Non-blocking counterpart of {@link com.george.model.PostRepository}.
+ */
+public interface ReactivePostRepository extends ReactiveMongoRepository<Post, String> {
+}
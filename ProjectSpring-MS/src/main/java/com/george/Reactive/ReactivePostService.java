@@ -0,0 +1,282 @@
+package com.george.Reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.george.Cache.PostCache;
+import com.george.Exception.PostVersionConflictException;
+import com.george.Service.PostChangeNotifier;
+import com.george.Service.PostService;
+import com.george.controller.SearchRepositoryController;
+import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.PostLifecycle;
+import com.george.model.PostPage;
+import com.george.model.PostPatch;
+import com.george.model.SearchPageRequest;
+import com.mongodb.reactivestreams.client.MongoClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Non-blocking counterpart of {@link PostService}.
+ * <p>
+ * Reads and writes go through the Reactive Streams driver and follow the same
+ * rules as the blocking service: versions are set and incremented the same way,
+ * queries and update pipelines are shared, and every write is announced through
+ * the {@link PostChangeNotifier} so caches and in-memory indexes stay in step.
+ * </p>
+ */
+@Service
+@Profile("reactive")
+public class ReactivePostService {
+
+    @Autowired
+    private ReactivePostRepository repo;
+
+    @Autowired
+    private ReactiveMongoTemplate template;
+
+    @Autowired
+    private MongoClient reactiveMongoClient;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private PostChangeNotifier changeNotifier;
+
+    /**
+     * Retrieves one page of posts using keyset pagination on {@code _id}.
+     *
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit the page size, capped at {@link PostService#MAX_PAGE_SIZE}
+     * @param fields the fields to read from the database
+     * @return the page of posts and the cursor for the next page
+     */
+    public Mono<PostPage> getPostsPage(String cursor, int limit, PostFields fields) {
+        int pageSize = Math.max(1, Math.min(limit, PostService.MAX_PAGE_SIZE));
+        return template.find(PostService.keysetQuery(cursor, fields).limit(pageSize + 1), Post.class)
+                .collectList()
+                .map(posts -> {
+                    if (posts.size() <= pageSize) {
+                        return new PostPage(posts, null);
+                    }
+                    List<Post> items = new ArrayList<>(posts.subList(0, pageSize));
+                    return new PostPage(items, items.get(pageSize - 1).getId());
+                });
+    }
+
+    /**
+     * Streams every post after the cursor with the subscriber's demand as backpressure.
+     *
+     * @param cursor the ID to start after, or null to start from the beginning
+     * @param fields the fields to read from the database
+     * @return the posts in {@code _id} order
+     */
+    public Flux<Post> streamPosts(String cursor, PostFields fields) {
+        return template.find(PostService.keysetQuery(cursor, fields), Post.class);
+    }
+
+    /**
+     * Finds a post by its ID, using the post cache when it already holds the post.
+     *
+     * @param id the ID of the post to find
+     * @param fields the fields to read
+     * @return the post, or empty if it does not exist
+     */
+    public Mono<Post> findById(String id, PostFields fields) {
+        Post cached = postCache.peekPost(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (fields.isAll()) {
+            return repo.findById(id);
+        }
+        return template.findOne(fields.applyTo(new Query(Criteria.where("_id").is(id))), Post.class);
+    }
+
+    /**
+     * Finds a post that the archiver has moved out of the live collection.
+     *
+     * @param id the ID of the post to find
+     * @param fields the fields to read
+     * @return the archived post, or empty if it is not archived
+     */
+    public Mono<Post> findArchivedById(String id, PostFields fields) {
+        return template.findOne(fields.applyTo(new Query(Criteria.where("_id").is(id))), Post.class,
+                PostLifecycle.ARCHIVE_COLLECTION);
+    }
+
+    /**
+     * Returns a post only if it is already cached.
+     *
+     * @param id the ID of the post
+     * @return the cached post, or empty
+     */
+    public Mono<Post> findCachedById(String id) {
+        return Mono.justOrEmpty(postCache.peekPost(id));
+    }
+
+    /**
+     * Reads one page of full-text search results, served from the search page
+     * cache when possible.
+     *
+     * @param request the search text, page size, page token and projection options
+     * @return the posts on the page and the token for the next page, or null on the last page
+     * @throws IllegalArgumentException if the page token is malformed
+     */
+    public Mono<SearchPage> searchPage(SearchPageRequest request) {
+        PostCache.SearchPage cached = postCache.getSearchPage(request);
+        if (cached != null) {
+            return Mono.just(new SearchPage(cached.items(), cached.nextPageToken()));
+        }
+        List<Document> pipeline = SearchRepositoryController.searchPipeline(request);
+        long generation = postCache.generation();
+        return Flux.from(reactiveMongoClient.getDatabase(SearchRepositoryController.DATABASE)
+                        .getCollection("JobPost")
+                        .aggregate(pipeline, Document.class))
+                .collectList()
+                .map(docs -> {
+                    List<Post> items = new ArrayList<>(request.getLimit());
+                    for (int i = 0; i < docs.size() && i < request.getLimit(); i++) {
+                        items.add(template.getConverter().read(Post.class, docs.get(i)));
+                    }
+                    String next = docs.size() > request.getLimit()
+                            ? SearchRepositoryController.pageTokenAfter(docs.get(request.getLimit() - 1))
+                            : null;
+                    postCache.putSearchPage(request, items, next, generation);
+                    return new SearchPage(items, next);
+                });
+    }
+
+    /**
+     * One page of search results.
+     *
+     * @param items the posts on the page
+     * @param nextPageToken the token for the following page, or null
+     */
+    public record SearchPage(List<Post> items, String nextPageToken) {}
+
+    /**
+     * Adds a new post to the database.
+     *
+     * @param post the post to save
+     * @return the saved post with its ID and initial version
+     */
+    public Mono<Post> addPost(Post post) {
+        post.setVersion(PostService.INITIAL_VERSION);
+        // Inserted, like on the servlet stack, so an existing ID fails instead of being replaced
+        return repo.insert(post).doOnNext(changeNotifier::notifySaved);
+    }
+
+    /**
+     * Adds multiple posts to the database. They are inserted, so an existing ID
+     * fails instead of being replaced.
+     *
+     * @param posts the posts to save
+     * @return the saved posts
+     */
+    public Flux<Post> addPosts(List<Post> posts) {
+        posts.forEach(post -> post.setVersion(PostService.INITIAL_VERSION));
+        return repo.insert(posts).doOnNext(changeNotifier::notifySaved);
+    }
+
+    /**
+     * Replaces a post, applying the replacement only to the version that was read
+     * and retrying if another write got in between.
+     *
+     * @param post the new content
+     * @param id the ID of the post to replace
+     * @return the updated post, or empty if it does not exist
+     */
+    public Mono<Post> updatePost(Post post, String id) {
+        post.setId(id);
+        return Mono.defer(() -> repo.findById(id))
+                .flatMap(existing -> {
+                    Long readVersion = existing.getVersion();
+                    post.setVersion(PostService.nextVersion(readVersion));
+                    Query unchanged = new Query(Criteria.where("_id").is(id).and("version").is(readVersion));
+                    return template.findAndReplace(unchanged, post)
+                            .map(previous -> post)
+                            .switchIfEmpty(Mono.error(() -> new PostVersionConflictException(
+                                    "Post " + id + " changed during the update")));
+                })
+                .retryWhen(Retry.max(PostService.UPDATE_ATTEMPTS - 1)
+                        .filter(PostVersionConflictException.class::isInstance))
+                .doOnNext(changeNotifier::notifySaved);
+    }
+
+    /**
+     * Applies field-level changes in a single {@code findOneAndUpdate}, see
+     * {@link PostService#patchPost}.
+     *
+     * @param id the ID of the post to change
+     * @param patch the fields to set
+     * @param expectedVersion the version the caller last saw, 0 for an unversioned post, or null
+     * @return the post after the update, empty if it does not exist, or a
+     *         {@link PostVersionConflictException} if it has another version
+     */
+    public Mono<Post> patchPost(String id, PostPatch patch, Long expectedVersion) {
+        return patchPost(id, patch, expectedVersion, null);
+    }
+
+    /**
+     * Applies field-level changes, conditional on the version or, for an
+     * unversioned post, on its content, see {@link PostService#patchPost(String, PostPatch, Long, String)}.
+     *
+     * @param id the ID of the post to change
+     * @param patch the fields to set
+     * @param expectedVersion the version the caller last saw, 0 for an unversioned post, or null
+     * @param expectedContentTag the content tag of an unversioned post, or null
+     * @return the post after the update, empty if it does not exist, or a
+     *         {@link PostVersionConflictException} if it has another version or content
+     */
+    public Mono<Post> patchPost(String id, PostPatch patch, Long expectedVersion, String expectedContentTag) {
+        Document versionFilter = PostService.patchFilter(id, expectedVersion);
+        return Mono.from(template.getCollection(template.getCollectionName(Post.class))
+                        .flatMap(collection -> {
+                            Mono<Document> filter = expectedContentTag == null
+                                    ? Mono.just(versionFilter)
+                                    : Mono.from(collection.find(versionFilter).projection(PostService.CONTENT_PROJECTION).first())
+                                            .mapNotNull(current -> PostService.contentFilter(versionFilter, current,
+                                                    expectedContentTag, template.getConverter().read(Post.class, current)));
+                            return filter.flatMap(exact -> Mono.from(collection.findOneAndUpdate(
+                                    exact, PostService.patchPipeline(patch), PostService.patchOptions())));
+                        }))
+                .map(doc -> template.getConverter().read(Post.class, doc))
+                .switchIfEmpty(Mono.defer(() -> expectedVersion == null
+                        ? Mono.empty()
+                        : repo.existsById(id).flatMap(exists -> exists
+                                ? Mono.error(new PostVersionConflictException(
+                                        "Post " + id + " has changed since version " + expectedVersion))
+                                : Mono.empty())))
+                .doOnNext(changeNotifier::notifySaved);
+    }
+
+    /**
+     * Deletes a post by its ID in a single round trip.
+     *
+     * @param id the ID of the post to delete
+     * @return true if the post existed and was deleted
+     */
+    public Mono<Boolean> deleteById(String id) {
+        return template.remove(new Query(Criteria.where("_id").is(id)), Post.class)
+                .map(result -> result.getDeletedCount() > 0)
+                .doOnNext(deleted -> {
+                    if (deleted) {
+                        changeNotifier.notifyDeleted(id);
+                    }
+                });
+    }
+}
@@ -0,0 +1,73 @@
+package com.george.Reactive;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.george.RateLimit.RateLimitDecision;
+import com.george.RateLimit.RateLimiter;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux equivalent of {@link com.george.RateLimit.RateLimitFilter}, added to
+ * the chain by {@link ReactiveSecurityConfig} after authentication. Charging a
+ * request runs on the bounded elastic scheduler when the rate limit store
+ * performs I/O, and inline otherwise.
+ */
+public class ReactiveRateLimitFilter implements WebFilter {
+
+    private final RateLimiter rateLimiter;
+
+    public ReactiveRateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!rateLimiter.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        String ip = remote == null ? "unknown" : remote.getAddress().getHostAddress();
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication.isAuthenticated()
+                        && !(authentication instanceof AnonymousAuthenticationToken))
+                .map(authentication -> Optional.of(authentication.getName()))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(user -> consume(user.orElse(null), ip, path))
+                .flatMap(decision -> {
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.getHeaders().setAll(decision.headers());
+                    if (decision.allowed()) {
+                        return chain.filter(exchange);
+                    }
+                    response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    DataBuffer body = response.bufferFactory().wrap(("{\"status\":429,\"error\":\"Too Many Requests\","
+                            + "\"message\":\"Rate limit exceeded, retry in " + decision.retryAfterSeconds() + " s\"}")
+                            .getBytes(StandardCharsets.UTF_8));
+                    return response.writeWith(Mono.just(body));
+                });
+    }
+
+    private Mono<RateLimitDecision> consume(String user, String ip, String path) {
+        Mono<RateLimitDecision> decision = Mono.fromCallable(() -> rateLimiter.consume(user, ip, path));
+        return rateLimiter.isBlocking() ? decision.subscribeOn(Schedulers.boundedElastic()) : decision;
+    }
+}
@@ -0,0 +1,143 @@
+package com.george.Reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import com.george.Exception.UserNotFoundException;
+import com.george.RateLimit.RateLimiter;
+import com.george.controller.JwksController;
+import com.george.Security.MyUserDetailsService;
+import com.george.Security.PasswordHasher;
+import com.george.Security.TokenPrincipals;
+import com.george.Service.JWTService;
+import io.jsonwebtoken.Claims;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux security, active with the "reactive" profile.
+ * <p>
+ * Mirrors {@link com.george.Security.SecurityConfig}: "register" and "login" are
+ * public, everything else needs HTTP Basic or a Bearer JWT, and no session is
+ * kept. User lookups go through the JPA-backed {@link MyUserDetailsService} on
+ * the bounded elastic scheduler, as do Bearer token checks, which may query the
+ * revocation store. BCrypt checks wait there for the {@link PasswordHasher}
+ * pool, so none of them blocks an event-loop thread.
+ * </p>
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    @Autowired
+    private JWTService jwtService;
+
+    @Autowired
+    private TokenPrincipals tokenPrincipals;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authorizeExchange(exchange -> exchange.pathMatchers("/register", "/login", "/token/refresh", JwksController.JWKS_PATH).permitAll()
+                        .anyExchange().authenticated())
+                .logout(ServerHttpSecurity.LogoutSpec::disable) // "/logout" revokes tokens in ReactiveUserController
+                .httpBasic(basic -> basic.authenticationManager(passwordAuthenticationManager()))
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .addFilterAt(jwtAuthenticationFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
+                // After authentication, so requests are charged to their user
+                .addFilterAfter(new ReactiveRateLimitFilter(rateLimiter), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Authenticates username and password, for HTTP Basic and for "login".
+     */
+    @Bean
+    public ReactiveAuthenticationManager passwordAuthenticationManager() {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(reactiveUserDetailsService());
+        manager.setPasswordEncoder(passwordHasher);
+        manager.setUserDetailsPasswordService((user, newPassword) ->
+                Mono.fromCallable(() -> userDetailsService.updatePassword(user, newPassword))
+                        .subscribeOn(Schedulers.boundedElastic()));
+        return manager;
+    }
+
+    /**
+     * Authenticates requests carrying a Bearer token. A token that fails
+     * validation ends the request with 401 Unauthorized.
+     */
+    private AuthenticationWebFilter jwtAuthenticationFilter() {
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(jwtAuthenticationManager());
+        jwtFilter.setServerAuthenticationConverter(exchange -> {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return Mono.empty();
+            }
+            String token = authHeader.substring(7);
+            return Mono.just(new UsernamePasswordAuthenticationToken(token, token));
+        });
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        return jwtFilter;
+    }
+
+    /**
+     * Validates a Bearer token the same way {@link com.george.Security.jwtFilter} does.
+     */
+    private ReactiveAuthenticationManager jwtAuthenticationManager() {
+        return authentication -> {
+            String token = (String) authentication.getCredentials();
+            // The revocation check and, unless principals come from the claims, the
+            // user lookup may block on the databases
+            return Mono.fromCallable(() -> jwtService.verify(token).flatMap(tokenPrincipals::resolve))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(principal -> principal
+                            .map(userDetails -> Mono.<Authentication>just(new UsernamePasswordAuthenticationToken(
+                                    userDetails, null, userDetails.getAuthorities())))
+                            // Not a token we issued, expired or revoked, or the user no longer exists
+                            .orElseGet(ReactiveSecurityConfig::invalidToken));
+        };
+    }
+
+    /**
+     * AuthenticationWebFilter turns an empty result into an IllegalStateException,
+     * i.e. a 500, so a rejected token has to fail with an AuthenticationException.
+     */
+    private static Mono<Authentication> invalidToken() {
+        return Mono.error(() -> new BadCredentialsException("Invalid token"));
+    }
+
+    private ReactiveUserDetailsService reactiveUserDetailsService() {
+        return username -> Mono.fromCallable(() -> (UserDetails) userDetailsService.loadUserByUsername(username))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(UserNotFoundException.class, e -> Mono.empty());
+    }
+}
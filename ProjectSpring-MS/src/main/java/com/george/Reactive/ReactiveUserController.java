@@ -0,0 +1,154 @@
+package com.george.Reactive;
+
+import java.security.Principal;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.george.Exception.UserNotFoundException;
+import com.george.Security.MyUserDetailsService;
+import com.george.Security.PasswordHasher;
+import com.george.Security.RefreshTokenRequest;
+import com.george.Security.TokenResponse;
+import com.george.Security.User;
+import com.george.Security.UserRepo;
+import com.george.Service.JWTService;
+
+import io.jsonwebtoken.Claims;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux equivalent of {@link com.george.controller.UserController}, active with
+ * the "reactive" profile. Users live in JPA, so repository calls and password
+ * hashing run on the bounded elastic scheduler.
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveUserController {
+
+    @Autowired
+    private UserRepo repo;
+
+    @Autowired
+    private ReactiveAuthenticationManager passwordAuthenticationManager;
+
+    @Autowired
+    private JWTService jwtService;
+
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    /**
+     * Retrieves a list of all registered users.
+     *
+     * @return List of {@link User} objects
+     */
+    @GetMapping("/users")
+    public Mono<List<User>> getUsers() {
+        return Mono.fromCallable(repo::findAll).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Registers a new user by hashing their password before storing it in the database.
+     *
+     * @param user The user details from the request body
+     * @return The registered {@link User} object
+     */
+    @PostMapping("/register")
+    public Mono<User> registerUser(@RequestBody User user) {
+        return Mono.fromCallable(() -> {
+                    user.setPassword(passwordHasher.encode(user.getPassword()));
+                    User saved = repo.save(user);
+                    userDetailsService.evict(saved.getUsername()); // a save may replace an existing user
+                    return saved;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Authenticates a user and issues an access token and a refresh token.
+     *
+     * @param user The login credentials from the request body
+     * @return the {@link TokenResponse} if authentication is successful, else an error response
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> login(@RequestBody User user) {
+        return passwordAuthenticationManager
+                .authenticate(new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword()))
+                .filter(authentication -> authentication.isAuthenticated())
+                .<ResponseEntity<?>>map(authentication -> ResponseEntity.ok(jwtService.issueTokens((UserDetails) authentication.getPrincipal())))
+                .onErrorResume(AuthenticationException.class, e -> Mono.empty())
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("failure authenticating"));
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair without checking the password.
+     * The refresh token is revoked as it is redeemed, so each one can be used
+     * once; using one again revokes every token of its session.
+     *
+     * @param request the refresh token
+     * @return the new {@link TokenResponse}, or 401 if the refresh token is invalid, expired or revoked
+     */
+    @PostMapping("/token/refresh")
+    public Mono<ResponseEntity<?>> refresh(@RequestBody RefreshTokenRequest request) {
+        // Revocation checks and the user lookup may block on the databases
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+                    Claims claims = jwtService.redeemRefreshToken(request.getRefreshToken()).orElse(null);
+                    if (claims == null) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("invalid refresh token");
+                    }
+                    UserDetails userDetails;
+                    try {
+                        // Picks up role changes made since the last login
+                        userDetails = userDetailsService.loadCachedUserByUsername(claims.getSubject());
+                    } catch (UserNotFoundException e) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("invalid refresh token");
+                    }
+                    return ResponseEntity.ok(jwtService.issueTokens(userDetails, claims));
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Revokes the access token of the request and, if given, the caller's refresh token.
+     *
+     * @param authorization the Authorization header
+     * @param request the refresh token to revoke, optional
+     * @param principal the authenticated user
+     * @return 204 No Content
+     */
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenRequest request, Principal principal) {
+        return Mono.fromCallable(() -> {
+                    if (authorization != null && authorization.startsWith("Bearer ")) {
+                        jwtService.verify(authorization.substring(7)).ifPresent(jwtService::revoke);
+                    }
+                    if (request != null) {
+                        jwtService.verifyRefreshToken(request.getRefreshToken())
+                                .filter(claims -> claims.getSubject().equals(principal.getName()))
+                                .ifPresent(jwtService::revoke);
+                    }
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,233 @@
+package com.george.Search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmaps for technology and experience facets.
+ * <p>
+ * Every indexed post is given a dense integer ordinal. For each technology and
+ * each experience bucket a {@link BitSet} records which ordinals carry it.
+ * Counting facets for a result set turns the result IDs into a bitmap once and
+ * then intersects it with each facet bitmap, which costs a few word operations
+ * per 64 posts instead of a scan over documents.
+ * </p>
+ * <p>
+ * Ordinals of deleted posts are reused so the bitmaps stay dense. Technologies
+ * are grouped case-insensitively and reported with the first spelling seen.
+ * </p>
+ */
+public class FacetIndex {
+
+    /** Experience buckets, as labels and inclusive lower bounds in years */
+    public static final List<String> EXPERIENCE_BUCKETS = List.of("0-1", "2-4", "5-7", "8+");
+    private static final int[] BUCKET_LOWER_BOUNDS = {0, 2, 5, 8};
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, BitSet> techBits = new HashMap<>();
+    private final Map<String, String> techNames = new HashMap<>();
+    private final BitSet[] bucketBits = new BitSet[EXPERIENCE_BUCKETS.size()];
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Entry(String id, List<String> techKeys, int bucket) {}
+
+    /**
+     * Facet counts for one result set.
+     *
+     * @param matched the number of result IDs known to the index
+     * @param techs counts per technology, highest first
+     * @param experience counts per experience bucket, in bucket order
+     */
+    public record Counts(int matched, Map<String, Integer> techs, Map<String, Integer> experience) {}
+
+    public FacetIndex() {
+        for (int i = 0; i < bucketBits.length; i++) {
+            bucketBits[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Indexes a post, replacing whatever was indexed for it before.
+     *
+     * @param id the post ID
+     * @param techs the post's required technologies, may be null
+     * @param experience the post's required experience in years
+     */
+    public void put(String id, List<String> techs, int experience) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(id);
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+                clearBits(ordinal, entries.get(ordinal));
+            } else {
+                ordinal = freeOrdinals.isEmpty() ? entries.size() : freeOrdinals.pop();
+                ordinals.put(id, ordinal);
+            }
+
+            List<String> techKeys = new ArrayList<>();
+            if (techs != null) {
+                for (String tech : techs) {
+                    if (tech == null || tech.isBlank()) {
+                        continue;
+                    }
+                    String key = tech.trim().toLowerCase(Locale.ROOT);
+                    if (!techKeys.contains(key)) {
+                        techKeys.add(key);
+                        techNames.putIfAbsent(key, tech.trim());
+                        techBits.computeIfAbsent(key, k -> new BitSet()).set(ordinal);
+                    }
+                }
+            }
+            int bucket = bucketOf(experience);
+            bucketBits[bucket].set(ordinal);
+
+            Entry entry = new Entry(id, techKeys, bucket);
+            if (ordinal == entries.size()) {
+                entries.add(entry);
+            } else {
+                entries.set(ordinal, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a post from the index. Unknown IDs are ignored.
+     *
+     * @param id the post ID
+     */
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                clearBits(ordinal, entries.get(ordinal));
+                entries.set(ordinal, null);
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts technologies and experience buckets over the given result set.
+     *
+     * @param ids the IDs of the posts in the result set
+     * @param maxTechs the maximum number of technologies to report
+     * @return the facet counts
+     */
+    public Counts count(Iterable<String> ids, int maxTechs) {
+        lock.readLock().lock();
+        try {
+            BitSet result = new BitSet(entries.size());
+            for (String id : ids) {
+                Integer ordinal = ordinals.get(id);
+                if (ordinal != null) {
+                    result.set(ordinal);
+                }
+            }
+
+            BitSet scratch = new BitSet(entries.size());
+            List<Map.Entry<String, Integer>> techCounts = new ArrayList<>();
+            for (Map.Entry<String, BitSet> tech : techBits.entrySet()) {
+                int count = intersectionCount(result, tech.getValue(), scratch);
+                if (count > 0) {
+                    techCounts.add(Map.entry(techNames.get(tech.getKey()), count));
+                }
+            }
+            techCounts.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            Map<String, Integer> techs = new LinkedHashMap<>();
+            techCounts.stream().limit(Math.max(0, maxTechs)).forEach(e -> techs.put(e.getKey(), e.getValue()));
+
+            Map<String, Integer> experience = new LinkedHashMap<>();
+            for (int i = 0; i < bucketBits.length; i++) {
+                experience.put(EXPERIENCE_BUCKETS.get(i), intersectionCount(result, bucketBits[i], scratch));
+            }
+            return new Counts(result.cardinality(), techs, experience);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed posts
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every post from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            entries.clear();
+            freeOrdinals.clear();
+            techBits.clear();
+            techNames.clear();
+            for (BitSet bits : bucketBits) {
+                bits.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Maps years of experience to the index of its bucket.
+     *
+     * @param experience the required experience in years
+     * @return the bucket index into {@link #EXPERIENCE_BUCKETS}
+     */
+    public static int bucketOf(int experience) {
+        for (int i = BUCKET_LOWER_BOUNDS.length - 1; i > 0; i--) {
+            if (experience >= BUCKET_LOWER_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private void clearBits(int ordinal, Entry entry) {
+        Objects.requireNonNull(entry);
+        for (String key : entry.techKeys()) {
+            BitSet bits = techBits.get(key);
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                techBits.remove(key);
+                techNames.remove(key);
+            }
+        }
+        bucketBits[entry.bucket()].clear(ordinal);
+    }
+
+    private static int intersectionCount(BitSet result, BitSet facet, BitSet scratch) {
+        scratch.clear();
+        scratch.or(result);
+        scratch.and(facet);
+        return scratch.cardinality();
+    }
+}
@@ -0,0 +1,306 @@
+package com.george.Search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory snapshot of the post metadata used for filtering.
+ * <p>
+ * Every post is a row at a dense ordinal. Experience is an {@code int[]}
+ * column. Titles and technologies are dictionary-encoded, so a row stores only
+ * integer codes and every distinct string is kept once. The technology codes
+ * of all rows are packed into one {@code int[]}, addressed by per-row offset
+ * and length columns. A filter scan therefore reads a few primitive arrays
+ * sequentially instead of following references through {@code Post} objects
+ * and their lists.
+ * </p>
+ * <p>
+ * A replaced row appends its technology codes at the end of the packed array;
+ * the space left behind is reclaimed by compacting the array once it is mostly
+ * garbage. Ordinals of removed posts are reused, as in {@link FacetIndex}.
+ * Dictionary entries are only dropped by {@link #clear()}.
+ * </p>
+ */
+public class PostColumns {
+
+    private static final int INITIAL_ROWS = 1024;
+    private static final int NO_TITLE = -1;
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private String[] ids = new String[INITIAL_ROWS];
+    private int[] experience = new int[INITIAL_ROWS];
+    private int[] titleCodes = new int[INITIAL_ROWS];
+    private int[] techOffsets = new int[INITIAL_ROWS];
+    private int[] techLengths = new int[INITIAL_ROWS];
+    private int rows;
+
+    /** Technology codes of all rows, back to back */
+    private int[] techCodes = new int[INITIAL_ROWS * 4];
+    private int techCodesSize;
+    private int techCodesGarbage;
+
+    private final Map<String, Integer> titleDictionary = new HashMap<>();
+    private final List<String> titles = new ArrayList<>();
+    /** Keyed by the lower-cased technology */
+    private final Map<String, Integer> techDictionary = new HashMap<>();
+    private final List<String> techNames = new ArrayList<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Stores a post, replacing its previous row.
+     *
+     * @param id the post ID
+     * @param title the job title, may be null
+     * @param techs the required technologies, may be null
+     * @param years the required experience in years
+     */
+    public void put(String id, String title, List<String> techs, int years) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(id);
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+                techCodesGarbage += techLengths[ordinal];
+            } else {
+                ordinal = freeOrdinals.isEmpty() ? rows++ : freeOrdinals.pop();
+                ensureRows(rows);
+                ordinals.put(id, ordinal);
+            }
+            ids[ordinal] = id;
+            experience[ordinal] = years;
+            titleCodes[ordinal] = title == null ? NO_TITLE : encode(title, title, titleDictionary, titles);
+
+            int[] codes = encodeTechs(techs);
+            ensureTechCodes(techCodesSize + codes.length);
+            System.arraycopy(codes, 0, techCodes, techCodesSize, codes.length);
+            techOffsets[ordinal] = techCodesSize;
+            techLengths[ordinal] = codes.length;
+            techCodesSize += codes.length;
+            compactIfMostlyGarbage();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a post. Unknown IDs are ignored.
+     *
+     * @param id the post ID
+     */
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                ids[ordinal] = null;
+                titleCodes[ordinal] = NO_TITLE;
+                techCodesGarbage += techLengths[ordinal];
+                techLengths[ordinal] = 0;
+                freeOrdinals.push(ordinal);
+                compactIfMostlyGarbage();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Scans the columns for the posts within an experience range that require
+     * at least one of the given technologies.
+     *
+     * @param minExperience the inclusive lower bound, or null
+     * @param maxExperience the inclusive upper bound, or null
+     * @param techs the technologies, case-insensitive; null or empty for any
+     * @return the IDs of the matching posts
+     */
+    public List<String> select(Integer minExperience, Integer maxExperience, List<String> techs) {
+        int min = minExperience == null ? Integer.MIN_VALUE : minExperience;
+        int max = maxExperience == null ? Integer.MAX_VALUE : maxExperience;
+        lock.readLock().lock();
+        try {
+            boolean[] wanted = null;
+            if (techs != null && !techs.isEmpty()) {
+                wanted = new boolean[techNames.size()];
+                boolean known = false;
+                for (String tech : techs) {
+                    Integer code = techDictionary.get(key(tech));
+                    if (code != null) {
+                        wanted[code] = true;
+                        known = true;
+                    }
+                }
+                if (!known) {
+                    return List.of();
+                }
+            }
+            List<String> selected = new ArrayList<>();
+            for (int row = 0; row < rows; row++) {
+                int years = experience[row];
+                if (ids[row] == null || years < min || years > max) {
+                    continue;
+                }
+                if (wanted == null || anyTech(row, wanted)) {
+                    selected.add(ids[row]);
+                }
+            }
+            return selected;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param id the post ID
+     * @return the interned job title of the post, or null if unknown
+     */
+    public String title(String id) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(id);
+            return ordinal == null || titleCodes[ordinal] == NO_TITLE ? null : titles.get(titleCodes[ordinal]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of stored posts
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the approximate heap size of the columns, excluding the IDs and dictionaries
+     */
+    public long columnBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) Integer.BYTES * (experience.length + titleCodes.length + techOffsets.length
+                    + techLengths.length + techCodes.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every post and empties the dictionaries.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            freeOrdinals.clear();
+            Arrays.fill(ids, 0, rows, null);
+            rows = 0;
+            techCodesSize = 0;
+            techCodesGarbage = 0;
+            titleDictionary.clear();
+            titles.clear();
+            techDictionary.clear();
+            techNames.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean anyTech(int row, boolean[] wanted) {
+        int end = techOffsets[row] + techLengths[row];
+        for (int i = techOffsets[row]; i < end; i++) {
+            int code = techCodes[i];
+            if (code < wanted.length && wanted[code]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] encodeTechs(List<String> techs) {
+        if (techs == null || techs.isEmpty()) {
+            return new int[0];
+        }
+        int[] codes = new int[techs.size()];
+        int length = 0;
+        for (String tech : techs) {
+            if (tech == null || tech.isBlank()) {
+                continue;
+            }
+            int code = encode(key(tech), tech.trim(), techDictionary, techNames);
+            boolean duplicate = false;
+            for (int i = 0; i < length && !duplicate; i++) {
+                duplicate = codes[i] == code;
+            }
+            if (!duplicate) {
+                codes[length++] = code;
+            }
+        }
+        return Arrays.copyOf(codes, length);
+    }
+
+    private static int encode(String key, String value, Map<String, Integer> dictionary, List<String> values) {
+        Integer code = dictionary.get(key);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            dictionary.put(key, code);
+        }
+        return code;
+    }
+
+    private static String key(String tech) {
+        return tech.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void ensureRows(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        experience = Arrays.copyOf(experience, capacity);
+        titleCodes = Arrays.copyOf(titleCodes, capacity);
+        techOffsets = Arrays.copyOf(techOffsets, capacity);
+        techLengths = Arrays.copyOf(techLengths, capacity);
+    }
+
+    private void ensureTechCodes(int required) {
+        if (required > techCodes.length) {
+            techCodes = Arrays.copyOf(techCodes, Math.max(required, techCodes.length * 2));
+        }
+    }
+
+    /** Rewrites the packed technology codes in row order once half of them are stale */
+    private void compactIfMostlyGarbage() {
+        if (techCodesGarbage < INITIAL_ROWS || techCodesGarbage * 2 < techCodesSize) {
+            return;
+        }
+        int[] packed = new int[Math.max(INITIAL_ROWS, techCodesSize - techCodesGarbage)];
+        int size = 0;
+        for (int row = 0; row < rows; row++) {
+            if (ids[row] == null) {
+                continue;
+            }
+            System.arraycopy(techCodes, techOffsets[row], packed, size, techLengths[row]);
+            techOffsets[row] = size;
+            size += techLengths[row];
+        }
+        techCodes = packed;
+        techCodesSize = size;
+        techCodesGarbage = 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.george.Search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque search-after cursor for relevance-ordered search results.
+ * <p>
+ * Results are ordered by descending score and then ascending {@code _id}. When
+ * a single collection is searched, Atlas Search sorts the results itself and
+ * the token carries the {@code searchSequenceToken} of the last returned
+ * document, which {@code $search} resumes from with {@code searchAfter}.
+ * Otherwise the score and ID of the last returned document identify where the
+ * next page starts.
+ * </p>
+ *
+ * @param score the search score of the last document on the previous page
+ * @param id the {@code _id} of the last document on the previous page
+ * @param sequence the {@code searchSequenceToken} of that document, or null
+ *        if the results were merged from several searches
+ */
+public record SearchPageToken(double score, String id, String sequence) {
+
+    /**
+     * @return the URL-safe token representation handed to clients
+     */
+    public String encode() {
+        // Sequence tokens are base64 and never contain ':'; IDs may
+        String raw = Double.toString(score) + ":" + (sequence == null ? "" : sequence) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token previously produced by {@link #encode()}.
+     *
+     * @param token the client supplied token
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static SearchPageToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int scoreEnd = raw.indexOf(':');
+            int sequenceEnd = scoreEnd < 0 ? -1 : raw.indexOf(':', scoreEnd + 1);
+            if (scoreEnd <= 0 || sequenceEnd < 0 || sequenceEnd == raw.length() - 1) {
+                throw new IllegalArgumentException("Malformed page token");
+            }
+            String sequence = raw.substring(scoreEnd + 1, sequenceEnd);
+            return new SearchPageToken(Double.parseDouble(raw.substring(0, scoreEnd)), raw.substring(sequenceEnd + 1),
+                    sequence.isEmpty() ? null : sequence);
+        } catch (IllegalArgumentException e) { // also covers NumberFormatException
+            throw new IllegalArgumentException("Invalid page token: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.george.Search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Weighted prefix index used for typeahead completions.
+ * <p>
+ * Terms are stored in a trie whose nodes keep their children in sorted,
+ * array-backed form (no per-node maps) and cache the highest weight found in
+ * their subtree. Top-N lookups walk the trie best-first using those cached
+ * maxima, so only the branches that can still contribute a result are
+ * visited and a completion costs roughly O(prefix length + N log N).
+ * </p>
+ * <p>
+ * Weights are adjusted incrementally with {@link #add(String, int)}; a term
+ * whose weight drops to zero disappears from completions and its now-empty
+ * branch is pruned. Keys are matched case-insensitively while the first
+ * spelling seen for a term is kept for display.
+ * </p>
+ */
+public class TypeaheadIndex {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    /**
+     * A single completion returned by {@link #complete(String, int)}.
+     */
+    public record Completion(String text, int weight) {}
+
+    /**
+     * Adjusts the weight of a term, inserting it when it is new.
+     *
+     * @param term the term as it should be displayed
+     * @param delta the weight change, negative to decrement
+     */
+    public void add(String term, int delta) {
+        String key = normalize(term);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                Node child = node.child(key.charAt(i));
+                if (child == null) {
+                    if (delta < 0) {
+                        return; // decrementing an unknown term is a no-op
+                    }
+                    child = node.addChild(key.charAt(i));
+                }
+                node = child;
+                path[i + 1] = node;
+            }
+
+            int before = node.weight;
+            node.weight = Math.max(0, node.weight + delta);
+            if (node.weight > 0 && node.display == null) {
+                node.display = term.trim();
+            }
+            if (before == 0 && node.weight > 0) {
+                size++;
+            } else if (before > 0 && node.weight == 0) {
+                size--;
+                node.display = null;
+            }
+
+            // Recompute cached subtree maxima bottom-up and drop empty branches
+            for (int i = key.length(); i >= 0; i--) {
+                Node current = path[i];
+                current.recomputeMax();
+                if (i > 0 && current.maxWeight == 0 && current.keys.length == 0) {
+                    path[i - 1].removeChild(key.charAt(i - 1));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the highest weighted terms starting with the given prefix,
+     * ordered by descending weight.
+     *
+     * @param prefix the typed prefix, matched case-insensitively
+     * @param limit the maximum number of completions to return
+     * @return up to {@code limit} completions
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null || node.maxWeight == 0) {
+                return List.of();
+            }
+
+            // Best-first walk: a node is expanded only once it beats every pending result
+            List<Completion> results = new ArrayList<>(limit);
+            PriorityQueue<Candidate> queue = new PriorityQueue<>();
+            queue.add(new Candidate(node, null, node.maxWeight));
+            while (!queue.isEmpty() && results.size() < limit) {
+                Candidate candidate = queue.poll();
+                if (candidate.text != null) {
+                    results.add(new Completion(candidate.text, candidate.priority));
+                    continue;
+                }
+                Node current = candidate.node;
+                if (current.weight > 0) {
+                    queue.add(new Candidate(null, current.display, current.weight));
+                }
+                for (Node child : current.children) {
+                    if (child.maxWeight > 0) {
+                        queue.add(new Candidate(child, null, child.maxWeight));
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of distinct terms with a positive weight
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every term from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.keys = NO_KEYS;
+            root.children = NO_CHILDREN;
+            root.weight = 0;
+            root.maxWeight = 0;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+        final Node node;
+        final String text;
+        final int priority;
+
+        Candidate(Node node, String text, int priority) {
+            this.node = node;
+            this.text = text;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byPriority = Integer.compare(other.priority, priority);
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            // At equal priority emit finished results before expanding nodes
+            return Boolean.compare(text == null, other.text == null);
+        }
+    }
+
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int weight;
+        int maxWeight;
+        String display;
+
+        Node child(char c) {
+            int idx = Arrays.binarySearch(keys, c);
+            return idx >= 0 ? children[idx] : null;
+        }
+
+        Node addChild(char c) {
+            int idx = -(Arrays.binarySearch(keys, c) + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, idx);
+            System.arraycopy(children, 0, newChildren, 0, idx);
+            System.arraycopy(keys, idx, newKeys, idx + 1, keys.length - idx);
+            System.arraycopy(children, idx, newChildren, idx + 1, children.length - idx);
+            Node child = new Node();
+            newKeys[idx] = c;
+            newChildren[idx] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char c) {
+            int idx = Arrays.binarySearch(keys, c);
+            if (idx < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, idx);
+            System.arraycopy(children, 0, newChildren, 0, idx);
+            System.arraycopy(keys, idx + 1, newKeys, idx, keys.length - idx - 1);
+            System.arraycopy(children, idx + 1, newChildren, idx, children.length - idx - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void recomputeMax() {
+            int max = weight;
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.george.Security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process {@link RevocationStore}, for a single node and for tests.
+ * Revocations are lost on restart and are not seen by other nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "jobmatch.jwt.revocation.store", havingValue = "memory")
+public class InMemoryRevocationStore implements RevocationStore {
+
+    private record Revocation(Instant revokedAt, Instant expiresAt) {}
+
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        return revocations.putIfAbsent(tokenId, new Revocation(Instant.now(), expiresAt)) == null;
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        Revocation revocation = revocations.get(tokenId);
+        if (revocation == null) {
+            return false;
+        }
+        if (revocation.expiresAt().isBefore(Instant.now())) {
+            revocations.remove(tokenId, revocation);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> revokedSince(Instant since) {
+        Instant now = Instant.now();
+        revocations.values().removeIf(revocation -> revocation.expiresAt().isBefore(now));
+        return revocations.entrySet().stream()
+                .filter(entry -> !entry.getValue().revokedAt().isBefore(since))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,163 @@
+package com.george.Security;
+
+import java.security.Key;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.crypto.SecretKey;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+
+/**
+ * The keys tokens are signed and verified with, identified by {@code kid}.
+ * <p>
+ * Keys come from a JWK Set holding HMAC secrets ({@code "kty": "oct"}) and
+ * private or public EC P-256 and Ed25519 keys. Every key verifies tokens
+ * carrying its {@code kid}; one key with secret or private material signs new
+ * tokens. Rotating means adding the new key on every node, switching the
+ * signing key, and removing the old key once its tokens have expired. Public
+ * keys can be listed without their private part, which is what the JWKS
+ * endpoint publishes; HMAC secrets are never published.
+ * </p>
+ * <p>
+ * All key objects are decoded once, so verification only looks a key up by
+ * {@code kid}.
+ * </p>
+ */
+public final class JwtKeySet {
+
+    private final String signingKeyId;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+    private final List<PublicJwk<?>> publicJwks;
+
+    private JwtKeySet(String signingKeyId, Key signingKey, Map<String, Key> verificationKeys,
+            List<PublicJwk<?>> publicJwks) {
+        this.signingKeyId = signingKeyId;
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+        this.publicJwks = List.copyOf(publicJwks);
+    }
+
+    /**
+     * Generates a random HMAC-SHA256 key, for a single instance without configured
+     * keys. Its tokens do not survive a restart and no other instance accepts them.
+     *
+     * @return a key set with one generated key
+     */
+    public static JwtKeySet generated() {
+        String kid = "local-" + UUID.randomUUID();
+        SecretKey key = Jwts.SIG.HS256.key().build();
+        return new JwtKeySet(kid, key, Map.of(kid, key), List.of());
+    }
+
+    /**
+     * Reads keys from a JWK Set document.
+     *
+     * @param json the JWK Set, e.g. {@code {"keys": [{"kty": "oct", "kid": "k1", "k": "..."}]}}
+     * @param signingKeyId the {@code kid} of the signing key, or null or blank for
+     *        the first key that can sign
+     * @return the key set
+     * @throws IllegalArgumentException if the document is invalid, a key has no
+     *         {@code kid}, an ID is repeated, or there is no usable signing key
+     */
+    public static JwtKeySet parse(String json, String signingKeyId) {
+        JwkSet set = Jwks.setParser().build().parse(json);
+        Map<String, Key> verificationKeys = new LinkedHashMap<>();
+        List<PublicJwk<?>> publicJwks = new ArrayList<>();
+        String signer = signingKeyId == null || signingKeyId.isBlank() ? null : signingKeyId;
+        Key signingKey = null;
+        for (Jwk<?> jwk : set.getKeys()) {
+            String kid = jwk.getId();
+            if (kid == null || kid.isBlank()) {
+                throw new IllegalArgumentException("Every JWT key needs a \"kid\"");
+            }
+            if (verificationKeys.containsKey(kid)) {
+                throw new IllegalArgumentException("Duplicate JWT key ID " + kid);
+            }
+            Key key = jwk.toKey();
+            boolean canSign = key instanceof SecretKey || key instanceof PrivateKey;
+            if (jwk instanceof PrivateJwk<?, ?, ?> privateJwk) {
+                PublicJwk<?> publicJwk = privateJwk.toPublicJwk();
+                verificationKeys.put(kid, publicJwk.toKey());
+                publicJwks.add(publicJwk);
+            } else if (jwk instanceof PublicJwk<?> publicJwk) {
+                verificationKeys.put(kid, key);
+                publicJwks.add(publicJwk);
+            } else {
+                verificationKeys.put(kid, key);
+            }
+            if (canSign && signingKey == null && (signer == null || signer.equals(kid))) {
+                signer = kid;
+                signingKey = key;
+            }
+        }
+        if (signingKey == null) {
+            throw new IllegalArgumentException(signer == null ? "No JWT key with secret or private material to sign with"
+                    : "No JWT signing key with ID " + signer);
+        }
+        return new JwtKeySet(signer, signingKey, verificationKeys, publicJwks);
+    }
+
+    /**
+     * @return the {@code kid} written into new tokens
+     */
+    public String signingKeyId() {
+        return signingKeyId;
+    }
+
+    /**
+     * @return the key new tokens are signed with
+     */
+    public Key signingKey() {
+        return signingKey;
+    }
+
+    /**
+     * @param kid a key ID from a token header
+     * @return the key verifying tokens with that ID, or null if unknown
+     */
+    public Key verificationKey(String kid) {
+        return kid == null ? null : verificationKeys.get(kid);
+    }
+
+    /**
+     * @return a key locator for the JWT parser, resolving keys by the {@code kid} header
+     */
+    public LocatorAdapter<Key> locator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                return verificationKey(header.getKeyId());
+            }
+        };
+    }
+
+    /**
+     * Serializes the public verification keys as a JWK Set document.
+     *
+     * @return the JWK Set JSON, with an empty list if all keys are HMAC secrets
+     */
+    public String publicJwkSetJson() {
+        StringBuilder json = new StringBuilder("{\"keys\":[");
+        for (int i = 0; i < publicJwks.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(Jwks.json(publicJwks.get(i)));
+        }
+        return json.append("]}").toString();
+    }
+}
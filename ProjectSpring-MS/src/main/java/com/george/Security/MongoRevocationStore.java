@@ -0,0 +1,77 @@
+package com.george.Security;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+
+/**
+ * {@link RevocationStore} in the RevokedToken collection, shared by all nodes.
+ * <p>
+ * Each revocation is a document keyed by the token ID, inserted rather than
+ * upserted so that the unique {@code _id} decides which of several concurrent
+ * revocations of a token wins. A TTL index on
+ * {@code expiresAt}, declared in {@link com.george.Vector.IndexBootstrap},
+ * removes it once the token has expired; because the TTL monitor runs only
+ * about once a minute, reads also ignore expired entries.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "jobmatch.jwt.revocation.store", havingValue = "mongo", matchIfMissing = true)
+public class MongoRevocationStore implements RevocationStore {
+
+    public static final String COLLECTION = "RevokedToken";
+    public static final String EXPIRES_AT = "expiresAt";
+    public static final String REVOKED_AT = "revokedAt";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        Document revocation = new Document("_id", tokenId)
+                .append(EXPIRES_AT, Date.from(expiresAt))
+                .append(REVOKED_AT, new Date());
+        try {
+            collection().insertOne(revocation);
+            return true;
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                return false; // revoked before, by this node or another
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return collection().find(Filters.and(Filters.eq("_id", tokenId), Filters.gt(EXPIRES_AT, new Date())))
+                .projection(Projections.include("_id"))
+                .first() != null;
+    }
+
+    @Override
+    public List<String> revokedSince(Instant since) {
+        List<String> ids = new ArrayList<>();
+        collection().find(Filters.and(Filters.gte(REVOKED_AT, Date.from(since)), Filters.gt(EXPIRES_AT, new Date())))
+                .projection(Projections.include("_id"))
+                .forEach(document -> ids.add(document.getString("_id")));
+        return ids;
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+}
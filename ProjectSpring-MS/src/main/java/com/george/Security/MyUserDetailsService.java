@@ -3,22 +3,61 @@ package com.george.Security;
 import com.george.Exception.UserNotFoundException;
 import com.george.Security.User;
 import com.george.Security.UserRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Loads users from the users table.
+ * <p>
+ * Password logins always read the table through {@link #loadUserByUsername(String)},
+ * which also refreshes the user cache. Requests carrying a token can use
+ * {@link #loadCachedUserByUsername(String)} instead, which only reads the table
+ * on a miss. Cached users expire after {@code jobmatch.auth.user-cache.ttl} and
+ * are evicted explicitly whenever a user is written through the API.
+ * </p>
+ * <p>
+ * As a {@link UserDetailsPasswordService} it stores the new hash the
+ * authentication providers compute after a login whose stored hash used an
+ * outdated BCrypt strength.
+ * </p>
+ */
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger logger = LoggerFactory.getLogger(MyUserDetailsService.class);
 
     @Autowired
     private UserRepo repo; // Injecting UserRepo to access the database
 
+    @Value("${jobmatch.auth.user-cache.ttl:5m}")
+    private Duration userCacheTtl;
+
+    @Value("${jobmatch.auth.user-cache.max-size:10000}")
+    private long userCacheMaxSize;
+
+    private Cache<String, UserDetails> users;
+
+    @PostConstruct
+    void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(userCacheMaxSize)
+                .expireAfterWrite(userCacheTtl)
+                .build();
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) {
         // Attempt to retrieve the user from the database by username
@@ -26,10 +65,54 @@ public class MyUserDetailsService implements UserDetailsService {
 
         // Map the user to UserPrincipal (implements UserDetails)
         // If user is not found, throw UserNotFoundException with a helpful message and log the warning
-        return userOptional.map(UserPrincipal::new)
+        UserDetails user = userOptional.map(UserPrincipal::new)
                 .orElseThrow(() -> {
                     logger.warn("User with username '{}' not found", username); // Logging failed lookup
                     return new UserNotFoundException("User with username '" + username + "' not found.");
                 });
+        users.put(username, user);
+        return user;
+    }
+
+    /**
+     * Returns a user from the cache, loading it from the database on a miss.
+     *
+     * @param username the username
+     * @return the user
+     * @throws UserNotFoundException if there is no such user
+     */
+    public UserDetails loadCachedUserByUsername(String username) {
+        UserDetails cached = users.getIfPresent(username);
+        return cached != null ? cached : loadUserByUsername(username);
+    }
+
+    /**
+     * Drops a user from the cache after it was created or changed.
+     *
+     * @param username the username
+     */
+    public void evict(String username) {
+        if (username != null) {
+            users.invalidate(username);
+        }
+    }
+
+    /**
+     * Replaces the stored password hash of a user after a successful login.
+     *
+     * @param user the authenticated user
+     * @param newPassword the new hash
+     * @return the user with the new hash
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User stored = repo.findByUsername(user.getUsername());
+        if (stored == null) {
+            return user;
+        }
+        stored.setPassword(newPassword);
+        UserDetails updated = new UserPrincipal(repo.save(stored));
+        users.put(updated.getUsername(), updated);
+        return updated;
     }
 }
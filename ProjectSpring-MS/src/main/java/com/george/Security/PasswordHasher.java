@@ -0,0 +1,163 @@
+package com.george.Security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.george.Exception.PasswordHashingBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt password encoder that runs every hash on its own small thread pool.
+ * <p>
+ * A BCrypt hash costs a few hundred milliseconds of CPU at strength 12. Running
+ * them on request threads lets a burst of logins or registrations occupy the
+ * whole server pool. Here at most {@code jobmatch.password.threads} hashes run
+ * at once and at most {@code jobmatch.password.queue-capacity} wait; beyond
+ * that {@link PasswordHashingBusyException} is thrown at once, which the API
+ * turns into 429 Too Many Requests. The calling thread waits for its hash
+ * without using CPU.
+ * </p>
+ * <p>
+ * {@link #upgradeEncoding(String)} reports hashes made with a strength other
+ * than {@code jobmatch.password.bcrypt-strength}, so the authentication
+ * providers rehash the password after the next successful login. Changing the
+ * strength therefore never invalidates existing hashes. Hash times are
+ * published as the {@code jobmatch.password.hash} timer, tagged
+ * {@code operation=encode|matches}, and rejections as the
+ * {@code jobmatch.password.rejected} counter.
+ * </p>
+ */
+@Component
+public class PasswordHasher implements PasswordEncoder {
+
+    @Value("${jobmatch.password.bcrypt-strength:12}")
+    private int strength;
+
+    @Value("${jobmatch.password.threads:2}")
+    private int threads;
+
+    @Value("${jobmatch.password.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private BCryptPasswordEncoder bcrypt;
+    private ThreadPoolExecutor executor;
+
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "password-hasher-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        MeterRegistry registry = meterRegistry == null ? null : meterRegistry.getIfAvailable();
+        if (registry != null) {
+            encodeTimer = hashTimer(registry, "encode");
+            matchesTimer = hashTimer(registry, "matches");
+            rejected = Counter.builder("jobmatch.password.rejected")
+                    .description("Password hashes refused because the hashing pool was saturated")
+                    .register(registry);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> bcrypt.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> bcrypt.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * @param encodedPassword a stored hash
+     * @return true if the hash was made with another strength than the configured one
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && strengthOf(encodedPassword) != strength;
+    }
+
+    /**
+     * Reads the work factor of a BCrypt hash such as {@code $2a$12$...}.
+     *
+     * @param encodedPassword the hash
+     * @return the strength, or -1 if the value is not a BCrypt hash
+     */
+    static int strengthOf(String encodedPassword) {
+        if (encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$'
+                || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, 4, 6, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private <T> T run(Callable<T> hash, Timer timer) {
+        Future<T> result;
+        try {
+            result = executor.submit(() -> timer == null ? hash.call() : timer.recordCallable(hash));
+        } catch (RejectedExecutionException e) {
+            if (rejected != null) {
+                rejected.increment();
+            }
+            throw new PasswordHashingBusyException("Too many logins in progress, please retry shortly.");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("jobmatch.password.hash")
+                .description("Time spent computing BCrypt hashes, excluding queueing")
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.george.Security;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.george.Exception.PasswordHashingBusyException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers 429 when the {@link PasswordHasher} pool is saturated during HTTP
+ * Basic authentication.
+ * <p>
+ * The password check of HTTP Basic runs inside {@code BasicAuthenticationFilter},
+ * before any controller, so {@link PasswordHashingBusyException} would never
+ * reach {@link com.george.Exception.GlobalExceptionHandler} and the client
+ * would get a 500. Registered by {@link SecurityConfig} in front of that
+ * filter; like {@link com.george.RateLimit.RateLimitFilter} it is not a bean.
+ * </p>
+ */
+public class PasswordHashingBusyFilter extends OncePerRequestFilter {
+
+    /** Hashes take a few hundred milliseconds, so the queue drains within about a second */
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (PasswordHashingBusyException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.resetBuffer();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"message\":\""
+                    + e.getMessage() + "\"}");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.george.Security;
+
+/**
+ * Body of "token/refresh" and "logout".
+ */
+public class RefreshTokenRequest {
+
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,42 @@
+package com.george.Security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Shared record of revoked tokens, keyed by token ID ({@code jti}).
+ * <p>
+ * Every node writes its revocations here and reads those of the others, so a
+ * logout on one node is honoured by all of them. Entries are only needed until
+ * the token would have expired anyway. The store is backed by MongoDB
+ * ({@link MongoRevocationStore}) unless {@code jobmatch.jwt.revocation.store=memory}
+ * selects {@link InMemoryRevocationStore}, which suits a single node and tests.
+ * </p>
+ */
+public interface RevocationStore {
+
+    /**
+     * Records a revoked token. The check and the write are one atomic step, so
+     * of several nodes revoking the same token at once exactly one gets true;
+     * this is what makes a refresh token usable only once.
+     *
+     * @param tokenId the token ID
+     * @param expiresAt when the token expires and the entry may be dropped
+     * @return true if this call revoked the token, false if it was already revoked
+     */
+    boolean revoke(String tokenId, Instant expiresAt);
+
+    /**
+     * @param tokenId the token ID
+     * @return true if the token was revoked and has not expired yet
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * Lists the unexpired revocations recorded at or after a point in time.
+     *
+     * @param since the earliest revocation time, {@link Instant#EPOCH} for all
+     * @return the revoked token IDs
+     */
+    List<String> revokedSince(Instant since);
+}
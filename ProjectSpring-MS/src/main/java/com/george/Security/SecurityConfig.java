@@ -3,6 +3,7 @@ package com.george.Security;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -13,19 +14,29 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import com.george.RateLimit.RateLimitFilter;
+import com.george.RateLimit.RateLimiter;
+import com.george.controller.JwksController;
 
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 public class SecurityConfig {
 	
 	@Autowired
-	private UserDetailsService userDetailsService; // authentication provider
+	private MyUserDetailsService userDetailsService; // authentication provider
+	
+	@Autowired
+	private PasswordHasher passwordHasher;
+	
+	@Autowired
+	private RateLimiter rateLimiter;
 	
 	@Autowired
 	private jwtFilter jwtFilter;
@@ -35,12 +46,17 @@ public class SecurityConfig {
 		
 		
 		http.csrf(customizer -> customizer.disable());
-		http.authorizeHttpRequests(request -> request.requestMatchers("register", "login").permitAll().anyRequest().authenticated());
+		http.authorizeHttpRequests(request -> request.requestMatchers("register", "login", "token/refresh", JwksController.JWKS_PATH).permitAll().anyRequest().authenticated());
 		http.httpBasic(Customizer.withDefaults());
+		http.logout(logout -> logout.disable()); // "logout" revokes tokens in UserController
 		http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 		//cant login w login form, doesnt save ur session info
 		
-		.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+		.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+		// HTTP Basic hashes the password inside the filter chain, out of reach of GlobalExceptionHandler
+		.addFilterBefore(new PasswordHashingBusyFilter(), BasicAuthenticationFilter.class)
+		// After both authentication filters, so requests are charged to their user
+		.addFilterAfter(new RateLimitFilter(rateLimiter), BasicAuthenticationFilter.class);
 		return http.build();
 	}
 	
@@ -48,8 +64,9 @@ public class SecurityConfig {
 	public AuthenticationProvider authenticationProvider() {
 		
 		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-		provider.setPasswordEncoder(new BCryptPasswordEncoder(12));
+		provider.setPasswordEncoder(passwordHasher); // BCrypt on its own bounded pool
 		provider.setUserDetailsService(userDetailsService);
+		provider.setUserDetailsPasswordService(userDetailsService); // rehash after the strength changes
 		return provider;
 	}
 	
@@ -0,0 +1,98 @@
+package com.george.Security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.george.Exception.UserNotFoundException;
+import com.george.Service.JWTService;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Turns the verified claims of a bearer token into the request's principal.
+ * <p>
+ * {@code jobmatch.auth.principal} selects where the principal comes from:
+ * </p>
+ * <ul>
+ * <li>{@code claims} (default): built from the signed user ID and authorities
+ * in the token, without any database access. Tokens issued without these
+ * claims fall back to the cached lookup.</li>
+ * <li>{@code cached}: looked up through the user cache of
+ * {@link MyUserDetailsService}, so the database is read about once per TTL.</li>
+ * <li>{@code database}: looked up in the users table on every request.</li>
+ * </ul>
+ * <p>
+ * With claims, a user's changes take effect when their token is renewed.
+ * </p>
+ */
+@Component
+public class TokenPrincipals {
+
+    @Value("${jobmatch.auth.principal:claims}")
+    private String mode;
+
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    @Autowired
+    private JWTService jwtService;
+
+    /**
+     * @return true if principals are built without blocking on the database
+     */
+    public boolean isStateless() {
+        return "claims".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * @param claims claims returned by {@link JWTService#verify(String)}
+     * @return the principal, or empty if the user no longer exists or the
+     *         claims do not belong to it
+     */
+    public Optional<UserDetails> resolve(Claims claims) {
+        if (claims.getSubject() == null) {
+            return Optional.empty();
+        }
+        if (isStateless()) {
+            UserDetails principal = fromClaims(claims);
+            if (principal != null) {
+                return Optional.of(principal);
+            }
+        }
+        try {
+            UserDetails user = "database".equalsIgnoreCase(mode)
+                    ? userDetailsService.loadUserByUsername(claims.getSubject())
+                    : userDetailsService.loadCachedUserByUsername(claims.getSubject());
+            return jwtService.validateClaims(claims, user) ? Optional.of(user) : Optional.empty();
+        } catch (UserNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param claims the verified claims
+     * @return the principal described by the claims, or null if they do not carry a user ID and roles
+     */
+    public static UserDetails fromClaims(Claims claims) {
+        Number id = claims.get(JWTService.CLAIM_USER_ID, Number.class);
+        List<?> roles = claims.get(JWTService.CLAIM_ROLES, List.class);
+        if (id == null || roles == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(id.intValue());
+        user.setUsername(claims.getSubject());
+        Collection<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return new UserPrincipal(user, authorities);
+    }
+}
@@ -0,0 +1,37 @@
+package com.george.Security;
+
+/**
+ * Tokens returned by "login" and "token/refresh": a short-lived access token
+ * for the Authorization header and a refresh token that obtains the next pair.
+ */
+public class TokenResponse {
+
+    private final String accessToken;
+    private final String refreshToken;
+    private final long expiresIn;
+
+    public TokenResponse(String accessToken, String refreshToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public String getTokenType() {
+        return "Bearer";
+    }
+
+    /**
+     * @return the lifetime of the access token in seconds
+     */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+}
@@ -0,0 +1,115 @@
+package com.george.Security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers whether a token was revoked, checking a local Bloom filter before
+ * the shared {@link RevocationStore}.
+ * <p>
+ * Nearly every token is not revoked, and for those the filter answers in memory.
+ * Only a possible hit (a revoked token, or a false positive at about
+ * {@code jobmatch.jwt.revocation.false-positive-rate}) is confirmed against
+ * the store. Revocations made on this node enter the filter at once; those of
+ * other nodes are pulled every {@code jobmatch.jwt.revocation.sync-interval},
+ * which bounds how long another node may still accept a revoked token. Since
+ * a Bloom filter cannot forget, it is rebuilt from the unexpired revocations
+ * every {@code jobmatch.jwt.revocation.rebuild-interval}.
+ * </p>
+ * <p>
+ * Until the filter has been loaded once, every check goes to the store, and a
+ * check the store cannot answer counts as revoked.
+ * </p>
+ */
+@Service
+public class TokenRevocations {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocations.class);
+
+    /** Overlap between incremental syncs, covering clock skew between nodes */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private RevocationStore store;
+
+    @Value("${jobmatch.jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${jobmatch.jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${jobmatch.jwt.revocation.rebuild-interval:PT1H}")
+    private Duration rebuildInterval;
+
+    private volatile BloomFilter filter;
+    private Instant lastSync;
+    private Instant lastRebuild;
+
+    /**
+     * Revokes a token on every node.
+     *
+     * @param tokenId the token ID ({@code jti})
+     * @param expiresAt when the token expires
+     * @return true if this call revoked the token, false if any node had revoked it before
+     */
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        boolean revoked = store.revoke(tokenId, expiresAt);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(tokenId);
+        }
+        return revoked;
+    }
+
+    /**
+     * @param tokenId the token ID ({@code jti}), may be null for tokens issued without one
+     * @return true if the token was revoked
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(tokenId)) {
+            return false;
+        }
+        try {
+            return store.isRevoked(tokenId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not check token revocation, rejecting the token: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Pulls new revocations into the filter, or rebuilds it when it is due.
+     */
+    @Scheduled(fixedDelayString = "${jobmatch.jwt.revocation.sync-interval:PT10S}")
+    public synchronized void sync() {
+        Instant now = Instant.now();
+        try {
+            if (filter == null || lastRebuild.plus(rebuildInterval).isBefore(now)) {
+                List<String> revoked = store.revokedSince(Instant.EPOCH);
+                BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, 2L * revoked.size()), falsePositiveRate);
+                revoked.forEach(rebuilt::put);
+                filter = rebuilt;
+                lastRebuild = now;
+                logger.debug("Token revocation filter rebuilt with {} entries", revoked.size());
+            } else {
+                store.revokedSince(lastSync.minus(SYNC_OVERLAP)).forEach(filter::put);
+            }
+            // Revocations made while this sync ran are picked up by the next one
+            lastSync = now;
+        } catch (RuntimeException e) {
+            logger.warn("Could not sync token revocations: {}", e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.george.Security;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,17 +10,39 @@ import org.springframework.security.core.userdetails.UserDetails;
 public class UserPrincipal implements UserDetails {
 
 
+	/** Authority of every registered user */
+	public static final String USER_AUTHORITY = "USER";
+
 	private User user;
+	private Collection<? extends GrantedAuthority> authorities;
 	
 	public UserPrincipal(User user) {
 		
+		this(user, List.of(new SimpleGrantedAuthority(USER_AUTHORITY)));
+	}
+
+	/**
+	 * @param user the user; only ID and username are needed for a principal built from token claims
+	 * @param authorities the granted authorities
+	 */
+	public UserPrincipal(User user, Collection<? extends GrantedAuthority> authorities) {
+		
 		this.user = user;
+		this.authorities = authorities;
+	}
+
+	/**
+	 * @return the ID of the user in the users table
+	 */
+	public int getId() {
+		
+		return user.getId();
 	}
 
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
 		
-		return Collections.singleton(new SimpleGrantedAuthority("USER"));
+		return authorities;
 	}
 
 	@Override
@@ -2,9 +2,8 @@ package com.george.Security;
 
 import java.io.IOException;
 
-import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,43 +13,47 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.george.Service.JWTService;
 
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Component
+@Profile("!reactive")
 public class jwtFilter extends OncePerRequestFilter {
     
     @Autowired
     JWTService jwtService; // Injects the JWTService to handle token operations.
     
     @Autowired
-    ApplicationContext context; // Allows access to the Spring context to retrieve the MyUserDetailsService.
+    TokenPrincipals tokenPrincipals; // Builds the principal from the token claims, or looks the user up
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
         String authHeader = request.getHeader("Authorization"); // Retrieve the Authorization header from the request
-        String token = null;
+        Claims claims = null;
         String username = null;
         
         // Check if the Authorization header exists and starts with "Bearer "
         if(authHeader != null && authHeader.startsWith("Bearer ")) {
             
-            token = authHeader.substring(7); // Extract token from the header by removing the "Bearer " prefix
-            username = jwtService.extractUserName(token); // Extract username from the token using the JWTService
+            String token = authHeader.substring(7); // Extract token from the header by removing the "Bearer " prefix
+            // Parse and verify the token once; the claims are reused below
+            claims = jwtService.verify(token).orElse(null);
+            username = claims == null ? null : claims.getSubject();
         }
         
         // If the token and username are valid and no authentication is already set in the security context
         if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             
-            // Load the user details from the MyUserDetailsService
-            UserDetails userDetails = ((BeanFactory) context).getBean(MyUserDetailsService.class).loadUserByUsername(username);
+            // Resolve the principal; by default from the signed claims, without a database query
+            UserDetails userDetails = tokenPrincipals.resolve(claims).orElse(null);
             
-            // Validate the token and the user details
-            if(jwtService.validateToken(token, userDetails)) {
+            if(userDetails != null) {
                 
                 // Create an Authentication token
                 UsernamePasswordAuthenticationToken authToken =
@@ -0,0 +1,162 @@
+package com.george.Service;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.george.Cache.PostChangeFeed;
+import com.george.Search.FacetIndex;
+import com.george.model.Post;
+import com.george.model.PostLifecycle;
+import com.george.model.PostRepository;
+import com.george.model.SearchFacets;
+import com.george.model.SearchRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service computing technology and experience facets for search results.
+ * <p>
+ * The search itself only returns matching IDs; counts come from the in-memory
+ * {@link FacetIndex}, which is loaded when the application is ready and kept
+ * current by post writes made through {@link PostService} and, through the
+ * {@link PostChangeFeed}, those made by other nodes.
+ * </p>
+ * <p>
+ * A rebuild loads into a fresh index, which replaces the current one only once
+ * it is complete; writes arriving meanwhile are applied to both. A post written
+ * during the load keeps the state of that write, because the copy the load
+ * read may be older.
+ * </p>
+ */
+@Service
+public class FacetService implements PostChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetService.class);
+
+    /** Upper bound for the number of technologies reported per request */
+    private static final int MAX_TECHS = 100;
+
+    @Value("${jobmatch.facets.max-results:10000}")
+    private int maxResults;
+
+    @Autowired
+    private PostRepository repo;
+
+    @Autowired
+    private SearchRepository srepo;
+
+    @Autowired
+    private PostChangeFeed changeFeed;
+
+    /** The index facets are counted from; empty until the first load succeeds */
+    private volatile FacetIndex index = new FacetIndex();
+
+    /** The index being loaded by a rebuild, which also receives concurrent writes */
+    private volatile FacetIndex loading;
+
+    /** IDs written while {@link #loading} is filled; guarded by itself */
+    private final Set<String> writtenDuringLoad = new HashSet<>();
+
+    @PostConstruct
+    void init() {
+        changeFeed.subscribe(this);
+    }
+
+    /**
+     * Loads fresh facet bitmaps from the current contents of the collection and
+     * swaps them in. If the load fails, the previous index stays in use.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        FacetIndex fresh = new FacetIndex();
+        loading = fresh;
+        try {
+            for (Post post : repo.findAll()) {
+                synchronized (writtenDuringLoad) {
+                    if (post.getId() != null && !writtenDuringLoad.contains(post.getId())) {
+                        apply(fresh, post);
+                    }
+                }
+            }
+            index = fresh;
+            logger.info("Facet index loaded: {} posts", fresh.size());
+        } catch (Exception e) {
+            logger.warn("Could not load facet index: {}", e.getMessage());
+        } finally {
+            synchronized (writtenDuringLoad) {
+                loading = null;
+                writtenDuringLoad.clear();
+            }
+        }
+    }
+
+    /**
+     * Computes facet counts over every post matching the search text.
+     *
+     * @param text the search text
+     * @param maxTechs the maximum number of technologies to report
+     * @return technology and experience counts for the result set
+     * @throws RuntimeException if the search fails
+     */
+    public SearchFacets facetsForText(String text, int maxTechs) {
+        try {
+            List<String> ids = srepo.findIdsByText(text, maxResults + 1);
+            boolean truncated = ids.size() > maxResults;
+            if (truncated) {
+                ids = ids.subList(0, maxResults);
+            }
+            FacetIndex.Counts counts = index.count(ids, Math.max(1, Math.min(maxTechs, MAX_TECHS)));
+            return new SearchFacets(counts.matched(), truncated, counts.techs(), counts.experience());
+        } catch (Exception e) {
+            throw new RuntimeException("Error computing search facets", e);
+        }
+    }
+
+    @Override
+    public void postSaved(Post post) {
+        if (post.getId() == null) {
+            return;
+        }
+        forEachIndex(post.getId(), facets -> apply(facets, post));
+    }
+
+    @Override
+    public void postDeleted(String id) {
+        forEachIndex(id, facets -> facets.remove(id));
+    }
+
+    private void forEachIndex(String id, Consumer<FacetIndex> change) {
+        // Read in this order, so a write racing the swap in rebuild() still reaches the fresh index
+        FacetIndex next = loading;
+        FacetIndex current = index;
+        change.accept(current);
+        if (next != null && next != current) {
+            synchronized (writtenDuringLoad) {
+                if (loading == next) {
+                    writtenDuringLoad.add(id);
+                }
+                change.accept(next);
+            }
+        }
+    }
+
+    private static void apply(FacetIndex facets, Post post) {
+        if (PostLifecycle.isLive(post, Instant.now())) {
+            facets.put(post.getId(), post.getRequiredTechs(), post.getExperience());
+        } else {
+            // Closed posts are excluded from search, so they are not counted either
+            facets.remove(post.getId());
+        }
+    }
+}
@@ -1,135 +1,360 @@
 package com.george.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.george.Security.JwtKeySet;
+import com.george.Security.TokenResponse;
+import com.george.Security.TokenRevocations;
 import com.george.Security.User;
+import com.george.Security.UserPrincipal;
 
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service class for handling JSON Web Token (JWT) operations including token generation,
  * validation, and claim extraction.
  * 
- * This service implements JWT functionality using the HMAC-SHA256 algorithm for signing tokens.
- * It automatically generates a secure key on initialization and provides methods for the complete
- * lifecycle management of JWTs.
+ * Tokens are signed with the key set in {@code jobmatch.jwt.keys-file}, a JWK Set
+ * shared by all instances, and carry the {@code kid} of their signing key so that
+ * several keys can be accepted while they are rotated (see {@link JwtKeySet}).
+ * Without a key file a random HMAC-SHA256 key is generated at startup, which
+ * only suits a single instance.
  * 
  * The tokens generated include:
  * - Custom claims (if provided)
  * - Subject (username)
  * - Issued at timestamp
- * - Expiration (set to 30 hours from issuance)
+ * - Token ID ({@code jti}), used to revoke it
+ * - Expiration ({@code jobmatch.jwt.access-ttl} from issuance)
+ * 
+ * Access tokens are short-lived. {@link #issueTokens(UserDetails)} pairs one
+ * with a refresh token ({@code jobmatch.jwt.refresh-ttl}), which is only
+ * accepted by {@link #redeemRefreshToken(String)}. All tokens descending from
+ * one login share a session ID ({@code sid}). Revoked token and session IDs are
+ * checked through {@link TokenRevocations} on every verification.
+ * 
+ * A refresh token is redeemed by revoking it in the shared store, which only
+ * one caller can do. Presenting a redeemed refresh token again means that it
+ * was copied, so the whole session is revoked and the legitimate client has to
+ * log in again; the {@code jobmatch.auth.refresh.reused} counter records it.
+ * 
+ * The key and the parser are built once. A token is parsed and its signature
+ * verified once by {@link #verify(String)}; the verified claims are cached under
+ * the SHA-256 hash of the token until the token expires, so repeated requests
+ * with the same token skip the HMAC check and the JSON parsing. The tokens
+ * themselves are never kept in memory.
  */
 @Service
 public class JWTService {
 
-    /** The base64 encoded secret key used for signing JWTs */
-    private String secretkey = "";
+    private static final Logger logger = LoggerFactory.getLogger(JWTService.class);
 
-    /**
-     * Initializes the JWTService by generating a secure HMAC-SHA256 key.
-     * The key is stored in base64 encoded format.
-     * 
-     * @throws RuntimeException if the HMAC-SHA256 algorithm is not available
-     */
-    public JWTService() {
-        try {
-            KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey sk = keyGen.generateKey();
-            secretkey = Base64.getEncoder().encodeToString(sk.getEncoded());
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
+    /** Claim carrying the user's ID */
+    public static final String CLAIM_USER_ID = "uid";
+
+    /** Claim carrying the user's authorities */
+    public static final String CLAIM_ROLES = "roles";
+
+    /** Claim marking refresh tokens, which are never accepted as access tokens */
+    public static final String CLAIM_TOKEN_TYPE = "type";
+
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    /** Claim carrying the ID of the login session, shared by all tokens refreshed from it */
+    public static final String CLAIM_SESSION_ID = "sid";
+
+    @Value("${jobmatch.jwt.access-ttl:15m}")
+    private Duration accessTtl = Duration.ofMinutes(15);
+
+    @Value("${jobmatch.jwt.refresh-ttl:14d}")
+    private Duration refreshTtl = Duration.ofDays(14);
+
+    @Value("${jobmatch.jwt.keys-file:}")
+    private String keysFile;
+
+    @Value("${jobmatch.jwt.signing-key-id:}")
+    private String signingKeyId;
+
+    /** The keys used for signing and verifying JWTs, decoded at startup */
+    private JwtKeySet keys;
+
+    /** Thread-safe parser verifying signatures with the key named by each token's kid */
+    private JwtParser parser;
+
+    @Value("${jobmatch.jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private ObjectProvider<TokenRevocations> revocations;
+
+    /** Verified claims by token hash, each expiring with its token */
+    private Cache<String, Claims> verified;
+
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+    private Counter reusedCounter;
+
+    @PostConstruct
+    void init() {
+        keys = loadKeys();
+        parser = Jwts.parser().keyLocator(keys.locator()).build();
+        verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String hash, Claims claims, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(
+                                Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        MeterRegistry registry = meterRegistry == null ? null : meterRegistry.getIfAvailable();
+        if (registry != null) {
+            // Authentication cost per request, by how the token was resolved
+            cachedTimer = verifyTimer(registry, "cached");
+            verifiedTimer = verifyTimer(registry, "verified");
+            rejectedTimer = verifyTimer(registry, "rejected");
+            reusedCounter = Counter.builder("jobmatch.auth.refresh.reused")
+                    .description("Refresh tokens presented after they had been used, each revoking its session")
+                    .register(registry);
         }
     }
 
     /**
-     * Generates a JWT token for the specified username.
-     * The token includes an empty claims map, username as subject, issuance time,
-     * and expiration time (30 hours from issuance).
+     * Generates a bare access token for the specified username.
+     * The token includes the username as subject, issuance time and expiration
+     * time ({@code jobmatch.jwt.access-ttl} from issuance), but no user ID,
+     * authorities or session; logins use {@link #issueTokens(UserDetails)}.
      * 
      * @param username the username to be included in the token
      * @return the generated JWT token string
      */
     public String generateToken(String username) {
+        return generateToken(username, new HashMap<>());
+    }
+
+    /**
+     * Issues an access token for the user and a refresh token to renew it,
+     * starting a new session.
+     * 
+     * @param user the authenticated user
+     * @return the token pair
+     */
+    public TokenResponse issueTokens(UserDetails user) {
+        return issueTokens(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Issues the next token pair of the session a refresh token belongs to.
+     * 
+     * @param user the user, reloaded to pick up role changes
+     * @param refreshClaims claims returned by {@link #redeemRefreshToken(String)}
+     * @return the token pair
+     */
+    public TokenResponse issueTokens(UserDetails user, Claims refreshClaims) {
+        String sessionId = refreshClaims.get(CLAIM_SESSION_ID, String.class);
+        return issueTokens(user, sessionId != null ? sessionId : UUID.randomUUID().toString());
+    }
+
+    private TokenResponse issueTokens(UserDetails user, String sessionId) {
         Map<String, Object> claims = new HashMap<>();
+        if (user instanceof UserPrincipal principal) {
+            claims.put(CLAIM_USER_ID, principal.getId());
+        }
+        claims.put(CLAIM_ROLES, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        claims.put(CLAIM_SESSION_ID, sessionId);
+        String refreshToken = generateToken(user.getUsername(),
+                Map.of(CLAIM_TOKEN_TYPE, REFRESH_TOKEN_TYPE, CLAIM_SESSION_ID, sessionId), refreshTtl);
+        return new TokenResponse(generateToken(user.getUsername(), claims), refreshToken, accessTtl.toSeconds());
+    }
+
+    private String generateToken(String username, Map<String, Object> claims) {
+        return generateToken(username, claims, accessTtl);
+    }
+
+    private String generateToken(String username, Map<String, Object> claims, Duration ttl) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims()
                 .add(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(username)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + 60 * 60 * 30))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttl.toMillis()))
                 .and()
-                .signWith(getKey())
+                .header().keyId(keys.signingKeyId()).and()
+                .signWith(keys.signingKey())
                 .compact();
     }
 
     /**
-     * Retrieves the signing key used for JWT operations.
-     * Converts the base64 encoded secret key back to a SecretKey object.
-     * 
-     * @return SecretKey object used for signing JWTs
+     * @return the public verification keys as a JWK Set document, for other
+     *         services verifying our tokens
      */
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretkey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public String publicJwkSetJson() {
+        return keys.publicJwkSetJson();
     }
 
     /**
-     * Extracts the username from a JWT token.
+     * Parses an access token and verifies its signature, expiry and revocation,
+     * or returns the claims verified for the same token before.
      * 
      * @param token the JWT token string
-     * @return the username stored in the token's subject claim
+     * @return the verified claims, or empty if the token is malformed, was not
+     *         signed with our keys, has no expiry or has expired, was revoked or
+     *         is a refresh token
      */
-    public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public Optional<Claims> verify(String token) {
+        long start = System.nanoTime();
+        String hash = hash(token);
+        Claims claims = verified.getIfPresent(hash);
+        boolean cached = claims != null && claims.getExpiration().after(new Date());
+        if (!cached) {
+            claims = parse(token).filter(parsed -> !isRefreshToken(parsed)).orElse(null);
+            if (claims == null) {
+                record(rejectedTimer, start);
+                return Optional.empty();
+            }
+            verified.put(hash, claims);
+        }
+        // Checked on every call, since a cached token may have been revoked since
+        if (isRevoked(claims)) {
+            record(rejectedTimer, start);
+            return Optional.empty();
+        }
+        record(cached ? cachedTimer : verifiedTimer, start);
+        return Optional.of(claims);
     }
 
     /**
-     * Generic method to extract a specific claim from a JWT token.
+     * Redeems a refresh token: verifies it and revokes it in the same atomic
+     * step, so that of several concurrent requests with the same token only one
+     * succeeds, on any node. A token that was redeemed or revoked before is
+     * treated as stolen and its whole session is revoked.
      * 
-     * @param <T> the type of the claim to extract
-     * @param token the JWT token string
-     * @param claimResolver function to extract the desired claim from the Claims object
-     * @return the extracted claim value
+     * @param token the refresh token
+     * @return the verified claims, to be passed to {@link #issueTokens(UserDetails, Claims)},
+     *         or empty if the token is not a valid, unused refresh token
+     */
+    public Optional<Claims> redeemRefreshToken(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        Claims claims = parse(token).filter(JWTService::isRefreshToken).orElse(null);
+        TokenRevocations current = revocations == null ? null : revocations.getIfAvailable();
+        if (claims == null || current == null || claims.getId() == null || claims.getExpiration() == null
+                || current.isRevoked(claims.get(CLAIM_SESSION_ID, String.class))) {
+            // Without an ID or a revocation store a token could be redeemed any number of times
+            return Optional.empty();
+        }
+        if (!current.revoke(claims.getId(), claims.getExpiration().toInstant())) {
+            String sessionId = claims.get(CLAIM_SESSION_ID, String.class);
+            logger.warn("Refresh token {} of {} was used again; revoking session {}", claims.getId(),
+                    claims.getSubject(), sessionId);
+            if (sessionId != null) {
+                // No token of the session outlives a refresh token issued now
+                current.revoke(sessionId, Instant.now().plus(refreshTtl));
+            }
+            if (reusedCounter != null) {
+                reusedCounter.increment();
+            }
+            return Optional.empty();
+        }
+        return Optional.of(claims);
+    }
+
+    /**
+     * Parses a refresh token and verifies its signature, expiry and revocation,
+     * without redeeming it.
+     * 
+     * @param token the refresh token
+     * @return the verified claims, or empty if the token is not a valid refresh token
      */
-    private <T> T extractClaim(String token, Function<Claims, T> claimResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimResolver.apply(claims);
+    public Optional<Claims> verifyRefreshToken(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        return parse(token).filter(claims -> isRefreshToken(claims) && !isRevoked(claims));
+    }
+
+    /**
+     * Revokes a verified token on every node until it expires. Tokens issued
+     * without an ID cannot be revoked and are left alone.
+     * 
+     * @param claims claims returned by {@link #verify(String)} or {@link #verifyRefreshToken(String)}
+     */
+    public void revoke(Claims claims) {
+        TokenRevocations current = revocations == null ? null : revocations.getIfAvailable();
+        if (current != null && claims.getId() != null && claims.getExpiration() != null) {
+            current.revoke(claims.getId(), claims.getExpiration().toInstant());
+        }
     }
 
     /**
-     * Extracts all claims from a JWT token.
-     * Verifies the token's signature using the secret key.
+     * Extracts the username from a JWT token.
      * 
      * @param token the JWT token string
-     * @return Claims object containing all claims from the token
+     * @return the username stored in the token's subject claim
+     * @throws JwtException if the token is not valid
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public String extractUserName(String token) {
+        return verify(token).map(Claims::getSubject).orElseThrow(() -> new JwtException("Invalid token"));
     }
 
     /**
@@ -142,27 +367,76 @@ public class JWTService {
      * @return true if the token is valid, false otherwise
      */
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return verify(token).map(claims -> validateClaims(claims, userDetails)).orElse(false);
     }
 
     /**
-     * Checks if a JWT token has expired.
+     * Checks verified claims against a UserDetails object.
      * 
-     * @param token the JWT token string to check
-     * @return true if the token has expired, false otherwise
+     * @param claims claims returned by {@link #verify(String)}
+     * @param userDetails the UserDetails object to validate against
+     * @return true if the claims belong to the user and have not expired since
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject())
+                && claims.getExpiration().after(new Date());
     }
 
-    /**
-     * Extracts the expiration date from a JWT token.
-     * 
-     * @param token the JWT token string
-     * @return Date object representing the token's expiration time
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private Optional<Claims> parse(String token) {
+        try {
+            // The parser only checks an expiry that is present; a token without one would never expire
+            return Optional.of(parser.parseSignedClaims(token).getPayload())
+                    .filter(claims -> claims.getExpiration() != null);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(CLAIM_TOKEN_TYPE));
+    }
+
+    private boolean isRevoked(Claims claims) {
+        TokenRevocations current = revocations == null ? null : revocations.getIfAvailable();
+        return current != null && (current.isRevoked(claims.getId())
+                || current.isRevoked(claims.get(CLAIM_SESSION_ID, String.class)));
+    }
+
+    private JwtKeySet loadKeys() {
+        if (keysFile == null || keysFile.isBlank()) {
+            logger.warn("No jobmatch.jwt.keys-file configured; tokens are signed with a generated key "
+                    + "that only this instance accepts until it restarts");
+            return JwtKeySet.generated();
+        }
+        try {
+            JwtKeySet loaded = JwtKeySet.parse(Files.readString(Path.of(keysFile)), signingKeyId);
+            logger.info("Signing tokens with JWT key {} from {}", loaded.signingKeyId(), keysFile);
+            return loaded;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read JWT keys from " + keysFile, e);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("jobmatch.auth.verify")
+                .description("Time spent resolving a bearer token to verified claims")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
-}
\ No newline at end of file
+}
@@ -7,22 +7,45 @@ import com.mongodb.client.MongoDatabase;
 import org.bson.BsonArray;
 import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.util.Arrays;
+import java.time.Instant;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.bson.types.ObjectId;
+import com.george.model.JobMatchFilter;
 import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.PostLifecycle;
+import com.george.model.PostStatus;
 import com.george.model.JobMatch;
 
 @Service
 public class JobMatchingService {
 
+    /** Number of nearest neighbours returned per match */
+    private static final int MAX_MATCHES = 10;
+
+    /** Neighbours fetched per returned match when a filter runs after the search */
+    private static final int POST_FILTER_OVERFETCH = 10;
+
+    /** Largest candidate set sent to Atlas with the kNN search; larger ones are filtered afterwards */
+    @Value("${jobmatch.match.max-filter-ids:1000}")
+    private int maxFilterIds;
+
     @Autowired
     private MongoClient mongoClient;
 
     @Autowired
     private VectorEmbeddings vectorEmbeddings;
 
+    @Autowired
+    private PostColumnsService postColumnsService;
+
     /**
      * Finds matching jobs based on user profile using vector similarity search
      * 
@@ -30,60 +53,234 @@ public class JobMatchingService {
      * @return List of matching jobs with similarity scores
      */
     public List<JobMatch> findMatchingJobs(String userProfile) {
-        try {
-            // Generate embedding for user profile
-            BsonArray userEmbedding = vectorEmbeddings.getEmbedding(userProfile);
+        return findMatchingJobs(userProfile, PostFields.ALL);
+    }
+
+    /**
+     * Finds matching jobs, reading only the requested post fields from the database
+     * 
+     * @param userProfile Text description of user's skills and preferences
+     * @param fields the post fields to return in each match
+     * @return List of matching jobs with similarity scores
+     */
+    public List<JobMatch> findMatchingJobs(String userProfile, PostFields fields) {
+        return findMatchingJobs(userProfile, fields, false);
+    }
+
+    /**
+     * Finds matching jobs among live posts, or among all posts including
+     * closed and archived ones
+     * 
+     * @param userProfile Text description of user's skills and preferences
+     * @param fields the post fields to return in each match
+     * @param includeArchived whether closed and archived posts may match
+     * @return List of matching jobs with similarity scores
+     */
+    public List<JobMatch> findMatchingJobs(String userProfile, PostFields fields, boolean includeArchived) {
+        return findMatchingJobs(userProfile, fields, includeArchived, JobMatchFilter.NONE);
+    }
+
+    /**
+     * Finds matching jobs among the posts passing a filter
+     * 
+     * @param userProfile Text description of user's skills and preferences
+     * @param fields the post fields to return in each match
+     * @param includeArchived whether closed and archived posts may match
+     * @param filter restrictions on experience and technologies
+     * @return List of matching jobs with similarity scores
+     */
+    public List<JobMatch> findMatchingJobs(String userProfile, PostFields fields, boolean includeArchived,
+            JobMatchFilter filter) {
+        try (SubtaskScope scope = new SubtaskScope("job-match")) {
+            // Generate embedding for user profile in a subtask
+            Future<BsonArray> userEmbedding = scope.fork(() -> vectorEmbeddings.getEmbedding(userProfile));
+            // The candidate posts are selected from the in-memory columns meanwhile
+            Future<List<String>> candidates = filter.isEmpty() || includeArchived ? null
+                    : scope.fork(() -> postColumnsService.select(filter));
+            // Prepared inline for the match reasons: one toLowerCase costs less than
+            // a thread, and the reasons themselves need the search results
+            String normalizedProfile = normalizeProfile(userProfile);
 
             MongoDatabase database = mongoClient.getDatabase("sample_db");
             MongoCollection<Document> collection = database.getCollection("JobPost");
+            scope.join();
 
-            // Create aggregation pipeline for vector search
-            List<Document> pipeline = Arrays.asList(
-                new Document("$search", new Document()
-                    .append("index", "vector_index")
-                    .append("knnBeta", new Document()
-                        .append("vector", userEmbedding)
-                        .append("path", "embedding")
-                        .append("k", 10))),
-                
-                new Document("$project", new Document()
-                    .append("jobTitle", 1)
-                    .append("jobDescription", 1)
-                    .append("experience", 1)
-                    .append("requiredTechs", 1)
-                    .append("score", new Document("$meta", "searchScore")))
-            );
+            // Null when the snapshot is not loaded, and the filter then runs after the search
+            List<String> candidateIds = candidates == null ? null : candidates.resultNow();
+            if (candidateIds != null && candidateIds.isEmpty()) {
+                return new ArrayList<>();
+            }
+            if (candidateIds != null && candidateIds.size() > maxFilterIds) {
+                candidateIds = null;
+            }
 
             // Execute search and convert results
             List<JobMatch> matches = new ArrayList<>();
-            collection.aggregate(pipeline)
-                .forEach(doc -> {
-                    JobMatch match = new JobMatch();
-                    match.setJob(convertDocumentToPost(doc));
-                    match.setConfidence(doc.getDouble("score"));
-                    match.setMatchReasons(generateMatchReasons(doc, userProfile));
-                    matches.add(match);
-                    
-                });
+            collection.aggregate(vectorSearchPipeline(userEmbedding.resultNow(), fields, includeArchived, filter,
+                    candidateIds))
+                .forEach(doc -> matches.add(toMatch(doc, normalizedProfile, fields)));
 
             return matches;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during vector search", e);
         } catch (Exception e) {
-            System.err.println("Error in vector search: " + e.getMessage());
-            throw new RuntimeException("Failed to perform vector search", e);
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            System.err.println("Error in vector search: " + cause.getMessage());
+            throw new RuntimeException("Failed to perform vector search", cause);
+        }
+    }
+
+    /**
+     * Builds the aggregation pipeline for the vector search. Shared with the
+     * reactive matching service so both stacks return identical results.
+     * 
+     * @param userEmbedding the embedding of the user profile
+     * @param fields the post fields to return in each match
+     * @param includeArchived whether the archive collection is searched too
+     * @return the pipeline stages
+     */
+    public static List<Document> vectorSearchPipeline(BsonArray userEmbedding, PostFields fields,
+            boolean includeArchived) {
+        return vectorSearchPipeline(userEmbedding, fields, includeArchived, JobMatchFilter.NONE, null);
+    }
+
+    /**
+     * Builds the aggregation pipeline for a filtered vector search.
+     * <p>
+     * When the live posts passing the filter are known, they are sent as a
+     * pre-filter of the kNN search, which then returns the nearest neighbours
+     * among them. Otherwise, and for the archive, more neighbours are fetched
+     * and the filter is applied to them afterwards, so fewer than
+     * {@value #MAX_MATCHES} matches may remain.
+     * </p>
+     * 
+     * @param userEmbedding the embedding of the user profile
+     * @param fields the post fields to return in each match
+     * @param includeArchived whether the archive collection is searched too
+     * @param filter restrictions on experience and technologies
+     * @param candidateIds the live posts passing the filter, or null to filter
+     *        after the search; ignored when archived posts are included
+     * @return the pipeline stages
+     */
+    public static List<Document> vectorSearchPipeline(BsonArray userEmbedding, PostFields fields,
+            boolean includeArchived, JobMatchFilter filter, List<String> candidateIds) {
+        boolean preFilter = !filter.isEmpty() && candidateIds != null && !includeArchived;
+        boolean postFilter = !filter.isEmpty() && !preFilter;
+        int k = postFilter ? MAX_MATCHES * POST_FILTER_OVERFETCH : MAX_MATCHES;
+
+        Document knn = knnBeta(userEmbedding, k);
+        if (preFilter) {
+            knn.append("filter", new Document("in", new Document("path", "_id").append("value", toIds(candidateIds))));
+        }
+        Document match = new Document();
+        if (!includeArchived) {
+            // Closed posts that the archiver has not moved yet are dropped after the search
+            match.putAll(PostLifecycle.liveFilter(Instant.now()));
+        }
+        if (postFilter) {
+            match.putAll(filter.toQuery());
+        }
+
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$search", new Document("index", "vector_index").append("knnBeta", knn)));
+        if (!match.isEmpty()) {
+            pipeline.add(new Document("$match", match));
+        }
+        pipeline.add(new Document("$project", projection(fields)));
+        if (includeArchived) {
+            // The k best of both collections
+            List<Document> archived = new ArrayList<>();
+            archived.add(new Document("$search", new Document("index", "vector_index").append("knnBeta", knnBeta(userEmbedding, k))));
+            if (postFilter) {
+                archived.add(new Document("$match", filter.toQuery()));
+            }
+            archived.add(new Document("$project", projection(fields)));
+            pipeline.add(new Document("$unionWith", new Document("coll", PostLifecycle.ARCHIVE_COLLECTION)
+                .append("pipeline", archived)));
+            pipeline.add(new Document("$sort", new Document("score", -1)));
+        }
+        if (includeArchived || postFilter) {
+            pipeline.add(new Document("$limit", MAX_MATCHES));
+        }
+        return pipeline;
+    }
+
+    private static Document knnBeta(BsonArray userEmbedding, int k) {
+        return new Document()
+            .append("vector", userEmbedding)
+            .append("path", "embedding")
+            .append("k", k);
+    }
+
+    /** Post IDs are stored as ObjectIds when they are valid hex ObjectIds */
+    private static List<Object> toIds(List<String> ids) {
+        List<Object> values = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            values.add(ObjectId.isValid(id) ? new ObjectId(id) : id);
         }
+        return values;
     }
 
-    private Post convertDocumentToPost(Document doc) {
+    /**
+     * Converts one result document of {@link #vectorSearchPipeline} into a match.
+     * 
+     * @param doc the result document, carrying the search score
+     * @param userProfile the profile that was matched
+     * @param fields the post fields that were requested
+     * @return the job match with its confidence and reasons
+     */
+    public static JobMatch toJobMatch(Document doc, String userProfile, PostFields fields) {
+        return toMatch(doc, normalizeProfile(userProfile), fields);
+    }
+
+    private static JobMatch toMatch(Document doc, String normalizedProfile, PostFields fields) {
+        JobMatch match = new JobMatch();
+        match.setJob(convertDocumentToPost(doc, fields));
+        match.setConfidence(doc.getDouble("score"));
+        match.setMatchReasons(generateMatchReasons(doc, normalizedProfile));
+        return match;
+    }
+
+    private static String normalizeProfile(String userProfile) {
+        return userProfile.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Builds the $project stage for the requested fields. requiredTechs is always
+     * read because match reasons are derived from it, and version because the
+     * response ETag is.
+     */
+    private static Document projection(PostFields fields) {
+        Document projection = new Document();
+        for (String field : List.of("jobTitle", "jobDescription", "experience", "requiredTechs", "status", "expiresAt")) {
+            if (fields.includes(field) || "requiredTechs".equals(field)) {
+                projection.append(field, 1);
+            }
+        }
+        return projection.append("version", 1).append("score", new Document("$meta", "searchScore"));
+    }
+
+    private static Post convertDocumentToPost(Document doc, PostFields fields) {
         Post post = new Post();
         post.setId(doc.getObjectId("_id").toString());
         post.setJobTitle(doc.getString("jobTitle"));
         post.setJobDescription(doc.getString("jobDescription"));
-        post.setExperience(doc.getInteger("experience"));
-        post.setRequiredTechs(doc.getList("requiredTechs", String.class));
+        Integer experience = doc.getInteger("experience");
+        post.setExperience(experience == null ? 0 : experience);
+        if (fields.includes("requiredTechs")) {
+            post.setRequiredTechs(doc.getList("requiredTechs", String.class));
+        }
+        Number version = doc.get("version", Number.class);
+        post.setVersion(version == null ? null : version.longValue());
+        String status = doc.getString("status");
+        post.setStatus(status == null ? null : PostStatus.valueOf(status));
+        Date expiresAt = doc.getDate("expiresAt");
+        post.setExpiresAt(expiresAt == null ? null : expiresAt.toInstant());
         return post;
     }
 
-    private List<String> generateMatchReasons(Document doc, String userProfile) {
+    private static List<String> generateMatchReasons(Document doc, String normalizedProfile) {
         List<String> reasons = new ArrayList<>();
         
         // Add match reasons based on similarity score
@@ -98,7 +295,7 @@ public class JobMatchingService {
         List<String> techs = doc.getList("requiredTechs", String.class);
         if (techs != null) {
             for (String tech : techs) {
-                if (userProfile.toLowerCase().contains(tech.toLowerCase())) {
+                if (normalizedProfile.contains(tech.toLowerCase(Locale.ROOT))) {
                     reasons.add("Matching skill: " + tech);
                 }
             }
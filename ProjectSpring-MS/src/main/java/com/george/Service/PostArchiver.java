@@ -0,0 +1,162 @@
+package com.george.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.george.controller.SearchRepositoryController;
+import com.george.model.PostLifecycle;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+
+/**
+ * Moves filled and expired posts from {@code JobPost} to the archive collection.
+ * <p>
+ * Runs on a fixed delay in batches of {@code jobmatch.archive.batch-size}
+ * documents with a pause in between, and stops after
+ * {@code jobmatch.archive.max-batches} batches so a large backlog is drained over
+ * several runs instead of competing with live traffic. Each batch is first
+ * upserted into the archive and then deleted from the live collection, only
+ * where it is still archivable, so a run that is interrupted or races with an
+ * update can simply be repeated. Both the posts database and the searchable
+ * copy are processed.
+ * </p>
+ * <p>
+ * Archived documents expire through the TTL index on {@code archivedAt} declared
+ * by {@link com.george.Vector.IndexBootstrap}. Deleting documents does not return
+ * disk space, so {@code jobmatch.archive.compact} optionally runs
+ * {@code compact} on the live collection after a run that moved posts.
+ * </p>
+ */
+@Component
+public class PostArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostArchiver.class);
+
+    static final String COLLECTION = "JobPost";
+
+    /** The posts database and the searchable copy */
+    static final List<String> DATABASES = List.of("sample_db", SearchRepositoryController.DATABASE);
+
+    @Value("${jobmatch.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobmatch.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${jobmatch.archive.max-batches:20}")
+    private int maxBatches;
+
+    @Value("${jobmatch.archive.batch-pause:1s}")
+    private Duration batchPause;
+
+    @Value("${jobmatch.archive.compact:false}")
+    private boolean compact;
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private PostChangeNotifier changeNotifier;
+
+    /**
+     * Archives the posts that are no longer live, within the configured limits.
+     */
+    @Scheduled(fixedDelayString = "${jobmatch.archive.interval:PT1H}",
+            initialDelayString = "${jobmatch.archive.initial-delay:PT5M}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        for (String database : DATABASES) {
+            try {
+                int moved = archive(mongoClient.getDatabase(database));
+                if (moved > 0) {
+                    logger.info("Archived {} posts in {}", moved, database);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // The next run picks up where this one stopped
+                logger.warn("Archiving posts in {} failed: {}", database, e.getMessage());
+            }
+        }
+    }
+
+    private int archive(MongoDatabase database) throws InterruptedException {
+        MongoCollection<Document> live = database.getCollection(COLLECTION);
+        MongoCollection<Document> archive = database.getCollection(PostLifecycle.ARCHIVE_COLLECTION);
+        int moved = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Instant now = Instant.now();
+            List<Document> posts = live.find(PostLifecycle.archivableFilter(now))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            if (posts.isEmpty()) {
+                break;
+            }
+            archive.bulkWrite(archiveWrites(posts, now), new BulkWriteOptions().ordered(false));
+            List<Object> ids = posts.stream().map(post -> post.get("_id")).toList();
+            live.deleteMany(Filters.and(Filters.in("_id", ids), PostLifecycle.archivableFilter(now)));
+
+            // A post reopened between the read and the delete is still live; drop its archive copy
+            List<Object> reopened = live.find(Filters.in("_id", ids))
+                    .projection(Projections.include("_id"))
+                    .map(post -> post.get("_id"))
+                    .into(new ArrayList<>());
+            if (!reopened.isEmpty()) {
+                archive.deleteMany(Filters.in("_id", reopened));
+            }
+            for (Object id : ids) {
+                if (!reopened.contains(id)) {
+                    changeNotifier.notifyDeleted(id.toString());
+                    moved++;
+                }
+            }
+            if (posts.size() < batchSize) {
+                break;
+            }
+            Thread.sleep(batchPause.toMillis());
+        }
+        if (compact && moved > 0) {
+            database.runCommand(new Document("compact", COLLECTION));
+        }
+        return moved;
+    }
+
+    /**
+     * Builds the archive upserts for one batch. Replacing by ID makes a repeated
+     * batch overwrite its earlier copies instead of failing on duplicates.
+     *
+     * @param posts the documents read from the live collection
+     * @param archivedAt the time of the run, which the archive TTL counts from
+     * @return one upsert per post
+     */
+    public static List<WriteModel<Document>> archiveWrites(List<Document> posts, Instant archivedAt) {
+        List<WriteModel<Document>> writes = new ArrayList<>(posts.size());
+        for (Document post : posts) {
+            Document archived = new Document(post).append(PostLifecycle.ARCHIVED_AT, Date.from(archivedAt));
+            writes.add(new ReplaceOneModel<>(Filters.eq("_id", post.get("_id")), archived,
+                    new ReplaceOptions().upsert(true)));
+        }
+        return writes;
+    }
+}
@@ -0,0 +1,28 @@
+package com.george.Service;
+
+import com.george.model.Post;
+
+/**
+ * Callback for components that keep in-memory state derived from job posts
+ * (indexes, caches, snapshots) and need to follow writes made through
+ * {@link PostService}.
+ *
+ * Listeners are invoked after the write has succeeded. A failing listener is
+ * logged and never fails the write itself.
+ */
+public interface PostChangeListener {
+
+    /**
+     * Called after a post has been created or updated.
+     *
+     * @param post the post as it was persisted, including its ID
+     */
+    void postSaved(Post post);
+
+    /**
+     * Called after a post has been deleted.
+     *
+     * @param id the ID of the deleted post
+     */
+    void postDeleted(String id);
+}
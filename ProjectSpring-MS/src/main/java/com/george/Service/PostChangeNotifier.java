@@ -0,0 +1,58 @@
+package com.george.Service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.george.model.Post;
+
+/**
+ * Fans post writes out to every registered {@link PostChangeListener}.
+ * Shared by the blocking and the reactive post services so both keep the same
+ * in-memory indexes and caches up to date.
+ */
+@Component
+public class PostChangeNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostChangeNotifier.class);
+
+    /** In-memory components that follow post writes (indexes, caches) */
+    @Autowired(required = false)
+    private List<PostChangeListener> listeners = List.of();
+
+    /**
+     * Informs every registered {@link PostChangeListener} that a post was saved.
+     * Listener failures are logged so they never fail the write itself.
+     *
+     * @param post the persisted post
+     */
+    public void notifySaved(Post post) {
+        for (PostChangeListener listener : listeners) {
+            try {
+                listener.postSaved(post);
+            } catch (Exception e) {
+                logger.warn("Post listener {} failed for post {}: {}",
+                        listener.getClass().getSimpleName(), post.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Informs every registered {@link PostChangeListener} that a post was deleted.
+     *
+     * @param id the ID of the deleted post
+     */
+    public void notifyDeleted(String id) {
+        for (PostChangeListener listener : listeners) {
+            try {
+                listener.postDeleted(id);
+            } catch (Exception e) {
+                logger.warn("Post listener {} failed for deleted post {}: {}",
+                        listener.getClass().getSimpleName(), id, e.getMessage());
+            }
+        }
+    }
+}
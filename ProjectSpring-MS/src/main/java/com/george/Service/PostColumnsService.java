@@ -0,0 +1,147 @@
+package com.george.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.george.Cache.PostChangeFeed;
+import com.george.Search.PostColumns;
+import com.george.model.JobMatchFilter;
+import com.george.model.Post;
+import com.george.model.PostLifecycle;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps the {@link PostColumns} snapshot of live posts.
+ * <p>
+ * The snapshot is loaded once the application is ready, reading only the
+ * title, experience and technologies of each post through a cursor, and then
+ * follows every write made through {@link PostService} and, through the
+ * {@link PostChangeFeed}, those made by other nodes. Closed posts are dropped
+ * from it like from the other local indexes.
+ * </p>
+ * <p>
+ * A rebuild loads into a fresh snapshot, which replaces the current one only
+ * once it is complete; writes arriving meanwhile are applied to both. Until a
+ * load has succeeded, {@link #select(JobMatchFilter)} answers null, so that
+ * matching filters the search results instead of trusting an empty or partial
+ * snapshot. A failed load is retried every
+ * {@code jobmatch.match.columns.retry-interval}.
+ * </p>
+ */
+@Service
+public class PostColumnsService implements PostChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostColumnsService.class);
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PostChangeFeed changeFeed;
+
+    /** The complete snapshot, or null until the first load succeeds */
+    private volatile PostColumns columns;
+
+    /** The snapshot being loaded by a rebuild, which also receives concurrent writes */
+    private volatile PostColumns loading;
+
+    @PostConstruct
+    void init() {
+        changeFeed.subscribe(this);
+    }
+
+    /**
+     * Loads a fresh snapshot from the current contents of the collection and
+     * swaps it in. If the load fails, the previous snapshot stays in use.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Query query = new BasicQuery(PostLifecycle.liveFilter(Instant.now())).cursorBatchSize(LOAD_BATCH_SIZE);
+        query.fields().include("jobTitle", "experience", "requiredTechs");
+        PostColumns fresh = new PostColumns();
+        loading = fresh;
+        try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            posts.forEach(post -> apply(fresh, post));
+            columns = fresh;
+            logger.info("Post columns loaded: {} posts in {} KiB", fresh.size(), fresh.columnBytes() / 1024);
+        } catch (Exception e) {
+            logger.warn("Could not load post columns{}: {}", columns == null ? ", filtering after the search" : "",
+                    e.getMessage());
+        } finally {
+            loading = null;
+        }
+    }
+
+    /**
+     * Retries the initial load after it failed.
+     */
+    @Scheduled(fixedDelayString = "${jobmatch.match.columns.retry-interval:PT1M}",
+            initialDelayString = "${jobmatch.match.columns.retry-interval:PT1M}")
+    public void retryLoad() {
+        if (columns == null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Selects the live posts a match filter allows, without touching the database.
+     *
+     * @param filter the filter, not empty
+     * @return the IDs of the posts passing the filter, or null if no complete
+     *         snapshot has been loaded and the filter has to be applied by the database
+     */
+    public List<String> select(JobMatchFilter filter) {
+        PostColumns current = columns;
+        return current == null ? null
+                : current.select(filter.getMinExperience(), filter.getMaxExperience(), filter.getTechs());
+    }
+
+    @Override
+    public void postSaved(Post post) {
+        if (post.getId() == null) {
+            return;
+        }
+        forEachSnapshot(snapshot -> apply(snapshot, post));
+    }
+
+    @Override
+    public void postDeleted(String id) {
+        forEachSnapshot(snapshot -> snapshot.remove(id));
+    }
+
+    private void forEachSnapshot(Consumer<PostColumns> change) {
+        // Read in this order, so a write racing the swap in rebuild() still reaches the fresh snapshot
+        PostColumns next = loading;
+        PostColumns current = columns;
+        if (current != null) {
+            change.accept(current);
+        }
+        if (next != null && next != current) {
+            change.accept(next);
+        }
+    }
+
+    private static void apply(PostColumns snapshot, Post post) {
+        if (PostLifecycle.isLive(post, Instant.now())) {
+            snapshot.put(post.getId(), post.getJobTitle(), post.getRequiredTechs(), post.getExperience());
+        } else {
+            snapshot.remove(post.getId());
+        }
+    }
+}
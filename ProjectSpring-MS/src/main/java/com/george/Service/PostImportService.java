@@ -0,0 +1,233 @@
+package com.george.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.george.model.ImportReport;
+import com.george.model.Post;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service for importing large numbers of posts without holding the payload in memory.
+ * <p>
+ * The payload is read with Jackson's streaming parser, either as one JSON array
+ * or as newline-delimited JSON. Records are collected into batches that are
+ * written with unordered bulk inserts on a small writer pool. At most
+ * {@code max-in-flight-batches} batches may be pending; once that limit is
+ * reached parsing pauses, which in turn stops reading from the request body.
+ * </p>
+ * <p>
+ * A record that cannot be mapped or written is reported with its position and
+ * does not affect the others. Only malformed JSON, after which the position in
+ * the payload is lost, aborts the import. The records read before it are still
+ * written, and the abort is reported at the position of the malformed record.
+ * </p>
+ */
+@Service
+public class PostImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostImportService.class);
+
+    @Value("${jobmatch.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${jobmatch.import.max-in-flight-batches:2}")
+    private int maxInFlightBatches;
+
+    @Value("${jobmatch.import.writer-threads:2}")
+    private int writerThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${jobmatch.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ExecutorService writers;
+
+    @PostConstruct
+    void init() {
+        // The pool size still bounds concurrent writes when the writers are virtual threads
+        ThreadFactory factory = virtualThreads
+                ? Thread.ofVirtual().name("post-import-", 0).factory()
+                : Thread.ofPlatform().name("post-import-", 0).factory();
+        writers = Executors.newFixedThreadPool(writerThreads, factory);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdown();
+    }
+
+    /**
+     * Imports every post in the payload.
+     *
+     * @param payload a JSON array of posts or newline-delimited JSON posts
+     * @return counts and per-record errors
+     */
+    public ImportReport importPosts(InputStream payload) {
+        Progress progress = new Progress();
+        Semaphore inFlight = new Semaphore(maxInFlightBatches);
+        long received = 0;
+        List<Post> batch = new ArrayList<>(batchSize);
+        List<Long> positions = new ArrayList<>(batchSize);
+
+        try (JsonParser parser = objectMapper.createParser(payload)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                JsonNode node = objectMapper.readTree(parser); // one record at a time
+                long position = received++;
+                try {
+                    Post post = objectMapper.treeToValue(node, Post.class);
+                    if (post.getJobTitle() == null || post.getJobTitle().isBlank()) {
+                        progress.failed(position, "jobTitle is required");
+                    } else {
+                        batch.add(post);
+                        positions.add(position);
+                    }
+                } catch (JsonProcessingException e) {
+                    progress.failed(position, "Invalid post: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    progress.failed(position, "Invalid post: " + e.getMessage());
+                }
+
+                if (batch.size() == batchSize) {
+                    submit(batch, positions, inFlight, progress);
+                    batch = new ArrayList<>(batchSize);
+                    positions = new ArrayList<>(batchSize);
+                }
+                token = parser.nextToken();
+            }
+            submit(batch, positions, inFlight, progress);
+            batch = List.of(); // handed over, even if closing the parser fails now
+            positions = List.of();
+        } catch (IOException e) {
+            // The records parsed before the malformed one are valid, so they are still written
+            progress.abort(received, "Malformed JSON: " + e.getMessage());
+            try {
+                submit(batch, positions, inFlight, progress);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                progress.failedAll(positions, "Import interrupted before the record was written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.abort(received, "Import interrupted");
+            // Interrupted while waiting to hand this batch over, so none of it was written
+            progress.failedAll(positions, "Import interrupted before the record was written");
+        } finally {
+            // Wait for the batches still being written
+            inFlight.acquireUninterruptibly(maxInFlightBatches);
+            inFlight.release(maxInFlightBatches);
+        }
+
+        ImportReport report = progress.toReport(received);
+        logger.info("Post import finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Hands a batch to the writer pool, blocking while too many batches are pending.
+     */
+    private void submit(List<Post> batch, List<Long> positions, Semaphore inFlight, Progress progress)
+            throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        inFlight.acquire();
+        try {
+            writers.execute(() -> {
+                try {
+                    PostService.BatchInsertResult result = postService.insertBatch(batch);
+                    progress.inserted(result.inserted().size());
+                    for (Map.Entry<Integer, String> error : result.errors().entrySet()) {
+                        progress.failed(positions.get(error.getKey()), error.getValue());
+                    }
+                } catch (Exception e) {
+                    progress.failedAll(positions, "Batch write failed: " + e.getMessage());
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Counters shared between the parsing thread and the writer pool.
+     */
+    private final class Progress {
+        private long inserted;
+        private long failed;
+        private boolean aborted;
+        private final List<ImportReport.ImportError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+
+        synchronized void inserted(int count) {
+            inserted += count;
+        }
+
+        synchronized void failed(long position, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportReport.ImportError(position, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        synchronized void failedAll(List<Long> positions, String message) {
+            positions.forEach(position -> failed(position, message));
+        }
+
+        synchronized void abort(long position, String message) {
+            aborted = true;
+            errors.add(new ImportReport.ImportError(position, message));
+        }
+
+        synchronized ImportReport toReport(long received) {
+            ImportReport report = new ImportReport();
+            report.setReceived(received);
+            report.setInserted(inserted);
+            report.setFailed(failed);
+            report.setAborted(aborted);
+            errors.sort((a, b) -> Long.compare(a.getIndex(), b.getIndex()));
+            report.setErrors(new ArrayList<>(errors));
+            report.setErrorsTruncated(errorsTruncated);
+            return report;
+        }
+    }
+}
@@ -1,14 +1,47 @@
 package com.george.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import com.george.Cache.PostCache;
+import com.george.Exception.PostVersionConflictException;
+import com.george.controller.PostETags;
 import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.PostLifecycle;
+import com.george.model.PostPage;
+import com.george.model.PostPatch;
 import com.george.model.PostRepository;
+import com.george.model.SearchPageRequest;
 import com.george.model.SearchRepository;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 /**
  * Service class that handles business logic for Post entities.
@@ -20,7 +53,7 @@ import com.george.model.SearchRepository;
  */
 @Service
 public class PostService {
-    
+
     /** Repository for basic CRUD operations on Post entities */
     @Autowired
     private PostRepository repo;
@@ -29,6 +62,69 @@ public class PostService {
     @Autowired
     private SearchRepository srepo;
 
+    /** Template for cursor-based reads that the repository interface cannot express */
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /** Cache for lookups by ID and search pages, invalidated by the listeners below */
+    @Autowired
+    private PostCache postCache;
+
+    /** Informs the in-memory components that follow post writes (indexes, caches) */
+    @Autowired
+    private PostChangeNotifier changeNotifier;
+
+    /** Group commit for {@link #addPost(Post)}; off by default */
+    @Value("${jobmatch.write-batching.enabled:false}")
+    private boolean writeBatching;
+
+    @Value("${jobmatch.write-batching.max-delay:2ms}")
+    private Duration writeBatchMaxDelay;
+
+    @Value("${jobmatch.write-batching.max-batch-size:500}")
+    private int writeBatchMaxSize;
+
+    @Value("${jobmatch.write-batching.queue-capacity:10000}")
+    private int writeBatchQueueCapacity;
+
+    /** Null unless write batching is enabled */
+    private PostWriteBatcher writeBatcher;
+
+    /** Default and maximum page sizes for {@link #getPostsPage(String, int, PostFields)} */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** Documents fetched per cursor round trip when streaming */
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    /** The fields a content tag is computed from */
+    private static final List<String> CONTENT_FIELDS = List.of("jobTitle", "jobDescription", "experience", "requiredTechs");
+
+    /** Projection reading what an unversioned post's content tag is checked against */
+    public static final Document CONTENT_PROJECTION = new Document("jobTitle", 1).append("jobDescription", 1)
+            .append("experience", 1).append("requiredTechs", 1);
+
+    /** Version given to newly created posts; every update increments it */
+    public static final long INITIAL_VERSION = 1L;
+
+    /** Attempts at a versioned replace before an update gives up under contention */
+    public static final int UPDATE_ATTEMPTS = 5;
+
+    @PostConstruct
+    void startWriteBatcher() {
+        if (writeBatching) {
+            writeBatcher = new PostWriteBatcher(this::insertBatch, writeBatchMaxDelay, writeBatchMaxSize,
+                    writeBatchQueueCapacity);
+        }
+    }
+
+    @PreDestroy
+    void stopWriteBatcher() {
+        if (writeBatcher != null) {
+            writeBatcher.close();
+        }
+    }
+
     /**
      * Retrieves all posts from the database.
      * 
@@ -43,6 +139,72 @@ public class PostService {
         }
     }
 
+    /**
+     * Retrieves one page of posts using keyset pagination on {@code _id}.
+     * Unlike offset paging, every page costs the same index range scan.
+     * 
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit the page size, capped at {@link #MAX_PAGE_SIZE}
+     * @param fields the fields to read from the database
+     * @return the page of posts and the cursor for the next page
+     * @throws RuntimeException if there's an error fetching posts
+     */
+    public PostPage getPostsPage(String cursor, int limit, PostFields fields) {
+        try {
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            // Fetch one extra post to learn whether another page exists
+            List<Post> posts = mongoTemplate.find(keysetQuery(cursor, fields).limit(pageSize + 1), Post.class);
+            if (posts.size() <= pageSize) {
+                return new PostPage(posts, null);
+            }
+            List<Post> items = new ArrayList<>(posts.subList(0, pageSize));
+            return new PostPage(items, items.get(pageSize - 1).getId());
+        } catch (Exception e) {
+            throw new RuntimeException("Error fetching posts", e);
+        }
+    }
+
+    /**
+     * Streams every post after the cursor to the consumer, straight from the
+     * database cursor. Memory use is bounded by one cursor batch regardless of
+     * the collection size.
+     * 
+     * @param cursor the ID to start after, or null to start from the beginning
+     * @param fields the fields to read from the database
+     * @param consumer receives each post in {@code _id} order
+     * @throws RuntimeException if there's an error fetching posts
+     */
+    public void streamPosts(String cursor, PostFields fields, Consumer<Post> consumer) {
+        try (Stream<Post> posts = mongoTemplate.stream(
+                keysetQuery(cursor, fields).cursorBatchSize(STREAM_BATCH_SIZE), Post.class)) {
+            posts.forEach(consumer);
+        } catch (Exception e) {
+            throw new RuntimeException("Error streaming posts", e);
+        }
+    }
+
+    /**
+     * Builds the {@code _id}-ordered query starting strictly after the cursor,
+     * reading only the requested fields and never the embedding.
+     * 
+     * @param cursor the ID to start after, or null to start from the beginning
+     * @param fields the fields to read from the database
+     * @return the query, without a limit
+     */
+    public static Query keysetQuery(String cursor, PostFields fields) {
+        Query query = new Query();
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(Criteria.where("_id").gt(cursor));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id"));
+        if (fields.isAll()) {
+            query.fields().exclude("embedding");
+        } else {
+            fields.applyTo(query);
+        }
+        return query;
+    }
+
     /**
      * Searches for posts containing specific text.
      * 
@@ -52,7 +214,43 @@ public class PostService {
      */
     public List<Post> findByText(String text) {
         try {
-            return srepo.findByText(text);
+            List<Post> posts = new ArrayList<>();
+            streamByText(new SearchPageRequest(text, SearchPageRequest.MAX_LIMIT, null, true), posts::add);
+            return posts;
+        } catch (Exception e) {
+            throw new RuntimeException("Error searching posts by text", e);
+        }
+    }
+
+    /**
+     * Streams one page of posts matching the search text to the consumer.
+     * Pages are served from {@link PostCache} when possible; on a miss the page is
+     * streamed from the database and cached once complete.
+     * 
+     * @param request the search text, page size, page token and projection options
+     * @param consumer receives each matching post as it is read from the database
+     * @return the token for the next page, or null when there are no more results
+     * @throws IllegalArgumentException if the page token is malformed
+     * @throws RuntimeException if there's an error during the search operation
+     */
+    public String streamByText(SearchPageRequest request, Consumer<Post> consumer) {
+        try {
+            PostCache.SearchPage cached = postCache.getSearchPage(request);
+            if (cached != null) {
+                cached.items().forEach(consumer);
+                return cached.nextPageToken();
+            }
+
+            long generation = postCache.generation();
+            List<Post> page = new ArrayList<>(request.getLimit());
+            String nextPageToken = srepo.streamByText(request, post -> {
+                page.add(post);
+                consumer.accept(post);
+            });
+            postCache.putSearchPage(request, page, nextPageToken, generation);
+            return nextPageToken;
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error searching posts by text", e);
         }
@@ -60,14 +258,31 @@ public class PostService {
 
     /**
      * Adds a new post to the database.
+     * <p>
+     * The post is always inserted, whether it goes through the write batcher or,
+     * when batching is off or its queue is full, straight to the repository. A
+     * post whose ID already exists therefore fails with a duplicate key either
+     * way instead of replacing the stored post; replacing is what
+     * {@link #updatePost(Post, String)} is for.
+     * </p>
      * 
      * @param post the Post entity to be saved
      * @return the saved Post entity with generated ID
-     * @throws RuntimeException if there's an error saving the post
+     * @throws RuntimeException if there's an error saving the post, including an existing ID
      */
     public Post addPost(Post post) {
+        CompletableFuture<Post> batched = writeBatcher == null ? null : writeBatcher.submit(post);
         try {
-            return repo.save(post);
+            if (batched != null) {
+                // Written together with concurrent inserts; the outcome is still this post's own
+                return batched.join();
+            }
+            post.setVersion(INITIAL_VERSION);
+            Post saved = repo.insert(post);
+            changeNotifier.notifySaved(saved);
+            return saved;
+        } catch (CompletionException e) {
+            throw new RuntimeException("Error saving post", e.getCause());
         } catch (Exception e) {
             throw new RuntimeException("Error saving post", e);
         }
@@ -75,6 +290,9 @@ public class PostService {
 
     /**
      * Updates an existing post in the database.
+     * The replacement only applies if the stored version is still the one that
+     * was read, so two concurrent updates can never end up with the same version
+     * (and therefore the same ETag) for different content.
      * 
      * @param post the updated Post entity
      * @param id the ID of the post to update
@@ -83,21 +301,191 @@ public class PostService {
      */
     public ResponseEntity<Post> updatePost(Post post, String id) {
         try {
-            Optional<Post> existingPost = repo.findById(id);
-            if (existingPost.isPresent()) {
-                post.setId(id); // Ensure the post ID remains unchanged during update
-                Post updatedPost = repo.save(post);
-                return ResponseEntity.ok(updatedPost);
-            } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            post.setId(id); // Ensure the post ID remains unchanged during update
+            for (int attempt = 0; attempt < UPDATE_ATTEMPTS; attempt++) {
+                Optional<Post> existingPost = repo.findById(id);
+                if (existingPost.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+                }
+                Long readVersion = existingPost.get().getVersion();
+                post.setVersion(nextVersion(readVersion));
+                Query unchanged = new Query(Criteria.where("_id").is(id).and("version").is(readVersion));
+                if (mongoTemplate.findAndReplace(unchanged, post) != null) {
+                    changeNotifier.notifySaved(post);
+                    return ResponseEntity.ok(post);
+                }
+            }
+            throw new IllegalStateException("Post " + id + " kept changing during the update");
+        } catch (Exception e) {
+            throw new RuntimeException("Error updating post", e);
+        }
+    }
+
+    /**
+     * Applies field-level changes to a post in a single {@code findOneAndUpdate}.
+     * <p>
+     * The update is an aggregation pipeline, so the server itself compares the new
+     * job description with the stored one and sets {@code embeddingStale} only if
+     * it actually changed; the embedding is derived from the description alone.
+     * The version is incremented in the same write. When an expected version is
+     * given, the update only matches that version, which turns a concurrent edit
+     * into a {@link PostVersionConflictException} instead of a lost update.
+     * </p>
+     * 
+     * @param id the ID of the post to change
+     * @param patch the fields to set; null fields are left unchanged
+     * @param expectedVersion the version the caller last saw, 0 for a post written
+     *        before versioning, or null to apply the patch unconditionally
+     * @return Optional containing the post as it is after the update, empty if not found
+     * @throws PostVersionConflictException if the post exists but no longer has the expected version
+     * @throws RuntimeException if there's an error updating the post
+     */
+    public Optional<Post> patchPost(String id, PostPatch patch, Long expectedVersion) {
+        return patchPost(id, patch, expectedVersion, null);
+    }
+
+    /**
+     * Applies field-level changes to a post, conditional on its version or, for a
+     * post written before versioning, on its content.
+     * <p>
+     * An unversioned post is read first and its content compared with the tag.
+     * The update then only matches the post if it still holds exactly the
+     * content that was read, so the check and the write stay atomic.
+     * </p>
+     * 
+     * @param id the ID of the post to change
+     * @param patch the fields to set; null fields are left unchanged
+     * @param expectedVersion the version the caller last saw, 0 for a post written
+     *        before versioning, or null to apply the patch unconditionally
+     * @param expectedContentTag the content tag of an unversioned post, see
+     *        {@link com.george.controller.PostETags#expectedContentTag}, or null
+     * @return Optional containing the post as it is after the update, empty if not found
+     * @throws PostVersionConflictException if the post exists but no longer has the
+     *         expected version or content
+     * @throws RuntimeException if there's an error updating the post
+     */
+    public Optional<Post> patchPost(String id, PostPatch patch, Long expectedVersion, String expectedContentTag) {
+        Document updated;
+        try {
+            MongoCollection<Document> collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Post.class));
+            Document filter = patchFilter(id, expectedVersion);
+            if (expectedContentTag != null) {
+                Document current = collection.find(filter).projection(CONTENT_PROJECTION).first();
+                filter = current == null ? null
+                        : contentFilter(filter, current, expectedContentTag, mongoTemplate.getConverter().read(Post.class, current));
             }
+            updated = filter == null ? null : collection.findOneAndUpdate(filter, patchPipeline(patch), patchOptions());
         } catch (Exception e) {
             throw new RuntimeException("Error updating post", e);
         }
+        if (updated == null) {
+            if (expectedVersion != null && repo.existsById(id)) {
+                throw new PostVersionConflictException("Post " + id + " has changed since version " + expectedVersion);
+            }
+            return Optional.empty();
+        }
+        Post post = mongoTemplate.getConverter().read(Post.class, updated);
+        changeNotifier.notifySaved(post);
+        return Optional.of(post);
+    }
+
+    /**
+     * @return options for the patch update: return the document as written, without the embedding
+     */
+    public static FindOneAndUpdateOptions patchOptions() {
+        return new FindOneAndUpdateOptions()
+                .returnDocument(ReturnDocument.AFTER)
+                .projection(new Document("embedding", 0));
+    }
+
+    /**
+     * Builds the filter of a patch update.
+     * 
+     * @param id the ID of the post to change
+     * @param expectedVersion the version to require, 0 for an unversioned post, or null for none
+     * @return the filter document
+     */
+    public static Document patchFilter(String id, Long expectedVersion) {
+        Document filter = new Document("_id", ObjectId.isValid(id) ? new ObjectId(id) : id);
+        if (expectedVersion != null) {
+            filter.append("version", expectedVersion == 0 ? null : expectedVersion);
+        }
+        return filter;
+    }
+
+    /**
+     * Narrows the filter of a patch to the exact content of an unversioned post.
+     * 
+     * @param filter the filter from {@link #patchFilter(String, Long)}
+     * @param current the stored document, read with {@link #CONTENT_PROJECTION}
+     * @param expectedContentTag the content tag the caller last saw
+     * @param post the stored document as a post
+     * @return the filter, or null if the stored content does not have the tag
+     */
+    public static Document contentFilter(Document filter, Document current, String expectedContentTag, Post post) {
+        if (!expectedContentTag.equals(PostETags.contentTag(post))) {
+            return null;
+        }
+        Document exact = new Document(filter);
+        for (String field : CONTENT_FIELDS) {
+            // A missing field matches null, as in the stored document
+            exact.append(field, current.get(field));
+        }
+        return exact;
+    }
+
+    /**
+     * Builds the pipeline update that applies a patch, increments the version and
+     * flags the embedding as stale if the job description changes.
+     * 
+     * @param patch the fields to set
+     * @return the update pipeline stages
+     */
+    public static List<Document> patchPipeline(PostPatch patch) {
+        Document changes = new Document();
+        if (patch.getJobTitle() != null) {
+            changes.append("jobTitle", new Document("$literal", patch.getJobTitle()));
+        }
+        if (patch.getJobDescription() != null) {
+            changes.append("jobDescription", new Document("$literal", patch.getJobDescription()));
+        }
+        if (patch.getExperience() != null) {
+            changes.append("experience", new Document("$literal", patch.getExperience()));
+        }
+        if (patch.getRequiredTechs() != null) {
+            changes.append("requiredTechs", new Document("$literal", patch.getRequiredTechs()));
+        }
+        if (patch.getStatus() != null) {
+            changes.append("status", new Document("$literal", patch.getStatus().name()));
+        }
+        if (patch.getExpiresAt() != null) {
+            changes.append("expiresAt", new Document("$literal", Date.from(patch.getExpiresAt())));
+        }
+        changes.append("version", new Document("$add", List.of(new Document("$ifNull", Arrays.asList("$version", 0)), 1)));
+
+        List<Document> pipeline = new ArrayList<>();
+        if (patch.getJobDescription() != null) {
+            // Must run before the description is overwritten
+            pipeline.add(new Document("$set", new Document("embeddingStale", new Document("$or", List.of(
+                new Document("$ifNull", Arrays.asList("$embeddingStale", false)),
+                new Document("$ne", Arrays.asList("$jobDescription", new Document("$literal", patch.getJobDescription())))
+            )))));
+        }
+        pipeline.add(new Document("$set", changes));
+        return pipeline;
+    }
+
+    /**
+     * @param version the stored version, null for posts written before versioning
+     * @return the version to store with the next write
+     */
+    public static long nextVersion(Long version) {
+        return version == null ? INITIAL_VERSION : version + 1;
     }
 
     /**
      * Finds a post by its ID.
+     * Lookups are served from {@link PostCache} when the post is cached.
      * 
      * @param id the ID of the post to find
      * @return Optional containing the Post if found, empty Optional otherwise
@@ -105,12 +493,68 @@ public class PostService {
      */
     public Optional<Post> findById(String id) {
         try {
-            return repo.findById(id);
+            return Optional.ofNullable(postCache.getPost(id, key -> repo.findById(key).orElse(null)));
+        } catch (Exception e) {
+            throw new RuntimeException("Error finding post by ID", e);
+        }
+    }
+
+    /**
+     * Returns a post only if it is already cached, without touching the database.
+     * The cache is invalidated by every write, so its version can be used to
+     * answer conditional requests.
+     * 
+     * @param id the ID of the post
+     * @return Optional containing the cached Post, empty on a cache miss
+     */
+    public Optional<Post> findCachedById(String id) {
+        return Optional.ofNullable(postCache.peekPost(id));
+    }
+
+    /**
+     * Finds a post by its ID, reading only the requested fields.
+     * A cached full post is used when available; otherwise only the requested
+     * fields are fetched, and the partial post is not cached.
+     * 
+     * @param id the ID of the post to find
+     * @param fields the fields to read
+     * @return Optional containing the Post if found, empty Optional otherwise
+     * @throws RuntimeException if there's an error finding the post
+     */
+    public Optional<Post> findById(String id, PostFields fields) {
+        if (fields.isAll()) {
+            return findById(id);
+        }
+        try {
+            Post cached = postCache.peekPost(id);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            Query query = fields.applyTo(new Query(Criteria.where("_id").is(id)));
+            return Optional.ofNullable(mongoTemplate.findOne(query, Post.class));
         } catch (Exception e) {
             throw new RuntimeException("Error finding post by ID", e);
         }
     }
 
+    /**
+     * Finds a post that the archiver has moved out of the live collection.
+     * Archived posts are read-only and not cached.
+     * 
+     * @param id the ID of the post to find
+     * @param fields the fields to read
+     * @return Optional containing the archived Post if found, empty Optional otherwise
+     * @throws RuntimeException if there's an error finding the post
+     */
+    public Optional<Post> findArchivedById(String id, PostFields fields) {
+        try {
+            Query query = fields.applyTo(new Query(Criteria.where("_id").is(id)));
+            return Optional.ofNullable(mongoTemplate.findOne(query, Post.class, PostLifecycle.ARCHIVE_COLLECTION));
+        } catch (Exception e) {
+            throw new RuntimeException("Error finding archived post by ID", e);
+        }
+    }
+
     /**
      * Deletes a post by its ID.
      * 
@@ -122,6 +566,7 @@ public class PostService {
         try {
             if (repo.existsById(id)) {
                 repo.deleteById(id);
+                changeNotifier.notifyDeleted(id);
                 return true;
             }
             return false;
@@ -132,16 +577,78 @@ public class PostService {
 
     /**
      * Adds multiple posts to the database in a batch operation.
+     * <p>
+     * Like {@link #addPost(Post)}, the posts are inserted, so a post whose ID
+     * already exists fails with a duplicate key instead of replacing the stored
+     * post and resetting its version.
+     * </p>
      * 
      * @param posts List of Post entities to be saved
      * @return List of saved Post entities with generated IDs
-     * @throws RuntimeException if there's an error saving the posts
+     * @throws RuntimeException if there's an error saving the posts, including an existing ID
      */
     public List<Post> addPosts(List<Post> posts) {
         try {
-            return repo.saveAll(posts);  
+            posts.forEach(post -> post.setVersion(INITIAL_VERSION));
+            List<Post> saved = repo.insert(posts);
+            saved.forEach(changeNotifier::notifySaved);
+            return saved;
+        } catch (Exception e) {
+            throw new RuntimeException("Error saving posts", e);
+        }
+    }
+
+    /**
+     * Result of {@link #insertBatch(List)}.
+     *
+     * @param inserted the posts that were written, with their IDs
+     * @param errors error messages keyed by the index of the failed post in the batch
+     */
+    public record BatchInsertResult(List<Post> inserted, Map<Integer, String> errors) {}
+
+    /**
+     * Inserts a batch of new posts with one unordered bulk write.
+     * <p>
+     * IDs are assigned up front so the outcome of every post is known. Unordered
+     * writes continue past individual failures (for example duplicate keys), which
+     * are reported per index instead of failing the whole batch.
+     * </p>
+     *
+     * @param posts the posts to insert
+     * @return the inserted posts and the errors of the failed ones
+     * @throws RuntimeException if the bulk write fails as a whole
+     */
+    public BatchInsertResult insertBatch(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return new BatchInsertResult(List.of(), Map.of());
+        }
+        for (Post post : posts) {
+            if (post.getId() == null) {
+                post.setId(new ObjectId().toHexString());
+            }
+            post.setVersion(INITIAL_VERSION);
+        }
+
+        Map<Integer, String> errors = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)
+                    .insert(posts)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
         } catch (Exception e) {
             throw new RuntimeException("Error saving posts", e);
         }
+
+        List<Post> inserted = new ArrayList<>(posts.size() - errors.size());
+        for (int i = 0; i < posts.size(); i++) {
+            if (!errors.containsKey(i)) {
+                inserted.add(posts.get(i));
+                changeNotifier.notifySaved(posts.get(i));
+            }
+        }
+        return new BatchInsertResult(inserted, errors);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.george.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.george.Service.PostService.BatchInsertResult;
+import com.george.model.Post;
+
+/**
+ * Group commit for single-post inserts.
+ * <p>
+ * Callers hand in one post each and get a future for it. A single writer thread
+ * collects the posts that arrive within {@code maxDelay} of the first one, up to
+ * {@code maxBatchSize}, and writes them with one unordered bulk insert. Each
+ * future completes with its own post, or fails with its own error, so a
+ * duplicate key in one request does not affect the others in the batch.
+ * </p>
+ * <p>
+ * The queue is bounded. When it is full, {@link #submit(Post)} returns null and
+ * the caller writes the post itself, so a slow database slows callers down
+ * instead of letting the queue grow without limit.
+ * </p>
+ */
+public final class PostWriteBatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostWriteBatcher.class);
+
+    private record Pending(Post post, CompletableFuture<Post> result) {}
+
+    private final Function<List<Post>, BatchInsertResult> writer;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Pending> queue;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * @param writer inserts a batch and reports the failed posts by index
+     * @param maxDelay how long the first post of a batch waits for others
+     * @param maxBatchSize the maximum number of posts per bulk insert
+     * @param queueCapacity the maximum number of posts waiting to be written
+     */
+    public PostWriteBatcher(Function<List<Post>, BatchInsertResult> writer, Duration maxDelay, int maxBatchSize,
+            int queueCapacity) {
+        this.writer = writer;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        this.thread = Thread.ofPlatform().daemon().name("post-write-batcher").start(this::run);
+    }
+
+    /**
+     * Queues a post for the next batch.
+     *
+     * @param post the post to insert
+     * @return the future completing with the inserted post, or null if the
+     *         queue is full or the batcher is closed
+     */
+    public CompletableFuture<Post> submit(Post post) {
+        if (closed) {
+            return null;
+        }
+        Pending pending = new Pending(post, new CompletableFuture<>());
+        return queue.offer(pending) ? pending.result() : null;
+    }
+
+    /**
+     * Writes the posts still queued and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Posts that were offered while the writer thread was exiting
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        flush(left);
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+        // Posts queued while closing
+        queue.drainTo(batch);
+        flush(batch);
+    }
+
+    private void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Post> posts = batch.stream().map(Pending::post).toList();
+        BatchInsertResult result;
+        try {
+            result = writer.apply(posts);
+        } catch (Exception e) {
+            logger.warn("Batched insert of {} posts failed: {}", posts.size(), e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            String error = result.errors().get(i);
+            if (error == null) {
+                batch.get(i).result().complete(batch.get(i).post());
+            } else {
+                batch.get(i).result().completeExceptionally(new RuntimeException(error));
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.george.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the independent parts of one operation on virtual threads and joins
+ * them before the operation returns.
+ * <p>
+ * Follows the shutdown-on-failure policy of {@code StructuredTaskScope}, which
+ * is still a preview API in Java 21: the first failing subtask cancels the
+ * others, {@link #join()} rethrows its exception, and {@link #close()} does not
+ * return before every forked thread has finished. No subtask outlives the
+ * block that opened the scope.
+ * </p>
+ */
+public final class SubtaskScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final CompletionService<Object> completion;
+    private final List<Future<?>> forked = new ArrayList<>();
+
+    /**
+     * @param name prefix for the names of the forked threads, shown in thread dumps
+     */
+    public SubtaskScope(String name) {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        completion = new ExecutorCompletionService<>(executor);
+    }
+
+    /**
+     * Starts a subtask on its own virtual thread.
+     *
+     * @param task the subtask
+     * @return the future to read with {@link Future#resultNow()} after {@link #join()}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Future<T> fork(Callable<T> task) {
+        Future<T> future = (Future<T>) completion.submit((Callable<Object>) task);
+        forked.add(future);
+        return future;
+    }
+
+    /**
+     * Waits until every subtask has completed, or until the first one fails.
+     *
+     * @throws ExecutionException with the cause of the first failed subtask,
+     *         after the remaining subtasks were cancelled
+     * @throws InterruptedException if the calling thread is interrupted while
+     *         waiting; the subtasks are cancelled
+     */
+    public void join() throws InterruptedException, ExecutionException {
+        try {
+            for (int i = 0; i < forked.size(); i++) {
+                completion.take().get();
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            forked.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    /**
+     * Cancels subtasks that are still running and waits for their threads to end.
+     */
+    @Override
+    public void close() {
+        forked.forEach(future -> future.cancel(true));
+        executor.close();
+    }
+}
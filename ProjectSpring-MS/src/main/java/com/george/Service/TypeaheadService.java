@@ -0,0 +1,168 @@
+package com.george.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.george.Cache.PostChangeFeed;
+import com.george.Search.TypeaheadIndex;
+import com.george.model.Post;
+import com.george.model.PostLifecycle;
+import com.george.model.PostRepository;
+import com.george.model.Suggestion;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service backing the typeahead endpoint for job titles and technologies.
+ * <p>
+ * Keeps one {@link TypeaheadIndex} per field, weighted by the number of posts
+ * carrying each value. The indexes are loaded once the application is ready and
+ * then follow every write made through {@link PostService} and, through the
+ * {@link PostChangeFeed}, those made by other nodes, so keystrokes are answered
+ * from memory instead of running a full-text search.
+ * </p>
+ */
+@Service
+public class TypeaheadService implements PostChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TypeaheadService.class);
+
+    public static final String FIELD_TITLE = "jobTitle";
+    public static final String FIELD_TECHS = "requiredTechs";
+
+    /** Upper bound for the number of completions a single request may ask for */
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private PostRepository repo;
+
+    @Autowired
+    private PostChangeFeed changeFeed;
+
+    private final TypeaheadIndex titles = new TypeaheadIndex();
+    private final TypeaheadIndex techs = new TypeaheadIndex();
+
+    /** Terms contributed by each post, so updates and deletes can be reversed */
+    private final Map<String, PostTerms> termsByPost = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private record PostTerms(String title, List<String> techs) {}
+
+    @PostConstruct
+    void init() {
+        changeFeed.subscribe(this);
+    }
+
+    /**
+     * Loads the indexes from the current contents of the collection.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            writeLock.lock();
+            try {
+                titles.clear();
+                techs.clear();
+                termsByPost.clear();
+                Instant now = Instant.now();
+                repo.findAll().stream().filter(post -> PostLifecycle.isLive(post, now)).forEach(this::index);
+            } finally {
+                writeLock.unlock();
+            }
+            logger.info("Typeahead index loaded: {} titles, {} technologies", titles.size(), techs.size());
+        } catch (Exception e) {
+            // Completions stay empty until posts are written; startup must not fail on this
+            logger.warn("Could not load typeahead index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the most popular completions for a prefix.
+     *
+     * @param prefix the typed prefix
+     * @param field "jobTitle", "requiredTechs" or "all"
+     * @param limit the maximum number of suggestions
+     * @return suggestions ordered by descending popularity
+     */
+    public List<Suggestion> complete(String prefix, String field, int limit) {
+        int bounded = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<Suggestion> suggestions = new ArrayList<>();
+        if (!FIELD_TECHS.equals(field)) {
+            titles.complete(prefix, bounded)
+                    .forEach(c -> suggestions.add(new Suggestion(c.text(), FIELD_TITLE, c.weight())));
+        }
+        if (!FIELD_TITLE.equals(field)) {
+            techs.complete(prefix, bounded)
+                    .forEach(c -> suggestions.add(new Suggestion(c.text(), FIELD_TECHS, c.weight())));
+        }
+        if (suggestions.size() > bounded) {
+            suggestions.sort(Comparator.comparingInt(Suggestion::getWeight).reversed());
+            return new ArrayList<>(suggestions.subList(0, bounded));
+        }
+        return suggestions;
+    }
+
+    @Override
+    public void postSaved(Post post) {
+        if (post.getId() == null) {
+            return;
+        }
+        if (!PostLifecycle.isLive(post, Instant.now())) {
+            // Filled and expired posts stop contributing completions
+            postDeleted(post.getId());
+            return;
+        }
+        writeLock.lock();
+        try {
+            index(post);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void postDeleted(String id) {
+        writeLock.lock();
+        try {
+            PostTerms previous = termsByPost.remove(id);
+            if (previous != null) {
+                apply(previous, -1);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void index(Post post) {
+        List<String> postTechs = post.getRequiredTechs() == null ? List.of()
+                : post.getRequiredTechs().stream().filter(Objects::nonNull).distinct().toList();
+        PostTerms terms = new PostTerms(post.getJobTitle(), postTechs);
+        PostTerms previous = termsByPost.put(post.getId(), terms);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(terms, 1);
+    }
+
+    private void apply(PostTerms terms, int delta) {
+        if (terms.title() != null) {
+            titles.add(terms.title(), delta);
+        }
+        for (String tech : terms.techs()) {
+            techs.add(tech, delta);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import com.mongodb.MongoException;
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.result.InsertManyResult;
@@ -24,16 +23,15 @@ public class CreateEmbeddings {
     @Autowired
     private PostRepository repo;
 
-    public void createEmbeddings() {
-        String uri = System.getenv("ATLAS_CONNECTION_STRING");
-        if (uri == null || uri.isEmpty()) {
-            throw new RuntimeException("ATLAS_CONNECTION_STRING env variable is not set or is empty.");
-        }
+    // The application's shared client, so the import uses the configured pool and is measured
+    @Autowired
+    private MongoClient mongoClient;
 
+    public void createEmbeddings() {
         // Fetch existing posts from repository
         List<Post> existingPosts = repo.findAll();
         
-        try (MongoClient mongoClient = MongoClients.create(uri)) {
+        try {
             MongoDatabase database = mongoClient.getDatabase("sample_db");
             MongoCollection<Document> collection = database.getCollection("JobPost");
 
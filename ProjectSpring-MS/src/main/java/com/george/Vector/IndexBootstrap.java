@@ -0,0 +1,335 @@
+package com.george.Vector;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.george.RateLimit.MongoRateLimitStore;
+import com.george.Security.MongoRevocationStore;
+import com.george.controller.SearchRepositoryController;
+import com.george.model.PostLifecycle;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Declares the indexes the queries rely on and reconciles them with the
+ * database before the application serves requests.
+ * <p>
+ * Missing indexes are created (regular ones synchronously, Atlas Search ones
+ * are built by Atlas in the background). Existing indexes with the same name
+ * are compared with their declaration, and every difference is reported as
+ * a {@code path: expected X but was Y} line. Depending on
+ * {@code jobmatch.indexes.on-mismatch} a mismatch, or a declared index that is
+ * still missing, is logged as a warning or stops the startup, so nothing runs
+ * on a collection scan unnoticed.
+ * </p>
+ * <p>
+ * The archive collections get the same search indexes as the live ones, so
+ * {@code includeArchived} requests can search them, and a TTL index that
+ * removes archived posts after {@code jobmatch.archive.retention}. Token
+ * revocations and shared rate limit buckets get TTL indexes dropping each
+ * entry once it no longer matters.
+ * </p>
+ */
+@Component
+public class IndexBootstrap {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexBootstrap.class);
+
+    static final String POSTS_DATABASE = "sample_db";
+    static final String COLLECTION = "JobPost";
+
+    /** Field types a dynamic mapping indexes on its own, among those declared here */
+    private static final Set<String> DYNAMIC_TYPES = Set.of("string", "objectId");
+
+    /**
+     * A regular B-tree index.
+     *
+     * @param database the database of the collection it belongs to
+     * @param collection the live or the archive collection
+     * @param name the index name
+     * @param keys the key specification
+     * @param expireAfterSeconds the TTL of a TTL index, null for other indexes
+     */
+    public record RegularIndex(String database, String collection, String name, Document keys,
+            Long expireAfterSeconds) {}
+
+    /**
+     * An Atlas Search index, full-text or kNN vector.
+     *
+     * @param database the database of the collection it belongs to
+     * @param collection the live or the archive collection
+     * @param name the index name the queries refer to
+     * @param definition the index definition, compared field by field
+     */
+    public record SearchIndex(String database, String collection, String name, Document definition) {}
+
+    @Value("${jobmatch.indexes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobmatch.indexes.create-missing:true}")
+    private boolean createMissing;
+
+    /** "warn" or "fail" */
+    @Value("${jobmatch.indexes.on-mismatch:warn}")
+    private String onMismatch;
+
+    @Value("${jobmatch.indexes.vector.dimensions:1024}")
+    private int vectorDimensions;
+
+    @Value("${jobmatch.indexes.vector.similarity:cosine}")
+    private String vectorSimilarity;
+
+    @Value("${jobmatch.archive.retention:365d}")
+    private Duration archiveRetention;
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @PostConstruct
+    void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        List<String> problems = new ArrayList<>();
+        try {
+            for (RegularIndex index : regularIndexes(archiveRetention)) {
+                reconcile(index, problems);
+            }
+            for (SearchIndex index : searchIndexes(vectorDimensions, vectorSimilarity)) {
+                reconcile(index, problems);
+            }
+        } catch (Exception e) {
+            problems.add("Could not verify indexes: " + e.getMessage());
+        }
+        if (problems.isEmpty()) {
+            logger.info("All declared indexes are present and match their definitions");
+            return;
+        }
+        String report = String.join(System.lineSeparator() + "  ", problems);
+        if ("fail".equalsIgnoreCase(onMismatch)) {
+            throw new IllegalStateException("Index verification failed:" + System.lineSeparator() + "  " + report);
+        }
+        logger.warn("Index verification found problems:{}  {}", System.lineSeparator(), report);
+    }
+
+    /**
+     * @param archiveRetention how long archived posts are kept, zero or negative to keep them
+     * @return the regular indexes on the posts collections, the token revocations
+     *         and the rate limit buckets
+     */
+    public static List<RegularIndex> regularIndexes(Duration archiveRetention) {
+        List<RegularIndex> indexes = new ArrayList<>(List.of(
+                // Keyset paging and lookups by ID use the built-in _id index
+                new RegularIndex(POSTS_DATABASE, COLLECTION, "experience_1", new Document("experience", 1), null),
+                new RegularIndex(POSTS_DATABASE, COLLECTION, "requiredTechs_1", new Document("requiredTechs", 1), null)));
+        // Revocations expire with their token; nodes sync by revocation time
+        indexes.add(new RegularIndex(POSTS_DATABASE, MongoRevocationStore.COLLECTION, "expiresAt_1",
+                new Document(MongoRevocationStore.EXPIRES_AT, 1), 0L));
+        indexes.add(new RegularIndex(POSTS_DATABASE, MongoRevocationStore.COLLECTION, "revokedAt_1",
+                new Document(MongoRevocationStore.REVOKED_AT, 1), null));
+        // Shared rate limit buckets are dropped once they have refilled
+        indexes.add(new RegularIndex(POSTS_DATABASE, MongoRateLimitStore.COLLECTION, "expiresAt_1",
+                new Document(MongoRateLimitStore.EXPIRES_AT, 1), 0L));
+        for (String database : List.of(POSTS_DATABASE, SearchRepositoryController.DATABASE)) {
+            // The two branches of the archiver's query
+            indexes.add(new RegularIndex(database, COLLECTION, "status_1", new Document("status", 1), null));
+            indexes.add(new RegularIndex(database, COLLECTION, "expiresAt_1", new Document("expiresAt", 1), null));
+            if (archiveRetention.isPositive()) {
+                indexes.add(new RegularIndex(database, PostLifecycle.ARCHIVE_COLLECTION, "archivedAt_1",
+                        new Document(PostLifecycle.ARCHIVED_AT, 1), archiveRetention.toSeconds()));
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * @param dimensions the length of the profile embeddings
+     * @param similarity the vector similarity function
+     * @return the text search index used by the search endpoints and the
+     *         vector index used by job matching, on the live collections
+     *         first and then on the archives
+     */
+    public static List<SearchIndex> searchIndexes(int dimensions, String similarity) {
+        Document textFields = new Document();
+        for (String path : List.of("requiredTechs", "jobDescription", "jobTitle")) {
+            textFields.append(path, new Document("type", "string"));
+        }
+        // Live searches sort by score and then _id, and Atlas Search only sorts on mapped fields
+        textFields.append("_id", new Document("type", "objectId"));
+        Document text = new Document("mappings", new Document("dynamic", false).append("fields", textFields));
+        Document vector = new Document("mappings", new Document("dynamic", false).append("fields",
+                new Document("embedding", new Document("type", "knnVector")
+                        .append("dimensions", dimensions)
+                        .append("similarity", similarity))
+                        // Filtered matching pre-filters the kNN search by ID
+                        .append("_id", new Document("type", "objectId"))));
+        List<SearchIndex> indexes = new ArrayList<>();
+        for (String collection : List.of(COLLECTION, PostLifecycle.ARCHIVE_COLLECTION)) {
+            indexes.add(new SearchIndex(SearchRepositoryController.DATABASE, collection, "default", text));
+            indexes.add(new SearchIndex(POSTS_DATABASE, collection, "vector_index", vector));
+        }
+        return indexes;
+    }
+
+    /**
+     * Lists the differences between a declared search index and the definition
+     * Atlas reports. Only declared settings are compared, so options added in
+     * the console are tolerated. A dynamic mapping satisfies declared string
+     * and objectId fields, because it indexes every value of those types.
+     *
+     * @param expected the declared definition
+     * @param actual the existing definition
+     * @return one line per difference, empty if the index satisfies the declaration
+     */
+    public static List<String> diff(Document expected, Document actual) {
+        List<String> differences = new ArrayList<>();
+        diff("", expected, actual, false, differences);
+        return differences;
+    }
+
+    private static void diff(String path, Document expected, Document actual, boolean dynamic,
+            List<String> differences) {
+        boolean dynamicHere = dynamic || Boolean.TRUE.equals(actual.get("dynamic"));
+        for (Map.Entry<String, Object> entry : expected.entrySet()) {
+            String key = path.isEmpty() ? entry.getKey() : path + "." + entry.getKey();
+            Object want = entry.getValue();
+            Object have = actual.get(entry.getKey());
+            if (entry.getKey().equals("dynamic") && Boolean.FALSE.equals(want)) {
+                continue; // a dynamic mapping indexes a superset
+            }
+            if (want instanceof Document wanted) {
+                if (have instanceof Document existing) {
+                    diff(key, wanted, existing, dynamicHere, differences);
+                } else if (have instanceof List<?> alternatives) {
+                    // A field indexed as several types satisfies the declaration if one of them does
+                    boolean satisfied = alternatives.stream().anyMatch(alternative -> alternative instanceof Document doc
+                            && diff(wanted, doc).isEmpty());
+                    if (!satisfied) {
+                        differences.add(key + ": expected " + wanted.toJson() + " but was " + have);
+                    }
+                } else if (have == null && dynamicHere) {
+                    Object type = wanted.get("type");
+                    if (type == null || !DYNAMIC_TYPES.contains(type)) {
+                        diff(key, wanted, new Document(), true, differences);
+                    }
+                } else {
+                    differences.add(key + ": expected " + wanted.toJson() + " but was " + describe(have));
+                }
+            } else if (!sameValue(want, have)) {
+                differences.add(key + ": expected " + want + " but was " + describe(have));
+            }
+        }
+    }
+
+    private void reconcile(RegularIndex index, List<String> problems) {
+        String where = where(index.database(), index.collection(), index.name());
+        MongoCollection<Document> collection = collection(index.database(), index.collection());
+        for (Document existing : collection.listIndexes()) {
+            Document keys = existing.get("key", Document.class);
+            if (sameKeys(index.keys(), keys)) {
+                // same keys, possibly under another name
+                Number ttl = existing.get("expireAfterSeconds", Number.class);
+                if (index.expireAfterSeconds() != null && !sameValue(index.expireAfterSeconds(), ttl)) {
+                    problems.add(where + ": expected expireAfterSeconds " + index.expireAfterSeconds()
+                            + " but was " + describe(ttl));
+                }
+                return;
+            }
+            if (index.name().equals(existing.getString("name"))) {
+                problems.add(where + ": expected keys " + index.keys().toJson() + " but was " + describe(keys));
+                return;
+            }
+        }
+        if (!createMissing) {
+            problems.add(where + ": missing");
+            return;
+        }
+        IndexOptions options = new IndexOptions().name(index.name());
+        if (index.expireAfterSeconds() != null) {
+            options.expireAfter(index.expireAfterSeconds(), TimeUnit.SECONDS);
+        }
+        collection.createIndex(index.keys(), options);
+        logger.info("Created index {}", where);
+    }
+
+    private void reconcile(SearchIndex index, List<String> problems) {
+        String where = where(index.database(), index.collection(), index.name());
+        MongoDatabase database = mongoClient.getDatabase(index.database());
+        if (!database.listCollectionNames().into(new ArrayList<>()).contains(index.collection())) {
+            // The archive collection only appears with the first archived post
+            if (!createMissing) {
+                problems.add(where + ": missing");
+                return;
+            }
+            database.createCollection(index.collection());
+        }
+        MongoCollection<Document> collection = database.getCollection(index.collection());
+        for (Document existing : collection.listSearchIndexes().name(index.name())) {
+            Document definition = existing.get("latestDefinition", Document.class);
+            for (String difference : diff(index.definition(), definition == null ? new Document() : definition)) {
+                problems.add(where + " " + difference);
+            }
+            return;
+        }
+        if (!createMissing) {
+            problems.add(where + ": missing");
+            return;
+        }
+        collection.createSearchIndex(index.name(), index.definition());
+        logger.info("Requested Atlas Search index {}; Atlas builds it in the background", where);
+    }
+
+    private MongoCollection<Document> collection(String database, String collection) {
+        return mongoClient.getDatabase(database).getCollection(collection);
+    }
+
+    private static String where(String database, String collection, String name) {
+        return database + "." + collection + " index " + name;
+    }
+
+    /** Key order matters for compound indexes; 1 and 1.0 are the same direction */
+    private static boolean sameKeys(Document want, Document have) {
+        if (have == null || want.size() != have.size()) {
+            return false;
+        }
+        List<String> wantNames = new ArrayList<>(want.keySet());
+        List<String> haveNames = new ArrayList<>(have.keySet());
+        for (int i = 0; i < wantNames.size(); i++) {
+            if (!wantNames.get(i).equals(haveNames.get(i))
+                    || !sameValue(want.get(wantNames.get(i)), have.get(haveNames.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameValue(Object want, Object have) {
+        if (want instanceof Number w && have instanceof Number h) {
+            return w.doubleValue() == h.doubleValue();
+        }
+        return Objects.equals(want, have);
+    }
+
+    private static String describe(Object value) {
+        if (value == null) {
+            return "absent";
+        }
+        return value instanceof Document document ? document.toJson() : value.toString();
+    }
+}
@@ -1,16 +1,67 @@
 package com.george.Vector;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
 import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Builds the one set of MongoDB client settings the application uses.
+ * <p>
+ * Every client (this blocking one, the reactive one and the embedding import)
+ * is created from {@link #mongoClientSettings()}, so pool size, timeouts and
+ * read preference are configured in one place and every command is measured.
+ * The {@code jobmatch.mongo.*} properties take precedence over the same
+ * options in the connection string.
+ * </p>
+ */
 @Configuration
 public class MongoConfig extends AbstractMongoClientConfiguration {
 
+    @Value("${jobmatch.mongo.pool.max-size:100}")
+    private int maxPoolSize;
+
+    @Value("${jobmatch.mongo.pool.min-size:0}")
+    private int minPoolSize;
+
+    @Value("${jobmatch.mongo.pool.max-wait-time:2m}")
+    private Duration maxWaitTime;
+
+    @Value("${jobmatch.mongo.pool.max-idle-time:0s}")
+    private Duration maxConnectionIdleTime;
+
+    @Value("${jobmatch.mongo.connect-timeout:10s}")
+    private Duration connectTimeout;
+
+    @Value("${jobmatch.mongo.read-timeout:0s}")
+    private Duration readTimeout;
+
+    @Value("${jobmatch.mongo.server-selection-timeout:30s}")
+    private Duration serverSelectionTimeout;
+
+    @Value("${jobmatch.mongo.read-preference:primary}")
+    private String readPreference;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
     @Override
     protected String getDatabaseName() {
         return "sample_db";
@@ -19,11 +70,66 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
     @Override
     @Bean
     public MongoClient mongoClient() {
-        return MongoClients.create(System.getenv("ATLAS_CONNECTION_STRING"));
+        return MongoClients.create(mongoClientSettings());
+    }
+
+    /**
+     * Shared by the blocking and the reactive client.
+     */
+    @Override
+    @Bean
+    public MongoClientSettings mongoClientSettings() {
+        return super.mongoClientSettings();
+    }
+
+    @Override
+    protected void configureClientSettings(MongoClientSettings.Builder builder) {
+        String uri = System.getenv("ATLAS_CONNECTION_STRING");
+        if (uri == null || uri.isEmpty()) {
+            throw new RuntimeException("ATLAS_CONNECTION_STRING env variable is not set or is empty.");
+        }
+        builder.applyConnectionString(new ConnectionString(uri))
+                .readPreference(ReadPreference.valueOf(readPreference))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(maxPoolSize)
+                        .minSize(minPoolSize)
+                        .maxWaitTime(maxWaitTime.toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(maxConnectionIdleTime.toMillis(), TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout((int) connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) readTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(serverSelectionTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            // mongodb.driver.commands{command,collection,status}, mongodb.driver.pool.*
+            // and jobmatch.mongo.pool.wait
+            builder.addCommandListener(new MongoMetricsCommandListener(registry))
+                    .applyToConnectionPoolSettings(pool -> pool
+                            .addConnectionPoolListener(new MongoMetricsConnectionPoolListener(registry))
+                            .addConnectionPoolListener(new MongoPoolWaitListener(registry)));
+        }
+    }
+
+    /**
+     * Publishes latency histograms for the driver's command timers, so
+     * percentiles can be aggregated per command and collection.
+     */
+    @Bean
+    public static MeterFilter mongoCommandHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().equals("mongodb.driver.commands")) {
+                    return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+                }
+                return config;
+            }
+        };
     }
 
     @Override
     public MongoCustomConversions customConversions() {
         return new MongoCustomConversions(Arrays.asList(new DoubleToBsonConverter()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.george.Vector;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records how long operations wait to check a connection out of the pool as
+ * {@code jobmatch.mongo.pool.wait}, tagged like Micrometer's pool metrics plus
+ * the outcome. Rising wait times mean the pool, not the server, is the
+ * bottleneck.
+ * <p>
+ * Every checkout is recorded, so timers are built once per server and outcome
+ * and looked up from then on, like {@code MethodMetricsAspect} does per method.
+ * </p>
+ */
+public class MongoPoolWaitListener implements ConnectionPoolListener {
+
+    private final MeterRegistry registry;
+
+    private record TimerKey(ServerId serverId, String outcome) {}
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public MongoPoolWaitListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        record(event.getConnectionId().getServerId(), "success", event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        record(event.getServerId(), event.getReason().name().toLowerCase(Locale.ROOT),
+                event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void record(ServerId serverId, String outcome, long nanos) {
+        TimerKey key = new TimerKey(serverId, outcome);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, this::register);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder("jobmatch.mongo.pool.wait")
+                .description("Time spent waiting to check a connection out of the MongoDB pool")
+                .tag("cluster.id", key.serverId().getClusterId().getValue())
+                .tag("server.address", key.serverId().getAddress().toString())
+                .tag("outcome", key.outcome())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
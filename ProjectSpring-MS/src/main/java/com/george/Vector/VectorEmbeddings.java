@@ -9,28 +9,52 @@ import org.bson.BsonDouble;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import static java.time.Duration.ofSeconds;
 
 @Service
 public class VectorEmbeddings {
 
-    private static HuggingFaceEmbeddingModel embeddingModel;
+    private static volatile HuggingFaceEmbeddingModel embeddingModel;
+
+    // Guards the lazy initialization. A lock rather than synchronized, so a
+    // virtual thread waiting for another caller's initialization unmounts
+    // instead of pinning its carrier thread.
+    private static final ReentrantLock embeddingModelLock = new ReentrantLock();
+
+    // Builds the model on first use; replaced in tests
+    private static Supplier<HuggingFaceEmbeddingModel> embeddingModelFactory = VectorEmbeddings::createEmbeddingModel;
 
     // Returns an instance of HuggingFaceEmbeddingModel with appropriate configurations
     private static HuggingFaceEmbeddingModel getEmbeddingModel() {
-        if (embeddingModel == null) {
-            String accessToken = System.getenv("HUGGING_FACE_ACCESS_TOKEN");
-            if (accessToken == null || accessToken.isEmpty()) {
-                throw new RuntimeException("HUGGING_FACE_ACCESS_TOKEN env variable is not set or is empty.");
+        HuggingFaceEmbeddingModel model = embeddingModel;
+        if (model != null) {
+            return model;
+        }
+        embeddingModelLock.lock();
+        try {
+            if (embeddingModel != null) {
+                return embeddingModel;
             }
-            embeddingModel = HuggingFaceEmbeddingModel.builder()
-                    .accessToken(accessToken)
-                    .modelId("mixedbread-ai/mxbai-embed-large-v1")
-                    .waitForModel(true)
-                    .timeout(ofSeconds(60))
-                    .build();
+            embeddingModel = embeddingModelFactory.get();
+            return embeddingModel;
+        } finally {
+            embeddingModelLock.unlock();
+        }
+    }
+
+    private static HuggingFaceEmbeddingModel createEmbeddingModel() {
+        String accessToken = System.getenv("HUGGING_FACE_ACCESS_TOKEN");
+        if (accessToken == null || accessToken.isEmpty()) {
+            throw new RuntimeException("HUGGING_FACE_ACCESS_TOKEN env variable is not set or is empty.");
         }
-        return embeddingModel;
+        return HuggingFaceEmbeddingModel.builder()
+                .accessToken(accessToken)
+                .modelId("mixedbread-ai/mxbai-embed-large-v1")
+                .waitForModel(true)
+                .timeout(ofSeconds(60))
+                .build();
     }
 
     /**
@@ -0,0 +1,40 @@
+package com.george.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.george.Service.JWTService;
+
+import java.time.Duration;
+
+/**
+ * Publishes the public keys tokens are signed with, so other services can verify
+ * them without sharing a secret. The body never changes while the application
+ * runs, so it works unchanged on the servlet and the reactive stack.
+ */
+@RestController
+public class JwksController {
+
+    /** The standard location of the document */
+    public static final String JWKS_PATH = "/.well-known/jwks.json";
+
+    @Autowired
+    private JWTService jwtService;
+
+    /**
+     * Returns the JWK Set of the public verification keys. HMAC keys are
+     * never listed, so the set is empty when only shared secrets are configured.
+     *
+     * @return the JWK Set document
+     */
+    @GetMapping(value = JWKS_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwtService.publicJwkSetJson());
+    }
+}
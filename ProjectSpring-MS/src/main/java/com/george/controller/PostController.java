@@ -1,27 +1,53 @@
 package com.george.controller;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import com.george.Exception.PostVersionConflictException;
+import com.george.Search.SearchPageToken;
+import com.george.Service.FacetService;
 import com.george.Service.JobMatchingService;
+import com.george.Service.PostImportService;
 import com.george.Service.PostService;
+import com.george.Service.TypeaheadService;
+import com.george.model.ImportReport;
 import com.george.model.JobMatch;
+import com.george.model.JobMatchFilter;
 import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.PostPage;
+import com.george.model.PostPatch;
+import com.george.model.SearchFacets;
+import com.george.model.SearchPageRequest;
+import com.george.model.Suggestion;
 
 /**
  * Controller for managing blog posts.
  * Provides endpoints for CRUD operations on posts.
  */
 @RestController
+@Profile("!reactive")
 public class PostController {
     
     @Autowired
@@ -30,6 +56,21 @@ public class PostController {
     @Autowired
     private JobMatchingService jobMatchingService;
 
+    @Autowired
+    private TypeaheadService typeaheadService;
+
+    @Autowired
+    private FacetService facetService;
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostJsonWriters postJsonWriters;
+
     /**
      * Redirects the root URL to the Swagger UI.
      *
@@ -43,17 +84,63 @@ public class PostController {
     }
     
     /**
-     * Retrieves all posts.
+     * Retrieves posts using keyset pagination.
+     * <p>
+     * By default returns one page as {"items": [...], "nextCursor": ...}. With
+     * {@code Accept: application/x-ndjson} or {@code stream=true} every post after
+     * the cursor is written as newline-delimited JSON directly from the database
+     * cursor, using constant memory. With {@code Accept: application/cbor} or
+     * {@code application/x-jackson-smile} the page is encoded in that binary
+     * format instead of JSON.
+     * </p>
      *
-     * @return ResponseEntity containing a list of posts
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit the page size (capped at 500), ignored when streaming
+     * @param stream whether to stream all remaining posts as NDJSON
+     * @param fields comma-separated post fields to return, or null for all fields
+     * @param accept the Accept header of the request, selecting NDJSON, JSON, CBOR or Smile
+     * @param ifNoneMatch the ETag of the page the client already has, if any
+     * @return ResponseEntity containing a page of posts, NOT_MODIFIED, or an NDJSON stream
      */
-    @Operation(summary = "Get all posts", description = "Returns a list of all posts")
+    @Operation(summary = "Get all posts", description = "Returns a page of posts ordered by ID, or streams them as NDJSON")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved posts")
     @GetMapping("/posts")
-    public ResponseEntity<List<Post>> getAllPosts() {
+    public ResponseEntity<?> getAllPosts(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PostFields fieldset;
         try {
-            List<Post> posts = postService.getAllPosts();
-            return ResponseEntity.ok(posts);
+            fieldset = PostFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        if (stream || (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE))) {
+            StreamingResponseBody body = out -> {
+                ObjectWriter writer = postJsonWriters.writerFor(fieldset).forType(Post.class)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                try (SequenceWriter sequence = writer.withRootValueSeparator("\n").writeValues(out)) {
+                    postService.streamPosts(cursor, fieldset, post -> {
+                        try {
+                            sequence.write(post);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+        PostFormat format = PostFormat.negotiate(accept);
+        try {
+            PostPage page = postService.getPostsPage(cursor, limit, fieldset);
+            String etag = format.etag(PostETags.forPage(page, fieldset));
+            if (PostETags.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            return writeResponse(page, fieldset, format, etag);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -61,17 +148,99 @@ public class PostController {
 
     /**
      * Searches for posts that contain the given text.
+     * Results are paged with a search-after token and written to the response
+     * as they are read from the database, so a broad query never materializes
+     * the full result set.
      *
      * @param text the search text
-     * @return ResponseEntity containing a list of matching posts
+     * @param limit the page size (capped at 100)
+     * @param pageToken the nextPageToken of the previous page, if any
+     * @param includeDescription whether to return the job description
+     * @param includeArchived whether closed and archived posts are searched too
+     * @param fields comma-separated post fields to return, or null for all fields
+     * @param accept the Accept header of the request, selecting JSON, CBOR or Smile
+     * @return ResponseEntity streaming {"items": [...], "nextPageToken": ...}
      */
-    @Operation(summary = "Search posts by text", description = "Returns posts matching the search text")
+    @Operation(summary = "Search posts by text", description = "Returns one page of posts matching the search text, ordered by relevance")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved matching posts")
     @GetMapping("/posts/search/{text}")
-    public ResponseEntity<List<Post>> getPostByText(@PathVariable String text) {
+    public ResponseEntity<StreamingResponseBody> getPostByText(@PathVariable String text,
+            @RequestParam(defaultValue = "" + SearchPageRequest.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "true") boolean includeDescription,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        PostFormat format = PostFormat.negotiate(accept);
+        SearchPageRequest request;
+        try {
+            request = new SearchPageRequest(text, limit, pageToken, includeDescription, PostFields.parse(fields),
+                    includeArchived);
+            if (pageToken != null) {
+                SearchPageToken.decode(pageToken); // reject bad tokens before the response is committed
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        StreamingResponseBody body = out -> {
+            ObjectWriter writer = postJsonWriters.writerFor(request.getFields(), format)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = writer.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("items");
+                String nextPageToken = postService.streamByText(request, post -> {
+                    try {
+                        writer.writeValue(generator, post);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeStringField("nextPageToken", nextPageToken);
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(format.mediaType()).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+
+    /**
+     * Counts technologies and experience buckets across all posts matching the text.
+     * Counts are computed from in-memory bitmaps; only IDs are read from the database.
+     *
+     * @param text the search text
+     * @param size the maximum number of technologies to report (capped at 100)
+     * @return ResponseEntity containing the facet counts
+     */
+    @Operation(summary = "Search facets", description = "Returns counts per technology and experience bucket for posts matching the search text")
+    @ApiResponse(responseCode = "200", description = "Successfully computed facets")
+    @GetMapping("/posts/search/{text}/facets")
+    public ResponseEntity<SearchFacets> getSearchFacets(@PathVariable String text,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            List<Post> posts = postService.findByText(text);
-            return ResponseEntity.ok(posts);
+            return ResponseEntity.ok(facetService.facetsForText(text, size));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Suggests job titles and technologies starting with the typed prefix.
+     * Served from an in-memory prefix index, so it is safe to call on every keystroke.
+     *
+     * @param prefix the text typed so far
+     * @param field which values to complete: "jobTitle", "requiredTechs" or "all"
+     * @param limit the maximum number of suggestions (capped at 50)
+     * @return ResponseEntity containing suggestions ordered by popularity
+     */
+    @Operation(summary = "Autocomplete titles and technologies", description = "Returns the most popular job titles and technologies starting with the prefix")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions")
+    @GetMapping("/posts/autocomplete")
+    public ResponseEntity<List<Suggestion>> autocomplete(@RequestParam String prefix,
+            @RequestParam(defaultValue = "all") String field,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(typeaheadService.complete(prefix, field, limit));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -81,16 +250,53 @@ public class PostController {
      * Retrieves a post by its ID.
      *
      * @param id the ID of the post
-     * @return ResponseEntity containing the requested post or a NOT_FOUND status
+     * @param fields comma-separated post fields to return, or null for all fields
+     * @param includeArchived whether to look the post up in the archive if it is not live
+     * @param accept the Accept header of the request, selecting JSON, CBOR or Smile
+     * @param ifNoneMatch the ETag of the post the client already has, if any
+     * @return ResponseEntity containing the requested post, NOT_MODIFIED, or a NOT_FOUND status
      */
     @Operation(summary = "Get post by ID", description = "Returns a post by its ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved the post")
     @GetMapping("/posts/{id}")
-    public ResponseEntity<Post> getPostById(@PathVariable String id) {
+    public ResponseEntity<?> getPostById(@PathVariable String id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PostFormat format = PostFormat.negotiate(accept);
+        PostFields fieldset;
+        try {
+            fieldset = PostFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
         try {
-            Optional<Post> post = postService.findById(id);
-            return post.map(ResponseEntity::ok)
-                      .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+            if (ifNoneMatch != null) {
+                // A cached post carries the current version, so a revalidation needs no query
+                Optional<Post> cached = postService.findCachedById(id);
+                if (cached.isPresent()) {
+                    String etag = format.etag(PostETags.forPost(cached.get(), fieldset));
+                    if (PostETags.matches(ifNoneMatch, etag)) {
+                        return notModified(etag);
+                    }
+                }
+            }
+            Optional<Post> post = postService.findById(id, fieldset);
+            if (post.isEmpty() && includeArchived) {
+                post = postService.findArchivedById(id, fieldset);
+            }
+            if (post.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            String etag = format.etag(PostETags.forPost(post.get(), fieldset));
+            if (PostETags.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            if (fieldset.isAll() && format.isJson()) {
+                return jsonBytes(postJsonWriters.postBytes(post.get()), etag);
+            }
+            return writeResponse(post.get(), fieldset, format, etag);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -132,6 +338,26 @@ public class PostController {
         }
     }
 
+    /**
+     * Imports posts from a JSON array or newline-delimited JSON body.
+     * The body is parsed as a stream and written in unordered bulk batches,
+     * so the payload is never held in memory as a whole.
+     *
+     * @param request the HTTP request whose body holds the posts
+     * @return ResponseEntity containing counts and per-record errors
+     */
+    @Operation(summary = "Import posts", description = "Streams a JSON array or NDJSON body of posts into the database in batches")
+    @ApiResponse(responseCode = "200", description = "Import finished; see the report for per-record errors")
+    @PostMapping(value = "/posts/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportReport> importPosts(HttpServletRequest request) {
+        try {
+            ImportReport report = postImportService.importPosts(request.getInputStream());
+            return ResponseEntity.status(report.isAborted() ? HttpStatus.BAD_REQUEST : HttpStatus.OK).body(report);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Updates an existing post.
      *
@@ -150,6 +376,38 @@ public class PostController {
         }
     }
 
+    /**
+     * Changes individual fields of a post in one atomic database round trip.
+     * With {@code If-Match} the change only applies to the version the client
+     * last saw; a concurrent edit in between yields PRECONDITION_FAILED.
+     *
+     * @param id the ID of the post to change
+     * @param patch the fields to change; omitted fields are kept
+     * @param ifMatch the ETag the change is conditional on, if any
+     * @return ResponseEntity containing the updated post and its new ETag
+     */
+    @Operation(summary = "Partially update a post", description = "Sets the given fields of a post, optionally conditional on its ETag")
+    @ApiResponse(responseCode = "200", description = "Successfully updated the post")
+    @ApiResponse(responseCode = "412", description = "The post changed since the given ETag")
+    @PatchMapping("/posts/{id}")
+    public ResponseEntity<Post> patchPost(@PathVariable String id, @RequestBody PostPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (patch.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        Long expectedVersion = PostETags.expectedVersion(ifMatch, id);
+        String expectedContentTag = PostETags.expectedContentTag(ifMatch, id);
+        try {
+            return postService.patchPost(id, patch, expectedVersion, expectedContentTag)
+                    .map(post -> ResponseEntity.ok().eTag(PostETags.forPost(post, PostFields.ALL)).body(post))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (PostVersionConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Deletes a post by its ID.
      *
@@ -172,15 +430,79 @@ public class PostController {
         }
     }
     
+    /**
+     * Finds jobs matching a free-text user profile.
+     *
+     * @param userProfile the user's skills and preferences
+     * @param fields comma-separated post fields to return for each job, or null for all fields
+     * @param includeArchived whether filled, expired and archived posts may match
+     * @param minExperience only match posts requiring at least this many years, if set
+     * @param maxExperience only match posts requiring at most this many years, if set
+     * @param techs comma-separated technologies of which a matched post requires at least one, if set
+     * @param accept the Accept header of the request, selecting JSON, CBOR or Smile
+     * @param ifNoneMatch the ETag of the results the client already has, if any
+     * @return ResponseEntity containing the matching jobs with scores and reasons, or NOT_MODIFIED
+     */
     @Operation(summary = "Find matching jobs", description = "Returns jobs matching the user profile")
     @ApiResponse(responseCode = "200", description = "Successfully found matching jobs")
     @PostMapping("/jobs/match")
-    public ResponseEntity<List<JobMatch>> findMatchingJobs(@RequestBody String userProfile) {
+    public ResponseEntity<?> findMatchingJobs(@RequestBody String userProfile,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) Integer minExperience,
+            @RequestParam(required = false) Integer maxExperience,
+            @RequestParam(required = false) List<String> techs,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PostFormat format = PostFormat.negotiate(accept);
+        JobMatchFilter filter = new JobMatchFilter(minExperience, maxExperience, techs);
+        PostFields fieldset;
+        try {
+            fieldset = PostFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
         try {
-            List<JobMatch> matches = jobMatchingService.findMatchingJobs(userProfile);
-            return ResponseEntity.ok(matches);
+            List<JobMatch> matches = jobMatchingService.findMatchingJobs(userProfile, fieldset, includeArchived, filter);
+            String etag = format.etag(PostETags.forMatches(matches, fieldset));
+            if (PostETags.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            if (fieldset.isAll() && format.isJson()) {
+                return jsonBytes(postJsonWriters.matchesBytes(matches), etag);
+            }
+            return writeResponse(matches, fieldset, format, etag);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Returns the value as-is for full JSON, so the regular message converters
+     * apply, and otherwise serializes it in the negotiated format with the
+     * posts trimmed to the fieldset.
+     */
+    private ResponseEntity<?> writeResponse(Object value, PostFields fields, PostFormat format, String etag)
+            throws IOException {
+        if (fields.isAll() && format.isJson()) {
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(value);
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).contentType(format.mediaType())
+                .body(postJsonWriters.writerFor(fields, format).writeValueAsBytes(value));
+    }
+
+    /**
+     * Writes already serialized JSON as the response body unchanged.
+     */
+    private static ResponseEntity<?> jsonBytes(byte[] json, String etag) {
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    /**
+     * Answers a matching If-None-Match without a body, so nothing is serialized.
+     */
+    private static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
 }
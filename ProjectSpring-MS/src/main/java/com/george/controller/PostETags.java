@@ -0,0 +1,198 @@
+package com.george.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import com.george.Exception.PostVersionConflictException;
+import com.george.model.JobMatch;
+import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.PostPage;
+
+/**
+ * Derives strong ETags for post responses and evaluates {@code If-None-Match}
+ * and {@code If-Match}.
+ * <p>
+ * A post's ETag is its ID and version, which {@code PostService} increments on
+ * every write, so no serialization or hashing of the body is needed. Posts
+ * written before versioning fall back to a hash of their content. Collections
+ * hash the ETags of their members together with whatever else is in the
+ * response (cursors, scores). Sparse fieldsets are a different representation
+ * of the same post, so the fieldset is part of every ETag.
+ * </p>
+ */
+public final class PostETags {
+
+    /** Length of {@link #hash(String)}: 12 bytes in unpadded base64 */
+    private static final int HASH_LENGTH = 16;
+
+    private PostETags() {
+    }
+
+    /**
+     * @param post the post as it will be returned
+     * @param fields the requested fieldset
+     * @return the quoted strong ETag
+     */
+    public static String forPost(Post post, PostFields fields) {
+        return quote(postTag(post) + fieldsTag(fields));
+    }
+
+    /**
+     * @param page the page as it will be returned
+     * @param fields the requested fieldset
+     * @return the quoted strong ETag
+     */
+    public static String forPage(PostPage page, PostFields fields) {
+        StringBuilder sb = new StringBuilder();
+        for (Post post : page.getItems()) {
+            sb.append(postTag(post)).append(',');
+        }
+        sb.append("next=").append(page.getNextCursor());
+        return quote("p-" + hash(sb.toString()) + fieldsTag(fields));
+    }
+
+    /**
+     * @param matches the match results as they will be returned
+     * @param fields the requested fieldset
+     * @return the quoted strong ETag
+     */
+    public static String forMatches(List<JobMatch> matches, PostFields fields) {
+        StringBuilder sb = new StringBuilder();
+        for (JobMatch match : matches) {
+            sb.append(postTag(match.getJob())).append('@').append(match.getConfidence())
+              .append(match.getMatchReasons()).append(',');
+        }
+        return quote("m-" + hash(sb.toString()) + fieldsTag(fields));
+    }
+
+    /**
+     * Evaluates an {@code If-None-Match} header against the current ETag.
+     * Weak comparison is used, as RFC 9110 requires for this header.
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param etag the current quoted ETag
+     * @return true if the client's copy is current and 304 should be returned
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the post version an {@code If-Match} header is conditional on.
+     *
+     * @param ifMatch the header value, may be null
+     * @param id the ID of the post being changed
+     * @return the expected version, 0 for a post written before versioning (see
+     *         {@link #expectedContentTag(String, String)}), or null if the request
+     *         is unconditional
+     * @throws PostVersionConflictException if the header cannot match the post,
+     *         e.g. a weak or foreign ETag
+     */
+    public static Long expectedVersion(String ifMatch, String id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"")) {
+            throw new PostVersionConflictException("If-Match " + tag + " does not identify post " + id);
+        }
+        String version = tag.substring(prefix.length(), tag.length() - 1);
+        int fieldsSuffix = version.indexOf('-');
+        if (fieldsSuffix >= 0) {
+            version = version.substring(0, fieldsSuffix);
+        }
+        if (version.startsWith("h")) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw new PostVersionConflictException("If-Match " + tag + " does not identify post " + id);
+        }
+    }
+
+    /**
+     * Extracts the content tag from an {@code If-Match} header naming a post
+     * written before versioning. Such a header only passes if the stored post
+     * still has exactly that content, which the caller has to check.
+     *
+     * @param ifMatch the header value, already accepted by {@link #expectedVersion(String, String)}
+     * @param id the ID of the post being changed
+     * @return the content tag, as produced by {@link #contentTag(Post)}, or null
+     *         if the header is absent, {@code *} or names a version
+     * @throws PostVersionConflictException if the content tag is truncated
+     */
+    public static String expectedContentTag(String ifMatch, String id) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-h";
+        if (!tag.startsWith(prefix)) {
+            return null;
+        }
+        // The hash may itself contain '-', but has a fixed length
+        int end = prefix.length() + HASH_LENGTH;
+        if (tag.length() < end + 1 || (tag.charAt(end) != '"' && tag.charAt(end) != '-')) {
+            throw new PostVersionConflictException("If-Match " + tag + " does not identify post " + id);
+        }
+        return "h" + tag.substring(prefix.length(), end);
+    }
+
+    /**
+     * @param post a post written before versioning
+     * @return the tag identifying its content, the part of its ETag after the ID
+     */
+    public static String contentTag(Post post) {
+        return "h" + hash(Objects.toString(post.getJobTitle()) + '\u0000'
+                + Objects.toString(post.getJobDescription()) + '\u0000' + post.getExperience()
+                + '\u0000' + post.getRequiredTechs());
+    }
+
+    private static String postTag(Post post) {
+        if (post.getVersion() != null) {
+            return post.getId() + "-" + post.getVersion();
+        }
+        return post.getId() + "-" + contentTag(post);
+    }
+
+    private static String fieldsTag(PostFields fields) {
+        return fields.isAll() ? "" : "-f" + hash(new TreeSet<>(fields.names()).toString());
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,103 @@
+package com.george.controller;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Wire formats of post, page, search and match responses.
+ * <p>
+ * The binary formats are Jackson encodings of the same object model as the JSON
+ * responses, with the same property names and nesting, so their schema evolves
+ * exactly as the JSON schema does and consumers can decode them with any
+ * Jackson {@code ObjectMapper} built on the matching factory.
+ * </p>
+ */
+public enum PostFormat {
+
+    JSON(MediaType.APPLICATION_JSON, ""),
+    CBOR(MediaType.APPLICATION_CBOR, "-cbor"),
+    SMILE(new MediaType("application", "x-jackson-smile"), "-smile");
+
+    private final MediaType mediaType;
+    private final String etagSuffix;
+
+    PostFormat(MediaType mediaType, String etagSuffix) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+    }
+
+    /**
+     * Picks the format for an {@code Accept} header. Binary formats are only
+     * used when the client names them explicitly; wildcards, unknown types and
+     * malformed headers get JSON.
+     *
+     * @param accept the header value, may be null
+     * @return the preferred supported format
+     */
+    public static PostFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        // Stable, so types of equal quality keep the client's order
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.isWildcardType() || type.isWildcardSubtype() || type.getQualityValue() == 0) {
+                continue;
+            }
+            for (PostFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(type)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * @return the Content-Type of responses in this format
+     */
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return whether this is the JSON format served by the regular converters and caches
+     */
+    public boolean isJson() {
+        return this == JSON;
+    }
+
+    /**
+     * Each format is a separate representation, so it needs its own strong ETag.
+     *
+     * @param etag the quoted ETag of the JSON representation, may be null
+     * @return the quoted ETag of this representation
+     */
+    public String etag(String etag) {
+        if (etag == null || etagSuffix.isEmpty()) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + etagSuffix + "\"";
+    }
+
+    JsonFactory newFactory() {
+        return switch (this) {
+            case JSON -> new JsonFactory();
+            case CBOR -> new CBORFactory();
+            case SMILE -> new SmileFactory();
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package com.george.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.george.Cache.PostJsonCache;
+import com.george.model.JobMatch;
+import com.george.model.Post;
+import com.george.model.PostFields;
+
+/**
+ * Provides Jackson writers that serialize only the requested {@link PostFields}.
+ * <p>
+ * The filter is attached through a mix-in on a copy of the application's
+ * {@link ObjectMapper}, so responses without a fieldset keep using the regular
+ * mapper untouched. There are only a few dozen distinct fieldsets, and one
+ * writer is built and cached for each of them.
+ * </p>
+ * <p>
+ * Full posts are serialized through the {@link PostJsonCache}, so a hot post is
+ * encoded once per version rather than once per response.
+ * </p>
+ * <p>
+ * Writers for the binary {@link PostFormat}s are built the same way from a copy
+ * of the application's mapper on the format's factory, so they share its
+ * configuration and produce the same properties as the JSON writers.
+ * </p>
+ */
+@Component
+public class PostJsonWriters {
+
+    private static final String FILTER_ID = "postFields";
+
+    /** The parts of a serialized {@link JobMatch} around its values, in property order */
+    private static final byte[] MATCH_JOB_FIELD = "{\"job\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MATCH_CONFIDENCE_FIELD = ",\"confidence\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MATCH_REASONS_FIELD = ",\"matchReasons\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostJsonCache postJsonCache;
+
+    private volatile ObjectMapper filteringMapper;
+    private final Map<PostFields, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<PostFormat, Map<PostFields, ObjectWriter>> binaryWriters = new EnumMap<>(PostFormat.class);
+    private final Map<PostFormat, ObjectMapper> binaryMappers = new ConcurrentHashMap<>();
+
+    public PostJsonWriters() {
+        for (PostFormat format : PostFormat.values()) {
+            if (!format.isJson()) {
+                binaryWriters.put(format, new ConcurrentHashMap<>());
+            }
+        }
+    }
+
+    @JsonFilter(FILTER_ID)
+    private abstract static class PostFieldsMixin {}
+
+    /**
+     * Returns a writer that omits every {@link Post} property outside the fieldset,
+     * wherever the post appears in the serialized value.
+     *
+     * @param fields the requested fieldset
+     * @return a writer for any value containing posts
+     */
+    public ObjectWriter writerFor(PostFields fields) {
+        if (fields.isAll()) {
+            return objectMapper.writer();
+        }
+        return writers.computeIfAbsent(fields, f -> filteringMapper()
+                .writer(new SimpleFilterProvider().addFilter(FILTER_ID,
+                        SimpleBeanPropertyFilter.filterOutAllExcept(f.names()))));
+    }
+
+    /**
+     * Returns a writer for the fieldset in the given format.
+     *
+     * @param fields the requested fieldset
+     * @param format the negotiated response format
+     * @return a writer for any value containing posts
+     */
+    public ObjectWriter writerFor(PostFields fields, PostFormat format) {
+        if (format.isJson()) {
+            return writerFor(fields);
+        }
+        return binaryWriters.get(format).computeIfAbsent(fields, f -> {
+            ObjectMapper mapper = binaryMappers.computeIfAbsent(format, this::binaryMapper);
+            return mapper.writer(new SimpleFilterProvider().addFilter(FILTER_ID, f.isAll()
+                    ? SimpleBeanPropertyFilter.serializeAll()
+                    : SimpleBeanPropertyFilter.filterOutAllExcept(f.names())));
+        });
+    }
+
+    /**
+     * Serializes a full post, reusing the bytes cached for its version.
+     *
+     * @param post the post to serialize
+     * @return the UTF-8 JSON of the post; must not be modified
+     */
+    public byte[] postBytes(Post post) {
+        return postJsonCache.getJson(post, this::serialize);
+    }
+
+    /**
+     * Serializes match results with full posts. The post of each match is copied
+     * from the near cache and only the score and reasons around it are written.
+     *
+     * @param matches the match results
+     * @return the UTF-8 JSON array, equivalent to serializing the list directly
+     */
+    public byte[] matchesBytes(List<JobMatch> matches) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(512 * (matches.size() + 1));
+            out.write('[');
+            for (int i = 0; i < matches.size(); i++) {
+                JobMatch match = matches.get(i);
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(MATCH_JOB_FIELD);
+                out.write(match.getJob() == null ? NULL : postBytes(match.getJob()));
+                out.write(MATCH_CONFIDENCE_FIELD);
+                out.write(objectMapper.writeValueAsBytes(match.getConfidence()));
+                out.write(MATCH_REASONS_FIELD);
+                out.write(objectMapper.writeValueAsBytes(match.getMatchReasons()));
+                out.write('}');
+            }
+            out.write(']');
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] serialize(Post post) {
+        try {
+            return objectMapper.writeValueAsBytes(post);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ObjectMapper binaryMapper(PostFormat format) {
+        return objectMapper.copyWith(format.newFactory()).addMixIn(Post.class, PostFieldsMixin.class);
+    }
+
+    private ObjectMapper filteringMapper() {
+        ObjectMapper mapper = filteringMapper;
+        if (mapper == null) {
+            mapper = objectMapper.copy().addMixIn(Post.class, PostFieldsMixin.class);
+            filteringMapper = mapper;
+        }
+        return mapper;
+    }
+}
@@ -1,72 +1,259 @@
 package com.george.controller;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Repository;
 
+import com.george.Search.SearchPageToken;
 import com.george.model.Post;
+import com.george.model.PostLifecycle;
+import com.george.model.SearchPageRequest;
 import com.george.model.SearchRepository;
-import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 
 /**
- * SearchRepositoryController implements the SearchRepository interface 
+ * SearchRepositoryController implements the SearchRepository interface
  * to provide search functionality for job posts stored in a MongoDB collection.
  * <p>
- * This class utilizes MongoDB's full-text search capabilities to retrieve job posts 
+ * This class utilizes MongoDB's full-text search capabilities to retrieve job posts
  * based on search queries matching specific fields.
  * </p>
+ * <p>
+ * Results are returned one page at a time, ordered by descending search score and
+ * then by {@code _id}. Pages are addressed with a search-after token instead of an
+ * offset, and documents are handed to the caller straight from the cursor so at
+ * most one page is ever held in memory.
+ * </p>
+ * <p>
+ * For live posts Atlas Search sorts the hits and resumes behind the previous
+ * page with {@code searchAfter}, so mongot skips to the page and mongod only
+ * receives the documents it returns. When archived posts are included, the hits
+ * of both collections are merged by a {@code $sort} in mongod, which receives
+ * and sorts every hit up to the requested page; those pages get slower the
+ * deeper they are.
+ * </p>
+ * <p>
+ * Only live posts are returned unless the request includes archived posts, in
+ * which case the archive collection is searched in the same pipeline.
+ * </p>
  */
 @Component
 @Repository
 public class SearchRepositoryController implements SearchRepository {
 
+    /** Database holding the searchable copy of the posts */
+    public static final String DATABASE = "george";
+
+    /** Field carrying the position of a document in the sorted Atlas Search results */
+    private static final String SEARCH_SEQUENCE = "searchSequence";
+
+    /** Page size used by the list-returning {@link #findByText(String)} */
+    private static final int LIST_LIMIT = SearchPageRequest.MAX_LIMIT;
+
     @Autowired
     private MongoClient client;  // MongoDB client for database connection
-    
+
     @Autowired
     private MongoConverter converter;  // MongoConverter for converting MongoDB documents to Java objects
 
     /**
      * Performs a text-based search in the MongoDB collection "JobPost".
      * <p>
-     * This method uses MongoDB's aggregation pipeline with the `$search` stage 
-     * to find job posts that match the given text in specific fields.
+     * Returns the first page of results with full documents. Use
+     * {@link #streamByText(SearchPageRequest, Consumer)} to page further.
      * </p>
      *
      * @param text The search query text
      * @return A list of matching {@link Post} objects
      */
     @Override
-    public List<Post> findByText(String text) {  
+    public List<Post> findByText(String text) {
         final List<Post> posts = new ArrayList<>();
+        streamByText(new SearchPageRequest(text, LIST_LIMIT, null, true), posts::add);
+        return posts;
+    }
+
+    /**
+     * Streams one page of full-text search results to the consumer.
+     * <p>
+     * The stored embedding is never read back, the job description is only
+     * returned when requested, and a sparse fieldset restricts the projection
+     * to the requested fields. One extra document is fetched to find out whether
+     * another page exists; it is not passed to the consumer.
+     * </p>
+     *
+     * @param request the search text, page size, page token and projection options
+     * @param consumer receives each matching post in result order
+     * @return the token for the next page, or null if this was the last page
+     * @throws IllegalArgumentException if the page token is malformed
+     */
+    @Override
+    public String streamByText(SearchPageRequest request, Consumer<Post> consumer) {
+        List<Document> pipeline = searchPipeline(request);
 
         // Access the "george" database and "JobPost" collection
-        MongoDatabase database = client.getDatabase("george");
+        MongoDatabase database = client.getDatabase(DATABASE);
         MongoCollection<Document> collection = database.getCollection("JobPost");
 
-        // Perform a full-text search on specified fields: requiredTechs, jobDescription, and jobTitle
-        AggregateIterable<Document> result = collection.aggregate(Arrays.asList(
-            new Document("$search", 
-                new Document("text", 
-                    new Document("query", text)
-                        .append("path", Arrays.asList("requiredTechs", "jobDescription", "jobTitle"))
-                )
-            ),
-            new Document("$sort", new Document("exp", 1L)) // Sort results by experience level in ascending order
-        ));
+        int returned = 0;
+        Document last = null;
+        try (MongoCursor<Document> cursor = collection.aggregate(pipeline)
+                .batchSize(Math.min(request.getLimit() + 1, 101))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document doc = cursor.next();
+                if (returned == request.getLimit()) {
+                    // The look-ahead document only proves there is another page
+                    return pageTokenAfter(last);
+                }
+                consumer.accept(converter.read(Post.class, doc));
+                last = doc;
+                returned++;
+            }
+        }
+        return null;
+    }
 
-        // Convert MongoDB documents to Post objects
-        result.forEach(doc -> posts.add(converter.read(Post.class, doc)));
+    /**
+     * Builds the aggregation pipeline for one page of search results, including
+     * the look-ahead document. Shared with the reactive search path.
+     *
+     * @param request the search text, page size, page token and projection options
+     * @return the pipeline stages
+     * @throws IllegalArgumentException if the page token is malformed
+     */
+    public static List<Document> searchPipeline(SearchPageRequest request) {
+        SearchPageToken after = request.getPageToken() == null ? null : SearchPageToken.decode(request.getPageToken());
 
-        return posts;
+        List<Document> pipeline;
+        if (request.isIncludeArchived()) {
+            // Closed posts that are not moved yet stay in, archived ones are searched alongside
+            pipeline = searchStages(request, false, null);
+            pipeline.add(new Document("$unionWith", new Document("coll", PostLifecycle.ARCHIVE_COLLECTION)
+                    .append("pipeline", searchStages(request, false, null))));
+            if (after != null) {
+                pipeline.add(afterFilter(after));
+            }
+            pipeline.add(new Document("$sort", new Document("score", -1).append("_id", 1)));
+        } else {
+            // Sorted by Atlas Search, which resumes behind the previous page itself
+            pipeline = searchStages(request, true, after == null ? null : after.sequence());
+            if (after != null && after.sequence() == null) {
+                pipeline.add(afterFilter(after));
+            }
+        }
+        pipeline.add(new Document("$limit", request.getLimit() + 1));
+        return pipeline;
+    }
+
+    /**
+     * Keeps the results strictly behind the last (score, _id) of the previous page.
+     */
+    private static Document afterFilter(SearchPageToken after) {
+        return new Document("$match", new Document("$or", Arrays.asList(
+            new Document("score", new Document("$lt", after.score())),
+            new Document("score", after.score()).append("_id", new Document("$gt", toId(after.id())))
+        )));
+    }
+
+    /**
+     * Builds the search, filter and projection stages for one collection.
+     *
+     * @param liveOnly whether only live posts of this one collection are searched,
+     *        in which case Atlas Search sorts the hits and resumes after {@code searchAfter}
+     * @param searchAfter the sequence token of the previous page's last hit, or null
+     */
+    private static List<Document> searchStages(SearchPageRequest request, boolean liveOnly, String searchAfter) {
+        List<Document> stages = new ArrayList<>();
+        Document search = textSearchStage(request.getText());
+        if (liveOnly) {
+            Document operator = search.get("$search", Document.class);
+            operator.append("sort", new Document("score", new Document("$meta", "searchScore")).append("_id", 1));
+            if (searchAfter != null) {
+                operator.append("searchAfter", searchAfter);
+            }
+        }
+        stages.add(search);
+        if (liveOnly) {
+            stages.add(new Document("$match", PostLifecycle.liveFilter(Instant.now())));
+        }
+
+        // Drop unrequested and large fields before they are decoded or sent over the wire
+        if (!request.getFields().isAll()) {
+            Document inclusions = request.getFields().toProjection();
+            if (!request.isIncludeDescription()) {
+                inclusions.remove("jobDescription");
+            }
+            stages.add(new Document("$project", inclusions.isEmpty() ? new Document("_id", 1) : inclusions));
+        } else {
+            Document exclusions = new Document("embedding", 0);
+            if (!request.isIncludeDescription()) {
+                exclusions.append("jobDescription", 0);
+            }
+            stages.add(new Document("$project", exclusions));
+        }
+        Document metadata = new Document("score", new Document("$meta", "searchScore"));
+        if (liveOnly) {
+            metadata.append(SEARCH_SEQUENCE, new Document("$meta", "searchSequenceToken"));
+        }
+        stages.add(new Document("$addFields", metadata));
+        return stages;
+    }
+
+    /**
+     * @param last the last result document of a page
+     * @return the token that resumes the search behind it
+     */
+    public static String pageTokenAfter(Document last) {
+        return new SearchPageToken(last.get("score", Number.class).doubleValue(), last.get("_id").toString(),
+                last.getString(SEARCH_SEQUENCE)).encode();
+    }
+
+    /**
+     * Returns the IDs of live posts matching the text, reading nothing but {@code _id}.
+     *
+     * @param text The search query text
+     * @param maxResults the maximum number of IDs to return
+     * @return the matching post IDs in relevance order
+     */
+    @Override
+    public List<String> findIdsByText(String text, int maxResults) {
+        MongoCollection<Document> collection = client.getDatabase(DATABASE).getCollection("JobPost");
+        List<String> ids = new ArrayList<>();
+        collection.aggregate(Arrays.asList(
+            textSearchStage(text),
+            new Document("$match", PostLifecycle.liveFilter(Instant.now())),
+            new Document("$limit", maxResults),
+            new Document("$project", new Document("_id", 1))
+        )).batchSize(1000).forEach(doc -> ids.add(doc.get("_id").toString()));
+        return ids;
+    }
+
+    /**
+     * Builds the full-text search stage over requiredTechs, jobDescription and jobTitle.
+     */
+    private static Document textSearchStage(String text) {
+        return new Document("$search",
+            new Document("text",
+                new Document("query", text)
+                    .append("path", Arrays.asList("requiredTechs", "jobDescription", "jobTitle"))
+            )
+        );
+    }
+
+    private static Object toId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
     }
 }
@@ -1,29 +1,42 @@
 package com.george.controller;
 
+import java.security.Principal;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.george.Exception.UserNotFoundException;
+import com.george.Security.MyUserDetailsService;
+import com.george.Security.PasswordHasher;
+import com.george.Security.RefreshTokenRequest;
+import com.george.Security.TokenResponse;
 import com.george.Security.User;
 import com.george.Security.UserRepo;
 import com.george.Service.JWTService;
 
+import io.jsonwebtoken.Claims;
+
 /**
  * REST Controller for handling user authentication and registration.
- * Provides endpoints for fetching users, registering a new user, and logging in.
+ * Provides endpoints for fetching users, registering a new user, logging in,
+ * refreshing tokens and logging out.
  */
 @RestController
+@Profile("!reactive")
 public class UserController {
 	
 	
@@ -36,7 +49,11 @@ public class UserController {
 	@Autowired
 	JWTService jwtService;
 	
-	private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
+	@Autowired
+	MyUserDetailsService userDetailsService;
+	
+	@Autowired
+	PasswordHasher passwordHasher;
 	 /**
      * Retrieves a list of all registered users.
      * 
@@ -56,18 +73,20 @@ public class UserController {
 	@PostMapping("register")
 	public User registerUser(@RequestBody User user) {
 		
-		user.setPassword(encoder.encode(user.getPassword()));
-		return repo.save(user);
+		user.setPassword(passwordHasher.encode(user.getPassword()));
+		User saved = repo.save(user);
+		userDetailsService.evict(saved.getUsername()); // a save may replace an existing user
+		return saved;
 	}
 	
 	 /**
-     * Authenticates a user and generates a JWT token upon successful authentication.
+     * Authenticates a user and issues an access token and a refresh token.
      * 
      * @param user The login credentials from the request body
-     * @return JWT token if authentication is successful, else an error response
+     * @return the {@link TokenResponse} if authentication is successful, else an error response
      */
 	@PostMapping("/login")
-	public ResponseEntity<String> login(@RequestBody User user) {   //verify user
+	public ResponseEntity<?> login(@RequestBody User user) {   //verify user
 	   
 		try {
 	        Authentication authentication = authManager.authenticate(
@@ -75,8 +94,8 @@ public class UserController {
 	        );
 
 	        if (authentication.isAuthenticated()) {
-	        	String token = jwtService.generateToken(user.getUsername());
-	            return ResponseEntity.ok("Your token is: \n" + token);
+	        	// The token carries the user ID and authorities, so later requests need no lookup
+	            return ResponseEntity.ok(jwtService.issueTokens((UserDetails) authentication.getPrincipal()));
 	        }
 	    } catch (AuthenticationException e) {
 	        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("failure authenticating");
@@ -85,6 +104,54 @@ public class UserController {
 	    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("failure authenticating");
 	}
 	
+	 /**
+     * Exchanges a refresh token for a new token pair without checking the password.
+     * The refresh token is revoked as it is redeemed, so each one can be used
+     * once; using one again revokes every token of its session.
+     * 
+     * @param request the refresh token
+     * @return the new {@link TokenResponse}, or 401 if the refresh token is invalid, expired or revoked
+     */
+	@PostMapping("/token/refresh")
+	public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequest request) {
+		
+		Claims claims = jwtService.redeemRefreshToken(request.getRefreshToken()).orElse(null);
+		if (claims == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("invalid refresh token");
+		}
+		UserDetails userDetails;
+		try {
+			// Picks up role changes made since the last login
+			userDetails = userDetailsService.loadCachedUserByUsername(claims.getSubject());
+		} catch (UserNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("invalid refresh token");
+		}
+		return ResponseEntity.ok(jwtService.issueTokens(userDetails, claims));
+	}
+	
+	 /**
+     * Revokes the access token of the request and, if given, the caller's refresh token.
+     * 
+     * @param authorization the Authorization header
+     * @param request the refresh token to revoke, optional
+     * @param principal the authenticated user
+     * @return 204 No Content
+     */
+	@PostMapping("/logout")
+	public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+			@RequestBody(required = false) RefreshTokenRequest request, Principal principal) {
+		
+		if (authorization != null && authorization.startsWith("Bearer ")) {
+			jwtService.verify(authorization.substring(7)).ifPresent(jwtService::revoke);
+		}
+		if (request != null) {
+			jwtService.verifyRefreshToken(request.getRefreshToken())
+					.filter(claims -> claims.getSubject().equals(principal.getName()))
+					.ifPresent(jwtService::revoke);
+		}
+		return ResponseEntity.noContent().build();
+	}
+	
 	
 
 	
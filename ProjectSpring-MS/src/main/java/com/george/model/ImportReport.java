@@ -0,0 +1,103 @@
+package com.george.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: final counts plus the errors of individual records.
+ */
+public class ImportReport {
+
+    private long received; // records read from the payload
+    private long inserted;
+    private long failed;
+    private boolean aborted; // true if the payload could not be parsed to the end
+    private List<ImportError> errors = new ArrayList<>(); // capped, see errorsTruncated
+    private boolean errorsTruncated;
+
+    /**
+     * A failed record, identified by its zero-based position in the payload.
+     */
+    public static class ImportError {
+
+        private long index;
+        private String message;
+
+        public ImportError() {}
+
+        public ImportError(long index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public long getIndex() {
+            return index;
+        }
+
+        public void setIndex(long index) {
+            this.index = index;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void setAborted(boolean aborted) {
+        this.aborted = aborted;
+    }
+
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport [received=" + received + ", inserted=" + inserted + ", failed=" + failed
+                + ", aborted=" + aborted + ", errors=" + errors.size() + "]";
+    }
+}
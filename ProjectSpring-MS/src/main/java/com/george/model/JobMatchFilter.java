@@ -0,0 +1,82 @@
+package com.george.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.bson.Document;
+
+/**
+ * Optional restrictions for {@code POST /jobs/match}: a range of required
+ * experience and a set of technologies of which a post needs at least one.
+ * Technologies are compared case-insensitively.
+ */
+public class JobMatchFilter {
+
+    /** Matches every post */
+    public static final JobMatchFilter NONE = new JobMatchFilter(null, null, null);
+
+    private final Integer minExperience;
+    private final Integer maxExperience;
+    private final List<String> techs; // null or empty for any
+
+    public JobMatchFilter(Integer minExperience, Integer maxExperience, List<String> techs) {
+        this.minExperience = minExperience;
+        this.maxExperience = maxExperience;
+        this.techs = techs == null ? List.of()
+                : techs.stream().filter(tech -> tech != null && !tech.isBlank()).map(String::trim).toList();
+    }
+
+    public Integer getMinExperience() {
+        return minExperience;
+    }
+
+    public Integer getMaxExperience() {
+        return maxExperience;
+    }
+
+    public List<String> getTechs() {
+        return techs;
+    }
+
+    /**
+     * @return true if the filter restricts nothing
+     */
+    public boolean isEmpty() {
+        return minExperience == null && maxExperience == null && techs.isEmpty();
+    }
+
+    /**
+     * Builds the equivalent MongoDB query, for documents that are not in the
+     * in-memory snapshot.
+     *
+     * @return the query filter, empty if the filter restricts nothing
+     */
+    public Document toQuery() {
+        Document query = new Document();
+        Document experience = new Document();
+        if (minExperience != null) {
+            experience.append("$gte", minExperience);
+        }
+        if (maxExperience != null) {
+            experience.append("$lte", maxExperience);
+        }
+        if (!experience.isEmpty()) {
+            query.append("experience", experience);
+        }
+        if (!techs.isEmpty()) {
+            List<Pattern> patterns = new ArrayList<>(techs.size());
+            for (String tech : techs) {
+                patterns.add(Pattern.compile("^" + Pattern.quote(tech) + "$", Pattern.CASE_INSENSITIVE));
+            }
+            query.append("requiredTechs", new Document("$in", patterns));
+        }
+        return query;
+    }
+
+    @Override
+    public String toString() {
+        return "JobMatchFilter [minExperience=" + minExperience + ", maxExperience=" + maxExperience
+                + ", techs=" + techs + "]";
+    }
+}
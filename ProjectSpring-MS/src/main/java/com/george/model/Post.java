@@ -1,5 +1,6 @@
 package com.george.model;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
@@ -21,6 +22,12 @@ public class Post {
 	private String jobDescription;
 	private int experience;
 	private List<String> requiredTechs;
+	/** Incremented by PostService on every write; null for posts written before versioning */
+	private Long version;
+	/** Lifecycle state; null for posts written before lifecycle states, which count as open */
+	private PostStatus status;
+	/** When the posting stops being live even if still open; null if it does not expire */
+	private Instant expiresAt;
 	
 	
 	public Post(String id, String jobTitle, String jobDescription, int experience, List<String> requiredTechs) {
@@ -63,12 +70,32 @@ public class Post {
 	public void setRequiredTechs(List<String> requiredTechs) {
 		this.requiredTechs = requiredTechs;
 	}
+	public Long getVersion() {
+		return version;
+	}
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 
 
+	public PostStatus getStatus() {
+		return status;
+	}
+	public void setStatus(PostStatus status) {
+		this.status = status;
+	}
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+	public void setExpiresAt(Instant expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
 	@Override
 	public String toString() {
 		return "Post [id=" + id + ", jobTitle=" + jobTitle + ", jobDescription=" + jobDescription + ", experience="
-				+ experience + ", requiredTechs=" + requiredTechs + "]";
+				+ experience + ", requiredTechs=" + requiredTechs + ", version=" + version + ", status=" + status
+				+ ", expiresAt=" + expiresAt + "]";
 	}
 	
 	
@@ -0,0 +1,108 @@
+package com.george.model;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Sparse fieldset requested for {@link Post} responses, e.g.
+ * {@code fields=jobTitle,experience,requiredTechs}.
+ * <p>
+ * The same fieldset is pushed down to MongoDB as a projection, so unrequested
+ * fields are never read from the wire or decoded, and applied to
+ * serialization, so they are not written to the response either. The post ID
+ * is always returned. The post version is always read, because ETags are
+ * derived from it, but only serialized with the full representation.
+ * </p>
+ *
+ * @param names the requested field names; empty means all fields
+ */
+public record PostFields(Set<String> names) {
+
+    /** Field names that may be requested, in document order */
+    public static final List<String> ALLOWED = List.of("id", "jobTitle", "jobDescription", "experience", "requiredTechs");
+
+    /** No restriction: every field is read and returned */
+    public static final PostFields ALL = new PostFields(Set.of());
+
+    public PostFields {
+        names = Set.copyOf(names);
+    }
+
+    /**
+     * Parses a comma separated list of field names.
+     *
+     * @param fields the request parameter value, may be null or blank
+     * @return the fieldset, {@link #ALL} if nothing was requested
+     * @throws IllegalArgumentException if a field name is unknown
+     */
+    public static PostFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ALLOWED.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + ", allowed fields are " + ALLOWED);
+            }
+            names.add(name);
+        }
+        names.add("id");
+        return names.containsAll(ALLOWED) ? ALL : new PostFields(names);
+    }
+
+    /**
+     * @return true if every field is requested
+     */
+    public boolean isAll() {
+        return names.isEmpty();
+    }
+
+    /**
+     * @param name a {@link Post} property name
+     * @return true if the field is part of the response
+     */
+    public boolean includes(String name) {
+        return isAll() || names.contains(name);
+    }
+
+    /**
+     * Builds an inclusion projection for aggregation {@code $project} stages.
+     * {@code _id} is included implicitly and {@code version} always.
+     *
+     * @return the projection document, empty when all fields are requested
+     */
+    public Document toProjection() {
+        Document projection = new Document();
+        for (String name : ALLOWED) {
+            if (!isAll() && names.contains(name) && !"id".equals(name)) {
+                projection.append(name, 1);
+            }
+        }
+        if (!isAll()) {
+            projection.append("version", 1);
+        }
+        return projection;
+    }
+
+    /**
+     * Restricts the fields returned by a query to this fieldset.
+     *
+     * @param query the query to restrict
+     * @return the same query
+     */
+    public Query applyTo(Query query) {
+        if (!isAll()) {
+            names.stream().filter(name -> !"id".equals(name)).forEach(name -> query.fields().include(name));
+            query.fields().include("version");
+        }
+        return query;
+    }
+}
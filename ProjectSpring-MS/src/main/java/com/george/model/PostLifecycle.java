@@ -0,0 +1,65 @@
+package com.george.model;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+
+/**
+ * Rules deciding which posts are live.
+ * <p>
+ * A post is live while its status is open (or unset) and its expiry date, if
+ * any, has not passed. Live posts stay in {@code JobPost}; the others are moved
+ * to {@link #ARCHIVE_COLLECTION} in the same database by the archiver and are
+ * only returned when a request opts in with {@code includeArchived}. Until a
+ * closed post has been moved, the filters below keep it out of search and
+ * matching results.
+ * </p>
+ */
+public final class PostLifecycle {
+
+    /** Collection holding archived posts, next to the live collection */
+    public static final String ARCHIVE_COLLECTION = "JobPostArchive";
+
+    /** Set on archived documents; the archive's TTL index expires them relative to it */
+    public static final String ARCHIVED_AT = "archivedAt";
+
+    private static final List<String> CLOSED = List.of(PostStatus.FILLED.name(), PostStatus.EXPIRED.name());
+
+    private PostLifecycle() {
+    }
+
+    /**
+     * @param post the post to check
+     * @param now the current time
+     * @return true if the post should be returned by search and matching
+     */
+    public static boolean isLive(Post post, Instant now) {
+        PostStatus status = post.getStatus();
+        return (status == null || status == PostStatus.OPEN)
+                && (post.getExpiresAt() == null || post.getExpiresAt().isAfter(now));
+    }
+
+    /**
+     * @param now the current time
+     * @return a query filter matching live posts
+     */
+    public static Document liveFilter(Instant now) {
+        return new Document("status", new Document("$nin", CLOSED))
+                .append("$or", Arrays.asList(
+                        new Document("expiresAt", null),
+                        new Document("expiresAt", new Document("$gt", Date.from(now)))));
+    }
+
+    /**
+     * @param now the current time
+     * @return a query filter matching posts that belong in the archive
+     */
+    public static Document archivableFilter(Instant now) {
+        return new Document("$or", Arrays.asList(
+                new Document("status", new Document("$in", CLOSED)),
+                new Document("expiresAt", new Document("$lte", Date.from(now)))));
+    }
+}
@@ -0,0 +1,40 @@
+package com.george.model;
+
+import java.util.List;
+
+/**
+ * One page of posts in {@code _id} order, with the cursor for the next page.
+ */
+public class PostPage {
+
+    private List<Post> items;
+    private String nextCursor; // null on the last page
+
+    public PostPage() {}
+
+    public PostPage(List<Post> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Post> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Post> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "PostPage [items=" + items + ", nextCursor=" + nextCursor + "]";
+    }
+}
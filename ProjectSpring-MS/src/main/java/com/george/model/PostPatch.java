@@ -0,0 +1,88 @@
+package com.george.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Field-level changes for {@code PATCH /posts/{id}}. Fields left null are not changed.
+ */
+public class PostPatch {
+
+    private String jobTitle;
+    private String jobDescription;
+    private Integer experience;
+    private List<String> requiredTechs;
+    private PostStatus status;
+    private Instant expiresAt;
+
+    public PostPatch() {}
+
+    public PostPatch(String jobTitle, String jobDescription, Integer experience, List<String> requiredTechs) {
+        this.jobTitle = jobTitle;
+        this.jobDescription = jobDescription;
+        this.experience = experience;
+        this.requiredTechs = requiredTechs;
+    }
+
+    public String getJobTitle() {
+        return jobTitle;
+    }
+
+    public void setJobTitle(String jobTitle) {
+        this.jobTitle = jobTitle;
+    }
+
+    public String getJobDescription() {
+        return jobDescription;
+    }
+
+    public void setJobDescription(String jobDescription) {
+        this.jobDescription = jobDescription;
+    }
+
+    public Integer getExperience() {
+        return experience;
+    }
+
+    public void setExperience(Integer experience) {
+        this.experience = experience;
+    }
+
+    public List<String> getRequiredTechs() {
+        return requiredTechs;
+    }
+
+    public void setRequiredTechs(List<String> requiredTechs) {
+        this.requiredTechs = requiredTechs;
+    }
+
+    public PostStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PostStatus status) {
+        this.status = status;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return true if the patch changes nothing
+     */
+    public boolean isEmpty() {
+        return jobTitle == null && jobDescription == null && experience == null && requiredTechs == null
+                && status == null && expiresAt == null;
+    }
+
+    @Override
+    public String toString() {
+        return "PostPatch [jobTitle=" + jobTitle + ", jobDescription=" + jobDescription + ", experience="
+                + experience + ", requiredTechs=" + requiredTechs + ", status=" + status + ", expiresAt=" + expiresAt + "]";
+    }
+}
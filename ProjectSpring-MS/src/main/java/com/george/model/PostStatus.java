@@ -0,0 +1,17 @@
+package com.george.model;
+
+/**
+ * Lifecycle state of a job posting. Posts written before lifecycle states were
+ * introduced have no status and count as {@link #OPEN}.
+ */
+public enum PostStatus {
+
+    /** Accepting applications; returned by search and matching */
+    OPEN,
+
+    /** The position has been filled; moved to the archive by the next archiver run */
+    FILLED,
+
+    /** Withdrawn or past its expiry date; moved to the archive by the next archiver run */
+    EXPIRED
+}
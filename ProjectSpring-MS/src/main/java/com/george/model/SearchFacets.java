@@ -0,0 +1,62 @@
+package com.george.model;
+
+import java.util.Map;
+
+/**
+ * Facet counts for the posts matching a search.
+ */
+public class SearchFacets {
+
+    private int total; // number of matching posts that were counted
+    private boolean truncated; // true if the result set exceeded the counting limit
+    private Map<String, Integer> requiredTechs;
+    private Map<String, Integer> experience;
+
+    public SearchFacets() {}
+
+    public SearchFacets(int total, boolean truncated, Map<String, Integer> requiredTechs,
+            Map<String, Integer> experience) {
+        this.total = total;
+        this.truncated = truncated;
+        this.requiredTechs = requiredTechs;
+        this.experience = experience;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public Map<String, Integer> getRequiredTechs() {
+        return requiredTechs;
+    }
+
+    public void setRequiredTechs(Map<String, Integer> requiredTechs) {
+        this.requiredTechs = requiredTechs;
+    }
+
+    public Map<String, Integer> getExperience() {
+        return experience;
+    }
+
+    public void setExperience(Map<String, Integer> experience) {
+        this.experience = experience;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchFacets [total=" + total + ", truncated=" + truncated + ", requiredTechs=" + requiredTechs
+                + ", experience=" + experience + "]";
+    }
+}
@@ -0,0 +1,69 @@
+package com.george.model;
+
+/**
+ * Parameters for one page of a full-text search over job posts.
+ */
+public class SearchPageRequest {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final String text;
+    private final int limit;
+    private final String pageToken; // null for the first page
+    private final boolean includeDescription;
+    private final PostFields fields;
+    private final boolean includeArchived;
+
+    public SearchPageRequest(String text, int limit, String pageToken, boolean includeDescription) {
+        this(text, limit, pageToken, includeDescription, PostFields.ALL);
+    }
+
+    public SearchPageRequest(String text, int limit, String pageToken, boolean includeDescription, PostFields fields) {
+        this(text, limit, pageToken, includeDescription, fields, false);
+    }
+
+    public SearchPageRequest(String text, int limit, String pageToken, boolean includeDescription, PostFields fields,
+            boolean includeArchived) {
+        this.text = text;
+        this.limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        this.pageToken = pageToken;
+        this.includeDescription = includeDescription;
+        this.fields = fields;
+        this.includeArchived = includeArchived;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getPageToken() {
+        return pageToken;
+    }
+
+    public boolean isIncludeDescription() {
+        return includeDescription;
+    }
+
+    public PostFields getFields() {
+        return fields;
+    }
+
+    /**
+     * @return whether closed and archived posts are searched too
+     */
+    public boolean isIncludeArchived() {
+        return includeArchived;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchPageRequest [text=" + text + ", limit=" + limit + ", pageToken=" + pageToken
+                + ", includeDescription=" + includeDescription + ", fields=" + fields
+                + ", includeArchived=" + includeArchived + "]";
+    }
+}
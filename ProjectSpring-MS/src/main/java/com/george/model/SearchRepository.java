@@ -1,6 +1,7 @@
 package com.george.model;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Repository;
 
@@ -8,6 +9,17 @@ import org.springframework.stereotype.Repository;
 public interface SearchRepository {
 	
 	List<Post> findByText(String text);
-	
+
+	/**
+	 * Streams one page of search results to the consumer as they are read from the cursor.
+	 *
+	 * @return the token for the next page, or null when there are no more results
+	 */
+	String streamByText(SearchPageRequest request, Consumer<Post> consumer);
+
+	/**
+	 * Returns only the IDs of posts matching the text, for facet counting.
+	 */
+	List<String> findIdsByText(String text, int maxResults);
 
 }
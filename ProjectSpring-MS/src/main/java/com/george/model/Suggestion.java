@@ -0,0 +1,45 @@
+package com.george.model;
+
+public class Suggestion {
+
+    private String text;
+    private String field; // "jobTitle" or "requiredTechs"
+    private int weight; // number of live posts carrying this value
+
+    public Suggestion() {}
+
+    public Suggestion(String text, String field, int weight) {
+        this.text = text;
+        this.field = field;
+        this.weight = weight;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public String toString() {
+        return "Suggestion [text=" + text + ", field=" + field + ", weight=" + weight + "]";
+    }
+}
@@ -0,0 +1,106 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Cache.LocalPostChangeFeed;
+import com.george.Search.FacetIndex;
+import com.george.Search.FacetIndex.Counts;
+import com.george.Service.FacetService;
+import com.george.model.Post;
+import com.george.model.PostRepository;
+import com.george.model.SearchFacets;
+import com.george.model.SearchRepository;
+
+class FacetIndexTest {
+
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex();
+        index.put("1", List.of("Java", "Spring"), 3);
+        index.put("2", List.of("java", "Kafka"), 6);
+        index.put("3", List.of("Python"), 1);
+        index.put("4", List.of("Java"), 10);
+    }
+
+    @Test
+    void count_ShouldIntersectResultSetWithFacetBitmaps() {
+        Counts counts = index.count(List.of("1", "2", "3"), 10);
+
+        assertEquals(3, counts.matched());
+        assertEquals(Map.of("Java", 2, "Spring", 1, "Kafka", 1, "Python", 1), counts.techs());
+        assertEquals(List.of("Java", "Kafka", "Python", "Spring"), List.copyOf(counts.techs().keySet()));
+        assertEquals(Map.of("0-1", 1, "2-4", 1, "5-7", 1, "8+", 0), counts.experience());
+    }
+
+    @Test
+    void count_ShouldIgnoreUnknownIdsAndHonourTechLimit() {
+        Counts counts = index.count(List.of("4", "99"), 1);
+
+        assertEquals(1, counts.matched());
+        assertEquals(Map.of("Java", 1), counts.techs());
+        assertEquals(1, counts.experience().get("8+"));
+    }
+
+    @Test
+    void put_ShouldReplacePreviousFacetsOfAPost() {
+        index.put("3", List.of("Go"), 8);
+
+        Counts counts = index.count(List.of("3"), 10);
+        assertEquals(Map.of("Go", 1), counts.techs());
+        assertEquals(1, counts.experience().get("8+"));
+        assertEquals(0, counts.experience().get("0-1"));
+    }
+
+    @Test
+    void remove_ShouldDropPostAndReuseItsOrdinal() {
+        index.remove("2");
+        index.put("5", List.of("Rust"), 2);
+
+        Counts counts = index.count(List.of("1", "2", "5"), 10);
+        assertEquals(2, counts.matched());
+        assertEquals(Map.of("Java", 1, "Spring", 1, "Rust", 1), counts.techs());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void rebuild_ShouldKeepWritesThatLandDuringTheLoad() {
+        PostRepository repo = mock(PostRepository.class);
+        SearchRepository srepo = mock(SearchRepository.class);
+        LocalPostChangeFeed changeFeed = new LocalPostChangeFeed();
+        FacetService service = new FacetService();
+        ReflectionTestUtils.setField(service, "repo", repo);
+        ReflectionTestUtils.setField(service, "srepo", srepo);
+        ReflectionTestUtils.setField(service, "changeFeed", changeFeed);
+        ReflectionTestUtils.setField(service, "maxResults", 100);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        when(srepo.findIdsByText(anyString(), anyInt())).thenReturn(List.of("1", "2", "3"));
+        when(repo.findAll()).thenAnswer(invocation -> {
+            List<Post> read = List.of(new Post("1", "Java Developer", "", 3, List.of("Java")),
+                    new Post("2", "Kafka Engineer", "", 6, List.of("Kafka")));
+            // Written on other nodes after the load read these posts
+            changeFeed.publishSaved(new Post("1", "Go Developer", "", 3, List.of("Go")));
+            changeFeed.publishDeleted("2");
+            return read;
+        });
+
+        service.rebuild();
+        SearchFacets facets = service.facetsForText("developer", 10);
+        assertEquals(Map.of("Go", 1), facets.getRequiredTechs());
+
+        changeFeed.publishSaved(new Post("3", "Python Developer", "", 1, List.of("Python")));
+        assertEquals(Map.of("Go", 1, "Python", 1), service.facetsForText("developer", 10).getRequiredTechs());
+    }
+}
@@ -0,0 +1,71 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import com.george.Vector.IndexBootstrap;
+
+class IndexBootstrapTest {
+
+    private final List<IndexBootstrap.SearchIndex> declared = IndexBootstrap.searchIndexes(1024, "cosine");
+
+    @Test
+    void diff_ShouldReportVectorDimensionAndSimilarityMismatches() {
+        Document actual = Document.parse("{mappings: {dynamic: false, fields: {embedding: "
+                + "{type: 'knnVector', dimensions: 768, similarity: 'euclidean'}, _id: {type: 'objectId'}}}}");
+
+        List<String> differences = IndexBootstrap.diff(vectorIndex().definition(), actual);
+
+        assertEquals(List.of(
+                "mappings.fields.embedding.dimensions: expected 1024 but was 768",
+                "mappings.fields.embedding.similarity: expected cosine but was euclidean"), differences);
+    }
+
+    @Test
+    void diff_ShouldAcceptEquivalentDefinitions() {
+        Document vector = Document.parse("{mappings: {dynamic: false, fields: {embedding: "
+                + "{type: 'knnVector', dimensions: 1024.0, similarity: 'cosine'}, _id: {type: 'objectId'}, "
+                + "jobTitle: {type: 'string'}}}}");
+        Document dynamicText = Document.parse("{mappings: {dynamic: true}}");
+        Document multiTypedText = Document.parse("{mappings: {fields: {requiredTechs: {type: 'string'}, "
+                + "jobDescription: {type: 'string'}, jobTitle: [{type: 'autocomplete'}, {type: 'string'}], "
+                + "_id: {type: 'objectId'}}}}");
+
+        assertTrue(IndexBootstrap.diff(vectorIndex().definition(), vector).isEmpty());
+        assertTrue(IndexBootstrap.diff(textIndex().definition(), dynamicText).isEmpty());
+        assertTrue(IndexBootstrap.diff(textIndex().definition(), multiTypedText).isEmpty());
+    }
+
+    @Test
+    void diff_ShouldReportMissingTextFields() {
+        Document actual = Document.parse("{mappings: {fields: {jobTitle: {type: 'string'}, "
+                + "jobDescription: {type: 'string'}, _id: {type: 'objectId'}}}}");
+
+        assertEquals(List.of("mappings.fields.requiredTechs: expected {\"type\": \"string\"} but was absent"),
+                IndexBootstrap.diff(textIndex().definition(), actual));
+    }
+
+    @Test
+    void searchIndexes_ShouldMapIdForTheTextSearchSort() {
+        Document fields = textIndex().definition().get("mappings", Document.class).get("fields", Document.class);
+        assertEquals(new Document("type", "objectId"), fields.get("_id"));
+
+        Document withoutId = Document.parse("{mappings: {dynamic: false, fields: {jobTitle: {type: 'string'}, "
+                + "jobDescription: {type: 'string'}, requiredTechs: {type: 'string'}}}}");
+        assertEquals(List.of("mappings.fields._id: expected {\"type\": \"objectId\"} but was absent"),
+                IndexBootstrap.diff(textIndex().definition(), withoutId));
+    }
+
+    private IndexBootstrap.SearchIndex vectorIndex() {
+        return declared.stream().filter(index -> index.name().equals("vector_index")).findFirst().orElseThrow();
+    }
+
+    private IndexBootstrap.SearchIndex textIndex() {
+        return declared.stream().filter(index -> index.name().equals("default")).findFirst().orElseThrow();
+    }
+}
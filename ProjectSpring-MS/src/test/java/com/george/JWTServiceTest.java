@@ -0,0 +1,84 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Security.JwtKeySet;
+import com.george.Service.JWTService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JWTServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JWTService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newService();
+    }
+
+    @Test
+    void verify_ShouldParseOnceAndReuseTheVerifiedClaims() {
+        String token = jwtService.generateToken("alice");
+
+        Claims first = jwtService.verify(token).orElseThrow();
+        Claims second = jwtService.verify(token).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("alice", first.getSubject());
+        assertTrue(jwtService.validateClaims(first, User.withUsername("alice").password("x").build()));
+        assertFalse(jwtService.validateClaims(first, User.withUsername("bob").password("x").build()));
+        assertEquals(1, registry.get("jobmatch.auth.verify").tag("outcome", "verified").timer().count());
+        assertEquals(1, registry.get("jobmatch.auth.verify").tag("outcome", "cached").timer().count());
+    }
+
+    @Test
+    void verify_ShouldRejectTamperedAndForeignTokens() {
+        String token = jwtService.generateToken("alice");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String foreign = newService().generateToken("alice");
+
+        assertTrue(jwtService.verify(tampered).isEmpty());
+        assertTrue(jwtService.verify(foreign).isEmpty());
+        assertTrue(jwtService.verify("not a token").isEmpty());
+        assertEquals(3, registry.get("jobmatch.auth.verify").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void verify_ShouldRejectSignedTokensWithoutAnExpiry() {
+        JwtKeySet keys = (JwtKeySet) ReflectionTestUtils.getField(jwtService, "keys");
+        String unbounded = Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject("alice")
+                .header().keyId(keys.signingKeyId()).and()
+                .signWith(keys.signingKey())
+                .compact();
+
+        assertTrue(jwtService.verify(unbounded).isEmpty());
+        assertEquals(1, registry.get("jobmatch.auth.verify").tag("outcome", "rejected").timer().count());
+    }
+
+    private JWTService newService() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", registry);
+        JWTService service = new JWTService();
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "meterRegistry", beans.getBeanProvider(MeterRegistry.class));
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+}
@@ -0,0 +1,81 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Security.JwtKeySet;
+import com.george.Service.JWTService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+
+class JwtKeySetTest {
+
+    private static final String HMAC_KEY = Jwks.UNSAFE_JSON(Jwks.builder().key(Jwts.SIG.HS256.key().build()).id("shared").build());
+    private static final String EC_KEY = Jwks.UNSAFE_JSON(Jwks.builder().keyPair(Jwts.SIG.ES256.keyPair().build()).id("ec-2024").build());
+    private static final String OTHER_EC_KEY = Jwks.UNSAFE_JSON(Jwks.builder().keyPair(Jwts.SIG.ES256.keyPair().build()).id("ec-2024").build());
+    private static final String ED_KEY = Jwks.UNSAFE_JSON(Jwks.builder().keyPair(Jwks.CRV.Ed25519.keyPair().build()).id("ed-2025").build());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void verify_ShouldAcceptTokensFromAnyInstanceSharingTheKeys() throws Exception {
+        Path keys = write("{\"keys\":[" + HMAC_KEY + "]}");
+        String token = newService(keys, null).generateToken("alice");
+
+        assertEquals("alice", newService(keys, null).verify(token).orElseThrow().getSubject());
+        assertEquals("shared", Jwts.parser().keyLocator(JwtKeySet.parse(Files.readString(keys), null).locator()).build()
+                .parseSignedClaims(token).getHeader().getKeyId());
+    }
+
+    @Test
+    void verify_ShouldAcceptOldKeysWhileSigningWithTheNewOne() throws Exception {
+        String oldToken = newService(write("{\"keys\":[" + EC_KEY + "]}"), null).generateToken("alice");
+        JWTService rotated = newService(write("{\"keys\":[" + EC_KEY + "," + ED_KEY + "]}"), "ed-2025");
+        JWTService retired = newService(write("{\"keys\":[" + ED_KEY + "]}"), null);
+
+        assertTrue(rotated.verify(oldToken).isPresent());
+        assertTrue(retired.verify(oldToken).isEmpty());
+        assertTrue(retired.verify(rotated.generateToken("bob")).isPresent());
+    }
+
+    @Test
+    void publicJwkSetJson_ShouldListOnlyPublicKeyMaterial() {
+        JwtKeySet keys = JwtKeySet.parse("{\"keys\":[" + HMAC_KEY + "," + EC_KEY + "," + ED_KEY + "]}", "shared");
+        String jwks = keys.publicJwkSetJson();
+
+        assertEquals("shared", keys.signingKeyId());
+        assertTrue(jwks.contains("\"kid\":\"ec-2024\"") && jwks.contains("\"kid\":\"ed-2025\""));
+        assertFalse(jwks.contains("\"d\"") || jwks.contains("\"k\"") || jwks.contains("shared"));
+        assertEquals("{\"keys\":[]}", JwtKeySet.generated().publicJwkSetJson());
+    }
+
+    @Test
+    void parse_ShouldRejectUnknownSigningKeysAndDuplicateIds() {
+        assertThrows(IllegalArgumentException.class, () -> JwtKeySet.parse("{\"keys\":[" + EC_KEY + "]}", "missing"));
+        assertThrows(IllegalArgumentException.class, () -> JwtKeySet.parse("{\"keys\":[" + EC_KEY + "," + OTHER_EC_KEY + "]}", null));
+    }
+
+    private Path write(String json) throws Exception {
+        return Files.writeString(Files.createTempFile(dir, "jwks", ".json"), json);
+    }
+
+    private static JWTService newService(Path keys, String signingKeyId) {
+        JWTService service = new JWTService();
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "keysFile", keys.toString());
+        ReflectionTestUtils.setField(service, "signingKeyId", signingKeyId);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+}
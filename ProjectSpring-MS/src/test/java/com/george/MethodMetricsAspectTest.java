@@ -0,0 +1,79 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Logging.MethodMetricsAspect;
+import com.george.Service.PostService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MethodMetricsAspectTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MethodMetricsAspect aspect = newAspect();
+
+    @Test
+    void time_ShouldRecordEachOutcomeOnOneTimerPerMethod() throws Throwable {
+        List<String> posts = List.of("a", "b");
+        ProceedingJoinPoint call = joinPoint("getAllPosts");
+        when(call.proceed()).thenReturn(posts);
+        ProceedingJoinPoint failing = joinPoint("getAllPosts");
+        when(failing.proceed()).thenThrow(new IllegalStateException("down"));
+
+        assertSame(posts, aspect.time(call));
+        assertSame(posts, aspect.time(call));
+        assertThrows(IllegalStateException.class, () -> aspect.time(failing));
+
+        assertEquals(2, timer("success").count());
+        assertEquals(1, timer("error").count());
+        assertEquals(2, registry.find("jobmatch.method").timers().size());
+    }
+
+    @Test
+    void time_ShouldOnlyProceedWhenMetricsAndSamplingAreOff() throws Throwable {
+        ReflectionTestUtils.setField(aspect, "enabled", false);
+        ProceedingJoinPoint call = joinPoint("getAllPosts");
+        when(call.proceed()).thenReturn(List.of());
+
+        aspect.time(call);
+
+        assertEquals(0, registry.find("jobmatch.method").timers().size());
+    }
+
+    private Timer timer(String outcome) {
+        return registry.get("jobmatch.method").tag("class", "PostService").tag("method", "getAllPosts")
+                .tag("outcome", outcome).timer();
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName) throws NoSuchMethodException {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(PostService.class.getMethod(methodName));
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+        return joinPoint;
+    }
+
+    private MethodMetricsAspect newAspect() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", registry);
+        MethodMetricsAspect metrics = new MethodMetricsAspect();
+        ReflectionTestUtils.setField(metrics, "meterRegistry", beans.getBeanProvider(MeterRegistry.class));
+        ReflectionTestUtils.invokeMethod(metrics, "init");
+        return metrics;
+    }
+}
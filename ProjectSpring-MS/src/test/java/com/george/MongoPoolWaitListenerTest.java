@@ -0,0 +1,59 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Vector.MongoPoolWaitListener;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MongoPoolWaitListenerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MongoPoolWaitListener listener = new MongoPoolWaitListener(registry);
+    private final ServerId serverId = new ServerId(new ClusterId("c1"), new ServerAddress("db1", 27017));
+
+    @Test
+    void checkOuts_ShouldRecordWaitTimePerOutcome() {
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId), 1,
+                TimeUnit.MILLISECONDS.toNanos(3)));
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId), 2,
+                TimeUnit.MILLISECONDS.toNanos(5)));
+        listener.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId, 3,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos(2)));
+
+        Timer success = registry.get("jobmatch.mongo.pool.wait")
+                .tags("outcome", "success", "server.address", "db1:27017", "cluster.id", serverId.getClusterId().getValue()).timer();
+        assertEquals(2, success.count());
+        assertEquals(8, success.totalTime(TimeUnit.MILLISECONDS), 1e-9);
+        assertEquals(1, registry.get("jobmatch.mongo.pool.wait").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    void checkOuts_ShouldBuildEachTimerOnce() {
+        for (int i = 0; i < 3; i++) {
+            listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId), i, 1));
+        }
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(
+                new ConnectionId(new ServerId(new ClusterId("c1"), new ServerAddress("db2", 27017))), 4, 1));
+
+        Map<?, ?> timers = (Map<?, ?>) ReflectionTestUtils.getField(listener, "timers");
+        assertEquals(2, timers.size());
+        Timer db1 = registry.get("jobmatch.mongo.pool.wait").tag("server.address", "db1:27017").timer();
+        assertEquals(3, db1.count());
+        assertTrue(timers.containsValue(db1));
+    }
+}
@@ -0,0 +1,130 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Exception.PasswordHashingBusyException;
+import com.george.Security.PasswordHasher;
+import com.george.Security.PasswordHashingBusyFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordHasher hasher = newHasher(5, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(hasher, "shutdown");
+    }
+
+    @Test
+    void matches_ShouldVerifyOnThePoolAndRecordTheHashTime() {
+        String hash = hasher.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(hasher.matches("secret", hash));
+        assertFalse(hasher.matches("wrong", hash));
+        assertEquals(1, registry.get("jobmatch.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("jobmatch.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void upgradeEncoding_ShouldFlagHashesOfAnotherStrength() {
+        assertFalse(hasher.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret")));
+        assertTrue(hasher.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(hasher.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertTrue(hasher.upgradeEncoding("plain"));
+    }
+
+    @Test
+    void encode_ShouldRejectWhenThePoolAndQueueAreFull() throws Exception {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(hasher, "executor");
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = executor.submit(() -> awaitQuietly(release)); // occupies the only thread
+        Future<?> queued = executor.submit(() -> awaitQuietly(release)); // fills the queue
+
+        try {
+            assertThrows(PasswordHashingBusyException.class, () -> hasher.encode("secret"));
+            assertEquals(1.0, registry.get("jobmatch.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+        }
+        running.get();
+        queued.get(); // the queue has room again only once the queued task was taken
+        assertTrue(hasher.matches("secret", hasher.encode("secret")));
+    }
+
+    @Test
+    void basicAuthentication_ShouldAnswerTooManyRequestsWhenThePoolAndQueueAreFull() throws Exception {
+        String hash = new BCryptPasswordEncoder(5).encode("secret");
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(hasher);
+        provider.setUserDetailsService(username -> User.withUsername(username).password(hash).build());
+        BasicAuthenticationFilter basic = new BasicAuthenticationFilter(new ProviderManager(provider));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Basic "
+                + Base64.getEncoder().encodeToString("george:secret".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+        }, new PasswordHashingBusyFilter(), basic);
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(hasher, "executor");
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            release.countDown();
+        }
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"status\":429"));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PasswordHasher newHasher(int strength, int threads, int queueCapacity) {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", registry);
+        PasswordHasher service = new PasswordHasher();
+        ReflectionTestUtils.setField(service, "strength", strength);
+        ReflectionTestUtils.setField(service, "threads", threads);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(service, "meterRegistry", beans.getBeanProvider(MeterRegistry.class));
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+}
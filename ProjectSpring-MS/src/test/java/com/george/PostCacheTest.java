@@ -0,0 +1,86 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Cache.LocalPostChangeFeed;
+import com.george.Cache.PostCache;
+import com.george.model.Post;
+import com.george.model.SearchPageRequest;
+
+class PostCacheTest {
+
+    private static final Post JAVA_POST = new Post("1", "Java Developer", "Builds services", 3, List.of("Java"));
+    private static final Post PYTHON_POST = new Post("2", "Data Engineer", "Builds pipelines", 4, List.of("Python"));
+
+    private PostCache cache;
+    private LocalPostChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new LocalPostChangeFeed();
+        cache = new PostCache();
+        ReflectionTestUtils.setField(cache, "postsMaxSize", 100L);
+        ReflectionTestUtils.setField(cache, "postsTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "searchMaxSize", 100L);
+        ReflectionTestUtils.setField(cache, "searchTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "changeFeed", feed);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+    }
+
+    @Test
+    void getPost_ShouldLoadOnceUntilInvalidatedByRemoteWrite() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getPost("1", id -> { loads.incrementAndGet(); return JAVA_POST; });
+        cache.getPost("1", id -> { loads.incrementAndGet(); return JAVA_POST; });
+        assertEquals(1, loads.get());
+
+        feed.publishSaved(JAVA_POST); // simulated write on another node
+        cache.getPost("1", id -> { loads.incrementAndGet(); return JAVA_POST; });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void postSaved_ShouldOnlyEvictSearchPagesTheWriteCanAffect() {
+        SearchPageRequest java = new SearchPageRequest("java", 10, null, true);
+        SearchPageRequest python = new SearchPageRequest("python", 10, null, true);
+        cache.putSearchPage(java, List.of(JAVA_POST), null, cache.generation());
+        cache.putSearchPage(python, List.of(PYTHON_POST), null, cache.generation());
+
+        cache.postSaved(new Post("3", "Senior Java Engineer", "Leads a team", 8, List.of("Java", "Kafka")));
+
+        assertNull(cache.getSearchPage(java));
+        assertNotNull(cache.getSearchPage(python));
+    }
+
+    @Test
+    void postDeleted_ShouldEvictPagesContainingThePost() {
+        SearchPageRequest python = new SearchPageRequest("python", 10, null, true);
+        cache.putSearchPage(python, List.of(PYTHON_POST), null, cache.generation());
+
+        feed.publishDeleted("2");
+
+        assertNull(cache.getSearchPage(python));
+    }
+
+    @Test
+    void putSearchPage_ShouldSkipPagesLoadedBeforeAWrite() {
+        SearchPageRequest python = new SearchPageRequest("python", 10, null, true);
+        long generation = cache.generation();
+
+        cache.postDeleted("42");
+        cache.putSearchPage(python, List.of(PYTHON_POST), null, generation);
+
+        assertNull(cache.getSearchPage(python));
+    }
+}
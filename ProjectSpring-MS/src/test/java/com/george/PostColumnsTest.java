@@ -0,0 +1,118 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.BsonArray;
+import org.bson.BsonDouble;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Cache.LocalPostChangeFeed;
+import com.george.Search.PostColumns;
+import com.george.Service.JobMatchingService;
+import com.george.Service.PostColumnsService;
+import com.george.model.JobMatchFilter;
+import com.george.model.Post;
+import com.george.model.PostFields;
+
+class PostColumnsTest {
+
+    private PostColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new PostColumns();
+        columns.put("1", "Backend Engineer", List.of("Java", "Spring"), 3);
+        columns.put("2", "Backend Engineer", List.of("java", "Kafka"), 6);
+        columns.put("3", "Data Engineer", List.of("Python"), 1);
+        columns.put("4", "Platform Engineer", List.of("Go"), 10);
+    }
+
+    @Test
+    void select_ShouldScanExperienceAndAnyOfTechs() {
+        assertEquals(List.of("1", "2"), columns.select(null, null, List.of("JAVA")));
+        assertEquals(List.of("1", "3"), columns.select(null, 4, null));
+        assertEquals(List.of("2"), columns.select(5, 8, List.of("kafka", "Go")));
+        assertEquals(List.of(), columns.select(null, null, List.of("Rust")));
+        assertSame(columns.title("1"), columns.title("2"));
+    }
+
+    @Test
+    void put_ShouldReplaceAndReuseRowsAcrossCompactions() {
+        for (int i = 0; i < 2000; i++) {
+            columns.put("2", "Backend Engineer", List.of(i % 2 == 0 ? "Kafka" : "Scala", "Java"), 6);
+        }
+        columns.remove("3");
+        columns.put("5", null, List.of("Python"), 2);
+
+        assertEquals(List.of("2"), columns.select(null, null, List.of("Scala")));
+        assertEquals(List.of("5"), columns.select(null, null, List.of("Python")));
+        assertEquals(List.of("1", "2"), columns.select(null, null, List.of("Java")));
+        assertNull(columns.title("5"));
+        assertEquals(4, columns.size());
+    }
+
+    @Test
+    void vectorSearchPipeline_ShouldPreFilterByCandidatesOrFilterAfterwards() {
+        BsonArray embedding = new BsonArray(List.of(new BsonDouble(0.1)));
+        JobMatchFilter filter = new JobMatchFilter(2, null, List.of("Java"));
+        String id = new ObjectId().toHexString();
+
+        Document knn = JobMatchingService.vectorSearchPipeline(embedding, PostFields.ALL, false, filter, List.of(id))
+                .get(0).get("$search", Document.class).get("knnBeta", Document.class);
+        assertEquals(10, knn.getInteger("k"));
+        assertEquals(List.of(new ObjectId(id)), knn.get("filter", Document.class).get("in", Document.class).get("value"));
+
+        List<Document> postFiltered = JobMatchingService.vectorSearchPipeline(embedding, PostFields.ALL, false, filter, null);
+        Document match = postFiltered.get(1).get("$match", Document.class);
+        assertTrue(match.containsKey("experience") && match.containsKey("requiredTechs") && match.containsKey("status"));
+        assertEquals(new Document("$limit", 10), postFiltered.get(postFiltered.size() - 1));
+    }
+
+    @Test
+    void select_ShouldAnswerNullUntilASnapshotIsLoadedAndKeepItWhenAReloadFails() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        LocalPostChangeFeed changeFeed = new LocalPostChangeFeed();
+        PostColumnsService service = new PostColumnsService();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "changeFeed", changeFeed);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        JobMatchFilter java = new JobMatchFilter(null, null, List.of("Java"));
+
+        when(mongoTemplate.stream(any(Query.class), eq(Post.class))).thenThrow(new IllegalStateException("down"));
+        service.postSaved(new Post("1", "Backend Engineer", "", 3, List.of("Java")));
+        service.rebuild();
+        assertNull(service.select(java)); // not "no matches"
+
+        doReturn(Stream.of(new Post("1", "Backend Engineer", "", 3, List.of("Java"))))
+                .when(mongoTemplate).stream(any(Query.class), eq(Post.class));
+        service.rebuild();
+        assertEquals(List.of("1"), service.select(java));
+
+        // Written on another node
+        changeFeed.publishSaved(new Post("2", "Data Engineer", "", 2, List.of("Java", "Python")));
+        changeFeed.publishDeleted("1");
+        assertEquals(List.of("2"), service.select(java));
+
+        doThrow(new IllegalStateException("down")).when(mongoTemplate).stream(any(Query.class), eq(Post.class));
+        service.rebuild();
+        assertEquals(List.of("2"), service.select(java));
+    }
+}
@@ -6,13 +6,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.george.Service.PostService;
 import com.george.controller.PostController;
 import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.PostPage;
 import com.george.model.PostRepository;
 
 import java.util.List;
@@ -22,6 +26,8 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,6 +41,9 @@ class PostControllerTest {
     @Mock
     private PostRepository postRepo;
 
+    @Mock
+    private PostService postService;
+
     @InjectMocks
     private PostController postController;
 
@@ -54,17 +63,17 @@ class PostControllerTest {
     }
 
     @Test
-    void getAllPosts_ShouldReturnListOfPosts() throws Exception {
+    void getAllPosts_ShouldReturnPageOfPosts() throws Exception {
         // Given
         List<Post> posts = List.of(POST_1, POST_2, POST_3);
-        when(postRepo.findAll()).thenReturn(posts);
+        when(postService.getPostsPage(null, PostService.DEFAULT_PAGE_SIZE, PostFields.ALL)).thenReturn(new PostPage(posts, null));
 
         // When/Then
         mockMvc.perform(get("/posts")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(3)))
-                .andExpect(jsonPath("$[2].jobTitle", is("DevOps Engineer")));
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.items[2].jobTitle", is("DevOps Engineer")));
     }
 
     @Test
@@ -80,6 +89,22 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.jobTitle", is("Software Engineer")));
     }
 
+    @Test
+    void getPostById_ShouldAnswerMatchingETagFromCacheWithoutQuerying() throws Exception {
+        // Given
+        Post cached = new Post("1", "Software Engineer", "Develops applications", 3, List.of("Java"));
+        cached.setVersion(3L);
+        when(postService.findCachedById("1")).thenReturn(Optional.of(cached));
+
+        // When/Then
+        mockMvc.perform(get("/posts/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(content().string(""));
+        verify(postService, never()).findById(any(), any());
+    }
+
     @Test
     void deletePostById_ShouldReturnOk() throws Exception {
         // Given
@@ -96,7 +121,7 @@ class PostControllerTest {
         // Given
         Post newPost = new Post("4", "Product Manager", "Oversees product development", 6, 
                 List.of("Leadership", "Agile", "Strategy"));
-        when(postRepo.save(any(Post.class))).thenReturn(newPost);
+        when(postRepo.insert(any(Post.class))).thenReturn(newPost);
 
         // When/Then
         mockMvc.perform(post("/post")
@@ -0,0 +1,75 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import com.george.Exception.PostVersionConflictException;
+import com.george.Service.PostService;
+import com.george.controller.PostETags;
+import com.george.model.Post;
+import com.george.model.PostFields;
+
+class PostETagsTest {
+
+    @Test
+    void forPost_ShouldRoundTripThroughIfMatch() {
+        Post post = new Post("abc", "Java Developer", "Builds services", 3, List.of("Java"));
+        post.setVersion(7L);
+
+        String etag = PostETags.forPost(post, PostFields.ALL);
+        String sparse = PostETags.forPost(post, PostFields.parse("jobTitle"));
+
+        assertEquals("\"abc-7\"", etag);
+        assertEquals(7L, PostETags.expectedVersion(etag, "abc"));
+        assertEquals(7L, PostETags.expectedVersion(sparse, "abc"));
+    }
+
+    @Test
+    void expectedVersion_ShouldTreatLegacyPostsAsVersionZero() {
+        Post legacy = new Post("abc", "Java Developer", "Builds services", 3, List.of("Java"));
+
+        assertEquals(0L, PostETags.expectedVersion(PostETags.forPost(legacy, PostFields.ALL), "abc"));
+        assertNull(PostETags.expectedVersion("*", "abc"));
+        assertThrows(PostVersionConflictException.class, () -> PostETags.expectedVersion("\"other-7\"", "abc"));
+        assertThrows(PostVersionConflictException.class, () -> PostETags.expectedVersion("W/\"abc-7\"", "abc"));
+    }
+
+    @Test
+    void expectedContentTag_ShouldOnlyLetTheCurrentContentOfALegacyPostThrough() {
+        Post legacy = new Post("abc", "Java Developer", "Builds services", 3, List.of("Java"));
+        Post edited = new Post("abc", "Java Developer", "Builds services", 4, List.of("Java"));
+        String etag = PostETags.forPost(legacy, PostFields.parse("jobTitle"));
+        Document stored = new Document("_id", "abc").append("jobTitle", "Java Developer")
+                .append("jobDescription", "Builds services").append("experience", 3).append("requiredTechs", List.of("Java"));
+
+        String tag = PostETags.expectedContentTag(etag, "abc");
+        assertEquals(PostETags.contentTag(legacy), tag);
+        assertNull(PostETags.expectedContentTag("\"abc-7\"", "abc"));
+        assertNull(PostETags.expectedContentTag(null, "abc"));
+        assertThrows(PostVersionConflictException.class, () -> PostETags.expectedContentTag("\"abc-hshort\"", "abc"));
+
+        Document filter = PostService.contentFilter(PostService.patchFilter("abc", 0L), stored, tag, legacy);
+        assertEquals(new Document("_id", "abc").append("version", null).append("jobTitle", "Java Developer")
+                .append("jobDescription", "Builds services").append("experience", 3)
+                .append("requiredTechs", List.of("Java")), filter);
+        // A made-up or stale tag never reaches the update
+        assertNull(PostService.contentFilter(PostService.patchFilter("abc", 0L), stored, tag, edited));
+        assertNull(PostService.contentFilter(PostService.patchFilter("abc", 0L), stored, "hAAAAAAAAAAAAAAAA", legacy));
+    }
+
+    @Test
+    void matches_ShouldUseWeakComparisonForIfNoneMatch() {
+        assertTrue(PostETags.matches("\"x\", W/\"abc-7\"", "\"abc-7\""));
+        assertTrue(PostETags.matches("*", "\"abc-7\""));
+        assertFalse(PostETags.matches("\"abc-6\"", "\"abc-7\""));
+        assertFalse(PostETags.matches(null, "\"abc-7\""));
+    }
+}
@@ -0,0 +1,38 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import com.george.model.PostFields;
+
+class PostFieldsTest {
+
+    @Test
+    void parse_ShouldAlwaysIncludeIdAndBuildProjection() {
+        PostFields fields = PostFields.parse("jobTitle, experience");
+
+        assertEquals(Set.of("id", "jobTitle", "experience"), fields.names());
+        assertFalse(fields.includes("jobDescription"));
+        assertEquals(new Document("jobTitle", 1).append("experience", 1).append("version", 1), fields.toProjection());
+    }
+
+    @Test
+    void parse_ShouldReturnAllForBlankOrCompleteFieldsets() {
+        assertSame(PostFields.ALL, PostFields.parse(null));
+        assertSame(PostFields.ALL, PostFields.parse(" "));
+        assertTrue(PostFields.parse("jobTitle,jobDescription,experience,requiredTechs").isAll());
+    }
+
+    @Test
+    void parse_ShouldRejectUnknownFields() {
+        assertThrows(IllegalArgumentException.class, () -> PostFields.parse("jobTitle,embedding"));
+    }
+}
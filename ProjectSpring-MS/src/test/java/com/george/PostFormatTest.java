@@ -0,0 +1,92 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.george.Cache.LocalPostChangeFeed;
+import com.george.Cache.PostJsonCache;
+import com.george.controller.PostFormat;
+import com.george.controller.PostJsonWriters;
+import com.george.model.JobMatch;
+import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.PostPage;
+
+class PostFormatTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PostJsonWriters writers;
+
+    @BeforeEach
+    void setUp() {
+        PostJsonCache jsonCache = new PostJsonCache();
+        ReflectionTestUtils.setField(jsonCache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(jsonCache, "changeFeed", new LocalPostChangeFeed());
+        ReflectionTestUtils.invokeMethod(jsonCache, "init");
+        writers = new PostJsonWriters();
+        ReflectionTestUtils.setField(writers, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(writers, "postJsonCache", jsonCache);
+    }
+
+    @Test
+    void negotiate_ShouldOnlyPickBinaryFormatsWhenNamed() {
+        assertEquals(PostFormat.JSON, PostFormat.negotiate(null));
+        assertEquals(PostFormat.JSON, PostFormat.negotiate("*/*"));
+        assertEquals(PostFormat.JSON, PostFormat.negotiate("application/*, text/html"));
+        assertEquals(PostFormat.JSON, PostFormat.negotiate("not a media type;;"));
+        assertEquals(PostFormat.CBOR, PostFormat.negotiate("application/cbor"));
+        assertEquals(PostFormat.SMILE, PostFormat.negotiate("application/json;q=0.5, application/x-jackson-smile"));
+        assertEquals(PostFormat.JSON, PostFormat.negotiate("application/cbor;q=0.2, application/json"));
+        assertEquals("\"1-3-cbor\"", PostFormat.CBOR.etag("\"1-3\""));
+        assertEquals("\"1-3\"", PostFormat.JSON.etag("\"1-3\""));
+    }
+
+    @Test
+    void binaryFormats_ShouldDecodeToTheJsonDocumentAndBeSmaller() throws Exception {
+        List<JobMatch> matches = new ArrayList<>();
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Post post = new Post("65f1c0a2b3c4d5e6f7a8b9" + (10 + i), "Backend Engineer " + i,
+                    "Builds and operates services for job matching", i % 10, List.of("Java", "Spring", "MongoDB"));
+            post.setVersion((long) i + 1);
+            posts.add(post);
+            matches.add(new JobMatch(post, 0.5 + i / 100.0, List.of("Matching skill: Java")));
+        }
+        PostPage page = new PostPage(posts, posts.get(posts.size() - 1).getId());
+
+        for (Object value : List.of(page, matches)) {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            JsonNode expected = objectMapper.readTree(json);
+            byte[] cbor = writers.writerFor(PostFields.ALL, PostFormat.CBOR).writeValueAsBytes(value);
+            byte[] smile = writers.writerFor(PostFields.ALL, PostFormat.SMILE).writeValueAsBytes(value);
+
+            assertEquals(expected, new ObjectMapper(new CBORFactory()).readTree(cbor));
+            assertEquals(expected, new ObjectMapper(new SmileFactory()).readTree(smile));
+            assertTrue(cbor.length < json.length, "CBOR " + cbor.length + " vs JSON " + json.length);
+            assertTrue(smile.length < json.length, "Smile " + smile.length + " vs JSON " + json.length);
+        }
+    }
+
+    @Test
+    void binaryFormats_ShouldApplySparseFieldsets() throws Exception {
+        Post post = new Post("1", "Java Developer", "Long description", 3, List.of("Java"));
+        post.setVersion(1L);
+
+        byte[] cbor = writers.writerFor(PostFields.parse("jobTitle"), PostFormat.CBOR).writeValueAsBytes(post);
+
+        JsonNode decoded = new ObjectMapper(new CBORFactory()).readTree(cbor);
+        assertEquals("Java Developer", decoded.get("jobTitle").asText());
+        assertTrue(decoded.get("jobDescription") == null);
+    }
+}
@@ -0,0 +1,127 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.george.Service.PostImportService;
+import com.george.Service.PostService;
+import com.george.model.ImportReport;
+import com.george.model.Post;
+
+@ExtendWith(MockitoExtension.class)
+class PostImportServiceTest {
+
+    @Mock
+    private PostService postService;
+
+    private PostImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new PostImportService();
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        ReflectionTestUtils.setField(importService, "maxInFlightBatches", 1);
+        ReflectionTestUtils.setField(importService, "writerThreads", 1);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 10);
+        ReflectionTestUtils.setField(importService, "postService", postService);
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.invokeMethod(importService, "init");
+
+        lenient().when(postService.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<Post> batch = invocation.getArgument(0);
+            return new PostService.BatchInsertResult(batch, Map.of());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(importService, "shutdown");
+    }
+
+    @Test
+    void importPosts_ShouldBatchJsonArrayAndReportInvalidRecords() {
+        String payload = """
+                [{"jobTitle": "Java Developer", "experience": 2},
+                 {"jobTitle": "Data Engineer", "experience": "a lot"},
+                 {"jobTitle": "DevOps Engineer"},
+                 {"jobDescription": "No title"},
+                 {"jobTitle": "QA Engineer"}]""";
+
+        ImportReport report = importService.importPosts(stream(payload));
+
+        assertEquals(5, report.getReceived());
+        assertEquals(3, report.getInserted());
+        assertEquals(2, report.getFailed());
+        assertFalse(report.isAborted());
+        assertEquals(List.of(1L, 3L), report.getErrors().stream().map(ImportReport.ImportError::getIndex).toList());
+        verify(postService, times(2)).insertBatch(anyList());
+    }
+
+    @Test
+    void importPosts_ShouldReadNdjsonAndAbortOnMalformedJson() {
+        String payload = "{\"jobTitle\": \"Java Developer\"}\n{\"jobTitle\": \"Go Developer\"}\n{\"jobTitle\": ";
+
+        ImportReport report = importService.importPosts(stream(payload));
+
+        assertEquals(2, report.getInserted());
+        assertTrue(report.isAborted());
+    }
+
+    @Test
+    void importPosts_ShouldWriteThePendingBatchAndReportTheMalformedRecordsPosition() {
+        String payload = "[{\"jobTitle\": \"A\"}, {\"jobTitle\": \"B\"}, {\"jobTitle\": \"C\"}, {\"jobTitle\": }]";
+
+        ImportReport report = importService.importPosts(stream(payload));
+
+        assertEquals(3, report.getReceived());
+        assertEquals(3, report.getInserted());
+        assertEquals(0, report.getFailed());
+        assertTrue(report.isAborted());
+        assertEquals(List.of(3L), report.getErrors().stream().map(ImportReport.ImportError::getIndex).toList());
+    }
+
+    @Test
+    void importPosts_ShouldFailTheBatchNotHandedOverWhenInterrupted() {
+        String payload = "[{\"jobTitle\": \"A\"}, {\"jobTitle\": \"B\"}, {\"jobTitle\": \"C\"}]";
+
+        Thread.currentThread().interrupt();
+        ImportReport report;
+        try {
+            report = importService.importPosts(stream(payload));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+
+        assertEquals(2, report.getReceived());
+        assertEquals(0, report.getInserted());
+        assertEquals(2, report.getFailed());
+        assertTrue(report.isAborted());
+        assertEquals(List.of(0L, 1L, 2L), report.getErrors().stream().map(ImportReport.ImportError::getIndex).toList());
+        verify(postService, never()).insertBatch(anyList());
+    }
+
+    private static ByteArrayInputStream stream(String payload) {
+        return new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
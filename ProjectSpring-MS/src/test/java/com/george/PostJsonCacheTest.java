@@ -0,0 +1,97 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.george.Cache.LocalPostChangeFeed;
+import com.george.Cache.PostJsonCache;
+import com.george.controller.PostJsonWriters;
+import com.george.model.JobMatch;
+import com.george.model.Post;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PostJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PostJsonCache cache;
+    private LocalPostChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new LocalPostChangeFeed();
+        cache = new PostJsonCache();
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "changeFeed", feed);
+        ReflectionTestUtils.setField(cache, "meterRegistry", registry);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+    }
+
+    @Test
+    void getJson_ShouldSerializeOncePerVersion() {
+        AtomicInteger serializations = new AtomicInteger();
+        Post post = post("1", 1L);
+
+        cache.getJson(post, p -> { serializations.incrementAndGet(); return new byte[] {'1'}; });
+        cache.getJson(post, p -> { serializations.incrementAndGet(); return new byte[] {'1'}; });
+        cache.getJson(post("1", 2L), p -> { serializations.incrementAndGet(); return new byte[] {'2'}; });
+
+        assertEquals(2, serializations.get());
+        assertEquals(1.0 / 3, cache.hitRatio(), 1e-9);
+        assertEquals(1.0 / 3, registry.get("jobmatch.cache.json.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void getJson_ShouldNotCachePostsWithoutAVersion() {
+        AtomicInteger serializations = new AtomicInteger();
+
+        byte[] first = cache.getJson(post("1", null), p -> { serializations.incrementAndGet(); return new byte[] {'a'}; });
+        // Different content under the same ID, e.g. an edit that missed the invalidation
+        byte[] second = cache.getJson(post("1", null), p -> { serializations.incrementAndGet(); return new byte[] {'b'}; });
+
+        assertArrayEquals(new byte[] {'a'}, first);
+        assertArrayEquals(new byte[] {'b'}, second);
+        assertEquals(2, serializations.get());
+        assertEquals(0.0, cache.hitRatio());
+    }
+
+    @Test
+    void postSaved_ShouldEvictTheCachedBytes() {
+        AtomicInteger serializations = new AtomicInteger();
+        Post post = post("1", 1L);
+
+        cache.getJson(post, p -> { serializations.incrementAndGet(); return new byte[] {'1'}; });
+        feed.publishSaved(post);
+        cache.getJson(post, p -> { serializations.incrementAndGet(); return new byte[] {'1'}; });
+
+        assertEquals(2, serializations.get());
+    }
+
+    @Test
+    void matchesBytes_ShouldEqualPlainSerialization() throws Exception {
+        PostJsonWriters writers = new PostJsonWriters();
+        ReflectionTestUtils.setField(writers, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(writers, "postJsonCache", cache);
+        List<JobMatch> matches = List.of(
+                new JobMatch(post("1", 1L), 0.93, List.of("Matches required technology: Java")),
+                new JobMatch(post("2", 4L), 0.5, List.of()));
+
+        writers.matchesBytes(matches); // warm the cache
+        assertArrayEquals(objectMapper.writeValueAsBytes(matches), writers.matchesBytes(matches));
+    }
+
+    private static Post post(String id, Long version) {
+        Post post = new Post(id, "Java Developer", "Builds \"services\"", 3, List.of("Java"));
+        post.setVersion(version);
+        return post;
+    }
+}
@@ -0,0 +1,76 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.BsonArray;
+import org.bson.BsonDouble;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import com.george.Service.JobMatchingService;
+import com.george.Service.PostArchiver;
+import com.george.model.Post;
+import com.george.model.PostFields;
+import com.george.model.PostLifecycle;
+import com.george.model.PostStatus;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+
+class PostLifecycleTest {
+
+    private final Instant now = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Test
+    void isLive_ShouldExcludeClosedAndExpiredPosts() {
+        Post post = new Post("1", "Java Developer", "Description", 3, List.of("Java"));
+        assertTrue(PostLifecycle.isLive(post, now));
+
+        post.setExpiresAt(now.plus(Duration.ofDays(1)));
+        assertTrue(PostLifecycle.isLive(post, now));
+        post.setExpiresAt(now);
+        assertFalse(PostLifecycle.isLive(post, now));
+
+        post.setExpiresAt(null);
+        post.setStatus(PostStatus.OPEN);
+        assertTrue(PostLifecycle.isLive(post, now));
+        post.setStatus(PostStatus.FILLED);
+        assertFalse(PostLifecycle.isLive(post, now));
+    }
+
+    @Test
+    void vectorSearchPipeline_ShouldFilterLivePostsUnlessArchivedAreIncluded() {
+        BsonArray embedding = new BsonArray(List.of(new BsonDouble(0.1), new BsonDouble(0.2)));
+
+        List<Document> live = JobMatchingService.vectorSearchPipeline(embedding, PostFields.ALL, false);
+        List<Document> all = JobMatchingService.vectorSearchPipeline(embedding, PostFields.ALL, true);
+
+        assertEquals(List.of("$search", "$match", "$project"), stageNames(live));
+        assertEquals(List.of("$search", "$project", "$unionWith", "$sort", "$limit"), stageNames(all));
+        assertEquals(PostLifecycle.ARCHIVE_COLLECTION, all.get(2).get("$unionWith", Document.class).getString("coll"));
+    }
+
+    @Test
+    void archiveWrites_ShouldUpsertStampedCopies() {
+        Document post = new Document("_id", "1").append("jobTitle", "Java Developer")
+                .append("status", PostStatus.FILLED.name());
+
+        List<WriteModel<Document>> writes = PostArchiver.archiveWrites(List.of(post), now);
+
+        ReplaceOneModel<Document> write = (ReplaceOneModel<Document>) writes.get(0);
+        assertTrue(write.getReplaceOptions().isUpsert());
+        assertEquals(Date.from(now), write.getReplacement().get(PostLifecycle.ARCHIVED_AT));
+        assertEquals("Java Developer", write.getReplacement().getString("jobTitle"));
+        assertFalse(post.containsKey(PostLifecycle.ARCHIVED_AT));
+    }
+
+    private static List<String> stageNames(List<Document> pipeline) {
+        return pipeline.stream().map(stage -> stage.keySet().iterator().next()).toList();
+    }
+}
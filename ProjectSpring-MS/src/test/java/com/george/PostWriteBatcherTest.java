@@ -0,0 +1,178 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import com.george.Reactive.ReactivePostRepository;
+import com.george.Reactive.ReactivePostService;
+import com.george.Service.PostChangeNotifier;
+import com.george.Service.PostService;
+import com.george.Service.PostService.BatchInsertResult;
+import com.george.Service.PostWriteBatcher;
+import com.george.model.Post;
+import com.george.model.PostRepository;
+
+class PostWriteBatcherTest {
+
+    @Test
+    void submit_ShouldGroupConcurrentInsertsIntoFewerWrites() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Post>> results = new CopyOnWriteArrayList<>();
+        List<Post> posts = new ArrayList<>();
+
+        try (PostWriteBatcher batcher = new PostWriteBatcher(batch -> {
+            batchSizes.add(batch.size());
+            return new BatchInsertResult(batch, Map.of());
+        }, Duration.ofMillis(50), 100, 1000)) {
+            List<Thread> callers = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                Post post = new Post(String.valueOf(i), "Title " + i, "Description", 1, List.of("Java"));
+                posts.add(post);
+                callers.add(Thread.ofVirtual().start(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    results.add(batcher.submit(post));
+                }));
+            }
+            start.countDown();
+            for (Thread caller : callers) {
+                caller.join();
+            }
+            for (CompletableFuture<Post> result : results) {
+                assertTrue(posts.contains(result.join()));
+            }
+        }
+
+        assertEquals(50, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.size() < 50, "batches: " + batchSizes);
+    }
+
+    @Test
+    void submit_ShouldFailOnlyThePostsThatFailed() {
+        Post good = new Post("1", "Java Developer", "Description", 3, List.of("Java"));
+        Post duplicate = new Post("2", "Go Developer", "Description", 2, List.of("Go"));
+
+        try (PostWriteBatcher batcher = new PostWriteBatcher(batch -> {
+            Map<Integer, String> errors = new HashMap<>();
+            List<Post> inserted = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.get(i) == duplicate) {
+                    errors.put(i, "E11000 duplicate key error");
+                } else {
+                    inserted.add(batch.get(i));
+                }
+            }
+            return new BatchInsertResult(inserted, errors);
+        }, Duration.ofMillis(50), 100, 1000)) {
+            CompletableFuture<Post> first = batcher.submit(good);
+            CompletableFuture<Post> second = batcher.submit(duplicate);
+
+            assertSame(good, first.join());
+            CompletionException error = assertThrows(CompletionException.class, second::join);
+            assertTrue(error.getCause().getMessage().contains("duplicate key"));
+        }
+    }
+
+    @Test
+    void addPost_ShouldInsertRatherThanReplaceWithoutTheBatcher() {
+        PostRepository repo = mock(PostRepository.class);
+        PostService service = new PostService();
+        ReflectionTestUtils.setField(service, "repo", repo);
+        ReflectionTestUtils.setField(service, "changeNotifier", new PostChangeNotifier());
+        Post existing = new Post("1", "Title", "Description", 1, List.of("Java"));
+        when(repo.insert(any(Post.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        // The same outcome as a duplicate reported by insertBatch
+        assertThrows(RuntimeException.class, () -> service.addPost(existing));
+        verify(repo, never()).save(any(Post.class));
+    }
+
+    @Test
+    void addPosts_ShouldNotReplaceOrDowngradeAnExistingPost() {
+        PostRepository repo = mock(PostRepository.class);
+        Map<String, Post> stored = new HashMap<>(Map.of("1", storedPost()));
+        when(repo.insert(anyIterable())).thenAnswer(invocation -> insertInto(stored, invocation.getArgument(0)));
+        PostService service = new PostService();
+        ReflectionTestUtils.setField(service, "repo", repo);
+        ReflectionTestUtils.setField(service, "changeNotifier", new PostChangeNotifier());
+
+        assertThrows(RuntimeException.class,
+                () -> service.addPosts(List.of(new Post("1", "Other", "Replaced", 9, List.of("Go")))));
+
+        verify(repo, never()).saveAll(anyIterable());
+        assertEquals("Java Developer", stored.get("1").getJobTitle());
+        assertEquals(4L, stored.get("1").getVersion());
+    }
+
+    @Test
+    void reactiveAddPosts_ShouldNotReplaceOrDowngradeAnExistingPost() {
+        ReactivePostRepository repo = mock(ReactivePostRepository.class);
+        Map<String, Post> stored = new HashMap<>(Map.of("1", storedPost()));
+        when(repo.insert(anyIterable())).thenAnswer(invocation -> {
+            try {
+                return Flux.fromIterable(insertInto(stored, invocation.getArgument(0)));
+            } catch (DuplicateKeyException e) {
+                return Flux.error(e);
+            }
+        });
+        ReactivePostService service = new ReactivePostService();
+        ReflectionTestUtils.setField(service, "repo", repo);
+        ReflectionTestUtils.setField(service, "changeNotifier", new PostChangeNotifier());
+
+        StepVerifier.create(service.addPosts(List.of(new Post("1", "Other", "Replaced", 9, List.of("Go")))))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+
+        verify(repo, never()).saveAll(anyIterable());
+        assertEquals("Java Developer", stored.get("1").getJobTitle());
+        assertEquals(4L, stored.get("1").getVersion());
+    }
+
+    private static Post storedPost() {
+        Post post = new Post("1", "Java Developer", "Description", 3, List.of("Java"));
+        post.setVersion(4L);
+        return post;
+    }
+
+    /** Behaves like an insert into a collection with a unique _id */
+    private static List<Post> insertInto(Map<String, Post> stored, Iterable<Post> posts) {
+        List<Post> inserted = new ArrayList<>();
+        for (Post post : posts) {
+            if (stored.containsKey(post.getId())) {
+                throw new DuplicateKeyException("E11000 duplicate key error: _id " + post.getId());
+            }
+            inserted.add(post);
+        }
+        inserted.forEach(post -> stored.put(post.getId(), post));
+        return inserted;
+    }
+}
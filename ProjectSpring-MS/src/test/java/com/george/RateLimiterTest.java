@@ -0,0 +1,92 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.RateLimit.LocalRateLimitStore;
+import com.george.RateLimit.RateLimitDecision;
+import com.george.RateLimit.RateLimiter;
+
+class RateLimiterTest {
+
+    @Test
+    void consume_ShouldChargeEndpointCostsToTheUserBucket() {
+        RateLimiter limiter = newLimiter(5, 1000);
+
+        RateLimitDecision match = limiter.consume("alice", "10.0.0.1", "/jobs/match");
+        assertTrue(match.allowed());
+        assertEquals(2, match.remaining());
+        assertEquals("3", match.headers().get("X-RateLimit-Cost"));
+
+        RateLimitDecision refused = limiter.consume("alice", "10.0.0.1", "/jobs/match");
+        assertFalse(refused.allowed());
+        assertTrue(refused.retryAfterSeconds() >= 1);
+        assertEquals(Long.toString(refused.retryAfterSeconds()), refused.headers().get("Retry-After"));
+
+        assertTrue(limiter.consume("alice", "10.0.0.1", "/posts/1").allowed());
+        assertTrue(limiter.consume("alice", "10.0.0.1", "/posts/1").allowed());
+        assertFalse(limiter.consume("alice", "10.0.0.1", "/posts/1").allowed());
+        assertTrue(limiter.consume("bob", "10.0.0.1", "/jobs/match").allowed());
+    }
+
+    @Test
+    void consume_ShouldLimitAnonymousRequestsByIp() {
+        RateLimiter limiter = newLimiter(100, 2);
+
+        assertTrue(limiter.consume(null, "10.0.0.2", "/login").allowed());
+        assertEquals(0, limiter.consume(null, "10.0.0.2", "/login").remaining());
+        assertFalse(limiter.consume(null, "10.0.0.2", "/login").allowed());
+        assertTrue(limiter.consume(null, "10.0.0.3", "/login").allowed());
+    }
+
+    @Test
+    void consume_ShouldNeverGrantMoreThanTheCapacityUnderContention() throws Exception {
+        RateLimiter limiter = newLimiter(100, 1_000_000);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (limiter.consume("carol", "10.0.0.4", "/posts/1").allowed()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(100, allowed.get());
+    }
+
+    /** Buckets refill one token per minute, so nothing refills during a test */
+    private static RateLimiter newLimiter(long userCapacity, long ipCapacity) {
+        LocalRateLimitStore store = new LocalRateLimitStore();
+        ReflectionTestUtils.invokeMethod(store, "init");
+        RateLimiter limiter = new RateLimiter();
+        ReflectionTestUtils.setField(limiter, "store", store);
+        ReflectionTestUtils.setField(limiter, "userCapacity", userCapacity);
+        ReflectionTestUtils.setField(limiter, "userRefillPerMinute", 1L);
+        ReflectionTestUtils.setField(limiter, "ipCapacity", ipCapacity);
+        ReflectionTestUtils.setField(limiter, "ipRefillPerMinute", 1L);
+        ReflectionTestUtils.setField(limiter, "costs", List.of("/jobs/match=3", "/login=1"));
+        ReflectionTestUtils.invokeMethod(limiter, "init");
+        return limiter;
+    }
+}
@@ -0,0 +1,191 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.george.Cache.LocalPostChangeFeed;
+import com.george.Cache.PostJsonCache;
+import com.george.Reactive.ReactivePostController;
+import com.george.Reactive.ReactivePostService;
+import com.george.Reactive.ReactiveSecurityConfig;
+import com.george.Security.InMemoryRevocationStore;
+import com.george.Security.TokenPrincipals;
+import com.george.Security.TokenRevocations;
+import com.george.Service.JWTService;
+import com.george.controller.PostETags;
+import com.george.controller.PostJsonWriters;
+import com.george.model.Post;
+import com.george.model.PostFields;
+
+import io.jsonwebtoken.Claims;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePostControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Post post = new Post("1", "Software Engineer", "Develops applications", 3,
+            List.of("Java", "Spring", "MongoDB"));
+
+    @Mock
+    private ReactivePostService postService;
+
+    @InjectMocks
+    private ReactivePostController postController;
+
+    @BeforeEach
+    void setUp() {
+        PostJsonCache jsonCache = new PostJsonCache();
+        ReflectionTestUtils.setField(jsonCache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(jsonCache, "changeFeed", new LocalPostChangeFeed());
+        ReflectionTestUtils.invokeMethod(jsonCache, "init");
+        PostJsonWriters writers = new PostJsonWriters();
+        ReflectionTestUtils.setField(writers, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(writers, "postJsonCache", jsonCache);
+        ReflectionTestUtils.setField(postController, "postJsonWriters", writers);
+        post.setVersion(2L);
+    }
+
+    @Test
+    void getPostById_ShouldReturnPostWithETag() {
+        when(postService.findById("1", PostFields.ALL)).thenReturn(Mono.just(post));
+
+        StepVerifier.create(postController.getPostById("1", null, false, null, null))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals(PostETags.forPost(post, PostFields.ALL), response.getHeaders().getETag());
+                    try {
+                        Post body = objectMapper.readValue((byte[]) response.getBody(), Post.class);
+                        assertEquals("Software Engineer", body.getJobTitle());
+                        assertEquals(2L, body.getVersion());
+                    } catch (Exception e) {
+                        throw new AssertionError(e);
+                    }
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getPostById_ShouldAnswerNotModifiedForMatchingETag() {
+        when(postService.findById("1", PostFields.ALL)).thenReturn(Mono.just(post));
+
+        StepVerifier.create(postController.getPostById("1", null, false, null, PostETags.forPost(post, PostFields.ALL)))
+                .assertNext(response -> assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getPostById_ShouldReturnNotFoundWhenEmpty() {
+        when(postService.findById("missing", PostFields.ALL)).thenReturn(Mono.empty());
+
+        StepVerifier.create(postController.getPostById("missing", null, false, null, null))
+                .assertNext(response -> assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode()))
+                .verifyComplete();
+    }
+
+    @Test
+    void deletePostById_ShouldReturnNotFoundWhenNothingWasDeleted() {
+        when(postService.deleteById("missing")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(postController.deletePostById("missing"))
+                .assertNext(response -> assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode()))
+                .verifyComplete();
+    }
+
+    @Test
+    void bearerAuthentication_ShouldAnswerUnauthorizedForAnExpiredToken() {
+        JWTService jwtService = newJwtService(Duration.ofMinutes(-1), newRevocations(new InMemoryRevocationStore()));
+        String expired = jwtService.issueTokens(User.withUsername("alice").password("x").roles("USER").build())
+                .getAccessToken();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, authenticate(jwtService, expired));
+    }
+
+    @Test
+    void bearerAuthentication_ShouldAnswerUnauthorizedForARevokedToken() {
+        AtomicReference<String> lookupThread = new AtomicReference<>();
+        JWTService jwtService = newJwtService(Duration.ofMinutes(15), newRevocations(new InMemoryRevocationStore() {
+            @Override
+            public boolean isRevoked(String tokenId) {
+                lookupThread.set(Thread.currentThread().getName());
+                return super.isRevoked(tokenId);
+            }
+        }));
+        String token = jwtService.issueTokens(User.withUsername("alice").password("x").roles("USER").build())
+                .getAccessToken();
+        Claims claims = jwtService.verify(token).orElseThrow();
+        jwtService.revoke(claims);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, authenticate(jwtService, token));
+        // The store lookup blocks, so it has to run off the event loop
+        assertTrue(lookupThread.get().startsWith("boundedElastic"), lookupThread.get());
+    }
+
+    /**
+     * Runs a request with the token through the reactive Bearer filter.
+     *
+     * @return the response status
+     */
+    private static HttpStatus authenticate(JWTService jwtService, String token) {
+        TokenPrincipals tokenPrincipals = new TokenPrincipals();
+        ReflectionTestUtils.setField(tokenPrincipals, "mode", "claims");
+        ReactiveSecurityConfig config = new ReactiveSecurityConfig();
+        ReflectionTestUtils.setField(config, "jwtService", jwtService);
+        ReflectionTestUtils.setField(config, "tokenPrincipals", tokenPrincipals);
+        AuthenticationWebFilter filter = ReflectionTestUtils.invokeMethod(config, "jwtAuthenticationFilter");
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/posts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        AtomicBoolean passed = new AtomicBoolean();
+
+        StepVerifier.create(filter.filter(exchange, e -> Mono.fromRunnable(() -> passed.set(true))))
+                .verifyComplete();
+
+        assertFalse(passed.get());
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+
+    private static TokenRevocations newRevocations(InMemoryRevocationStore store) {
+        TokenRevocations revocations = new TokenRevocations();
+        ReflectionTestUtils.setField(revocations, "store", store);
+        ReflectionTestUtils.setField(revocations, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(revocations, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(revocations, "rebuildInterval", Duration.ofHours(1));
+        revocations.sync();
+        return revocations;
+    }
+
+    private static JWTService newJwtService(Duration accessTtl, TokenRevocations revocations) {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("tokenRevocations", revocations);
+        JWTService service = new JWTService();
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "accessTtl", accessTtl);
+        ReflectionTestUtils.setField(service, "revocations", beans.getBeanProvider(TokenRevocations.class));
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+}
@@ -0,0 +1,91 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Base64;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import com.george.Search.SearchPageToken;
+import com.george.controller.SearchRepositoryController;
+import com.george.model.PostFields;
+import com.george.model.SearchPageRequest;
+
+class SearchPageTokenTest {
+
+    @Test
+    void decode_ShouldRoundTripTokensWithAndWithoutSequence() {
+        SearchPageToken sorted = new SearchPageToken(1.25, new ObjectId().toHexString(), "CMtJGgYQuq+ngwgaCRAA");
+        SearchPageToken merged = new SearchPageToken(0.5, "legacy:id", null);
+
+        assertEquals(sorted, SearchPageToken.decode(sorted.encode()));
+        assertEquals(merged, SearchPageToken.decode(merged.encode()));
+        assertFalse(sorted.encode().contains("+") || sorted.encode().contains("/"));
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedTokens() {
+        for (String raw : List.of("", "1.0", "1.0:", "1.0:seq:", "x:seq:id", ":seq:id")) {
+            String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+            assertThrows(IllegalArgumentException.class, () -> SearchPageToken.decode(token), raw);
+        }
+        assertThrows(IllegalArgumentException.class, () -> SearchPageToken.decode("not base64!"));
+    }
+
+    @Test
+    void searchPipeline_ShouldResumeLiveSearchesInsideAtlasSearch() {
+        String token = new SearchPageToken(2.0, new ObjectId().toHexString(), "seq-1").encode();
+
+        List<Document> pipeline = SearchRepositoryController.searchPipeline(
+                new SearchPageRequest("java", 10, token, false, PostFields.ALL, false));
+
+        Document search = pipeline.get(0).get("$search", Document.class);
+        assertEquals("seq-1", search.getString("searchAfter"));
+        assertEquals(new Document("score", new Document("$meta", "searchScore")).append("_id", 1), search.get("sort"));
+        assertTrue(pipeline.stream().noneMatch(stage -> stage.containsKey("$sort")));
+        assertEquals(1, pipeline.stream().filter(stage -> stage.containsKey("$match")).count()); // the live filter only
+        assertEquals(new Document("$limit", 11), pipeline.get(pipeline.size() - 1));
+    }
+
+    @Test
+    void searchPipeline_ShouldFilterBehindTheLastHitWhenMergingCollections() {
+        ObjectId lastId = new ObjectId();
+        String token = new SearchPageToken(2.0, lastId.toHexString(), null).encode();
+
+        List<Document> pipeline = SearchRepositoryController.searchPipeline(
+                new SearchPageRequest("java", 10, token, false, PostFields.ALL, true));
+
+        assertNull(pipeline.get(0).get("$search", Document.class).get("searchAfter"));
+        int union = indexOf(pipeline, "$unionWith");
+        Document after = pipeline.get(union + 1).get("$match", Document.class);
+        assertEquals(List.of(new Document("score", new Document("$lt", 2.0)),
+                new Document("score", 2.0).append("_id", new Document("$gt", lastId))), after.get("$or"));
+        assertEquals(new Document("$sort", new Document("score", -1).append("_id", 1)), pipeline.get(union + 2));
+        assertEquals(new Document("$limit", 11), pipeline.get(union + 3));
+    }
+
+    @Test
+    void pageTokenAfter_ShouldCarryTheSearchSequenceOfTheLastHit() {
+        Document last = new Document("_id", new ObjectId()).append("score", 3.5).append("searchSequence", "seq-9");
+
+        SearchPageToken token = SearchPageToken.decode(SearchRepositoryController.pageTokenAfter(last));
+
+        assertEquals(new SearchPageToken(3.5, last.get("_id").toString(), "seq-9"), token);
+    }
+
+    private static int indexOf(List<Document> pipeline, String stage) {
+        for (int i = 0; i < pipeline.size(); i++) {
+            if (pipeline.get(i).containsKey(stage)) {
+                return i;
+            }
+        }
+        throw new AssertionError("No " + stage + " stage in " + pipeline);
+    }
+}
@@ -0,0 +1,58 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.george.Service.SubtaskScope;
+
+class SubtaskScopeTest {
+
+    @Test
+    void join_ShouldWaitForSubtasksRunningConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        try (SubtaskScope scope = new SubtaskScope("test")) {
+            Future<String> first = scope.fork(() -> awaitBoth(bothStarted, "a"));
+            Future<String> second = scope.fork(() -> awaitBoth(bothStarted, "b"));
+            scope.join();
+
+            assertEquals("a", first.resultNow());
+            assertEquals("b", second.resultNow());
+        }
+    }
+
+    @Test
+    void join_ShouldCancelSiblingsWhenASubtaskFails() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (SubtaskScope scope = new SubtaskScope("test")) {
+            scope.fork(() -> {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            scope.fork(() -> { throw new IllegalStateException("embedding failed"); });
+
+            ExecutionException e = assertThrows(ExecutionException.class, scope::join);
+            assertEquals("embedding failed", e.getCause().getMessage());
+        }
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    private static String awaitBoth(CountDownLatch latch, String result) throws InterruptedException {
+        latch.countDown();
+        if (!latch.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("subtasks did not run concurrently");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Security.TokenPrincipals;
+import com.george.Security.User;
+import com.george.Security.UserPrincipal;
+import com.george.Service.JWTService;
+
+import io.jsonwebtoken.Claims;
+
+class TokenPrincipalsTest {
+
+    private final JWTService jwtService = newJwtService();
+
+    @Test
+    void fromClaims_ShouldRebuildThePrincipalWithoutALookup() {
+        User user = new User();
+        user.setId(42);
+        user.setUsername("alice");
+        user.setPassword("$2a$12$hash");
+        UserPrincipal login = new UserPrincipal(user,
+                List.of(new SimpleGrantedAuthority("USER"), new SimpleGrantedAuthority("ADMIN")));
+
+        Claims claims = jwtService.verify(jwtService.issueTokens(login).getAccessToken()).orElseThrow();
+        UserPrincipal principal = (UserPrincipal) TokenPrincipals.fromClaims(claims);
+
+        assertEquals(42, principal.getId());
+        assertEquals("alice", principal.getUsername());
+        assertNull(principal.getPassword());
+        assertEquals(List.of("USER", "ADMIN"),
+                principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void fromClaims_ShouldDeclineTokensWithoutUserClaims() {
+        Claims claims = jwtService.verify(jwtService.generateToken("alice")).orElseThrow();
+
+        UserDetails principal = TokenPrincipals.fromClaims(claims);
+
+        assertNull(principal);
+        assertTrue(jwtService.validateClaims(claims, new UserPrincipal(userNamed("alice"))));
+    }
+
+    private static User userNamed(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+
+    private static JWTService newJwtService() {
+        JWTService service = new JWTService();
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+}
@@ -0,0 +1,161 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Security.InMemoryRevocationStore;
+import com.george.Security.TokenResponse;
+import com.george.Security.TokenRevocations;
+import com.george.Service.JWTService;
+
+import io.jsonwebtoken.Claims;
+
+class TokenRevocationsTest {
+
+    /** Counts the lookups that get past the Bloom filter */
+    private static class CountingStore extends InMemoryRevocationStore {
+        final AtomicInteger lookups = new AtomicInteger();
+
+        @Override
+        public boolean isRevoked(String tokenId) {
+            lookups.incrementAndGet();
+            return super.isRevoked(tokenId);
+        }
+    }
+
+    private final CountingStore store = new CountingStore();
+
+    @Test
+    void verify_ShouldRejectRevokedAndRefreshTokens() {
+        JWTService jwtService = newJwtService(newRevocations());
+        TokenResponse tokens = jwtService.issueTokens(User.withUsername("alice").password("x").roles("USER").build());
+
+        Claims access = jwtService.verify(tokens.getAccessToken()).orElseThrow();
+        Claims refresh = jwtService.verifyRefreshToken(tokens.getRefreshToken()).orElseThrow();
+        assertTrue(jwtService.verify(tokens.getRefreshToken()).isEmpty());
+        assertTrue(jwtService.verifyRefreshToken(tokens.getAccessToken()).isEmpty());
+        assertEquals("alice", refresh.getSubject());
+
+        jwtService.revoke(access);
+        jwtService.revoke(refresh);
+
+        assertTrue(jwtService.verify(tokens.getAccessToken()).isEmpty()); // even though its claims are cached
+        assertTrue(jwtService.verifyRefreshToken(tokens.getRefreshToken()).isEmpty());
+    }
+
+    @Test
+    void redeemRefreshToken_ShouldSucceedOnceAmongConcurrentRequests() throws Exception {
+        // Two nodes sharing the store, both with the token absent from their filters
+        JWTService node1 = newJwtService(newRevocations());
+        JWTService node2 = newJwtService(newRevocations());
+        TokenResponse tokens = node1.issueTokens(User.withUsername("alice").password("x").roles("USER").build());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> redeemed = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                JWTService node = i % 2 == 0 ? node1 : node2;
+                redeemed.add(executor.submit(() -> {
+                    start.await();
+                    return node.redeemRefreshToken(tokens.getRefreshToken()).isPresent();
+                }));
+            }
+            start.countDown();
+            int successes = 0;
+            for (Future<Boolean> result : redeemed) {
+                successes += result.get() ? 1 : 0;
+            }
+            assertEquals(1, successes);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void redeemRefreshToken_ShouldRevokeTheSessionWhenATokenIsReused() {
+        JWTService jwtService = newJwtService(newRevocations());
+        UserDetails alice = User.withUsername("alice").password("x").roles("USER").build();
+        TokenResponse first = jwtService.issueTokens(alice);
+        TokenResponse otherLogin = jwtService.issueTokens(alice);
+
+        Claims claims = jwtService.redeemRefreshToken(first.getRefreshToken()).orElseThrow();
+        TokenResponse second = jwtService.issueTokens(alice, claims);
+        assertTrue(jwtService.verify(second.getAccessToken()).isPresent());
+
+        assertTrue(jwtService.redeemRefreshToken(first.getRefreshToken()).isEmpty());
+
+        assertTrue(jwtService.verify(second.getAccessToken()).isEmpty());
+        assertTrue(jwtService.redeemRefreshToken(second.getRefreshToken()).isEmpty());
+        assertTrue(jwtService.verify(otherLogin.getAccessToken()).isPresent());
+        assertTrue(jwtService.redeemRefreshToken(otherLogin.getRefreshToken()).isPresent());
+    }
+
+    @Test
+    void isRevoked_ShouldSeeOtherNodesRevocationsAfterTheNextSync() {
+        TokenRevocations node1 = newRevocations();
+        TokenRevocations node2 = newRevocations();
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(5));
+
+        node1.revoke("jti-1", expiresAt);
+
+        assertTrue(node1.isRevoked("jti-1"));
+        assertFalse(node2.isRevoked("jti-1")); // its filter predates the revocation
+        node2.sync();
+        assertTrue(node2.isRevoked("jti-1"));
+    }
+
+    @Test
+    void isRevoked_ShouldAnswerMostMissesFromTheFilter() {
+        TokenRevocations revocations = newRevocations();
+        for (int i = 0; i < 1000; i++) {
+            revocations.revoke("revoked-" + i, Instant.now().plus(Duration.ofMinutes(5)));
+        }
+        store.lookups.set(0);
+
+        int revoked = 0;
+        for (int i = 0; i < 10_000; i++) {
+            revoked += revocations.isRevoked(UUID.randomUUID().toString()) ? 1 : 0;
+        }
+
+        assertEquals(0, revoked);
+        assertTrue(store.lookups.get() < 300, "false positives: " + store.lookups.get());
+    }
+
+    private TokenRevocations newRevocations() {
+        TokenRevocations revocations = new TokenRevocations();
+        ReflectionTestUtils.setField(revocations, "store", store);
+        ReflectionTestUtils.setField(revocations, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(revocations, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(revocations, "rebuildInterval", Duration.ofHours(1));
+        revocations.sync();
+        return revocations;
+    }
+
+    private static JWTService newJwtService(TokenRevocations revocations) {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("tokenRevocations", revocations);
+        JWTService service = new JWTService();
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "revocations", beans.getBeanProvider(TokenRevocations.class));
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+}
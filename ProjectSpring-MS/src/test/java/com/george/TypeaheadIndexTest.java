@@ -0,0 +1,85 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Cache.LocalPostChangeFeed;
+import com.george.Search.TypeaheadIndex;
+import com.george.Search.TypeaheadIndex.Completion;
+import com.george.Service.TypeaheadService;
+import com.george.model.Post;
+import com.george.model.Suggestion;
+
+class TypeaheadIndexTest {
+
+    private TypeaheadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TypeaheadIndex();
+        index.add("Java", 5);
+        index.add("JavaScript", 8);
+        index.add("Jakarta EE", 1);
+        index.add("Kotlin", 3);
+    }
+
+    @Test
+    void complete_ShouldReturnMatchesByDescendingWeight() {
+        List<Completion> completions = index.complete("ja", 10);
+
+        assertEquals(List.of(
+                new Completion("JavaScript", 8),
+                new Completion("Java", 5),
+                new Completion("Jakarta EE", 1)), completions);
+    }
+
+    @Test
+    void complete_ShouldHonourLimitAndIgnoreCase() {
+        List<Completion> completions = index.complete("JAV", 1);
+
+        assertEquals(List.of(new Completion("JavaScript", 8)), completions);
+    }
+
+    @Test
+    void add_ShouldRemoveTermWhenWeightDropsToZero() {
+        index.add("javascript", -8);
+
+        assertEquals(List.of(new Completion("Java", 5), new Completion("Jakarta EE", 1)),
+                index.complete("ja", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void add_ShouldReorderAfterIncrementalUpdate() {
+        index.add("Java", 10);
+
+        assertEquals(new Completion("Java", 15), index.complete("j", 1).get(0));
+    }
+
+    @Test
+    void complete_ShouldReturnEmptyForUnknownPrefix() {
+        assertTrue(index.complete("rust", 5).isEmpty());
+        assertTrue(index.complete("ja", 0).isEmpty());
+    }
+
+    @Test
+    void typeaheadService_ShouldFollowWritesMadeOnOtherNodes() {
+        LocalPostChangeFeed changeFeed = new LocalPostChangeFeed();
+        TypeaheadService service = new TypeaheadService();
+        ReflectionTestUtils.setField(service, "changeFeed", changeFeed);
+        ReflectionTestUtils.invokeMethod(service, "init");
+
+        changeFeed.publishSaved(new Post("1", "Rust Developer", "", 3, List.of("Rust")));
+        assertEquals(List.of("Rust Developer", "Rust"),
+                service.complete("ru", "all", 5).stream().map(Suggestion::getText).toList());
+
+        changeFeed.publishDeleted("1");
+        assertTrue(service.complete("ru", "all", 5).isEmpty());
+    }
+}
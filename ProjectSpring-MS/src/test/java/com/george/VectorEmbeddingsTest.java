@@ -0,0 +1,176 @@
+package com.george;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.george.Cache.PostCache;
+import com.george.Service.PostService;
+import com.george.Vector.VectorEmbeddings;
+import com.george.model.PostFields;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.model.huggingface.HuggingFaceEmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Checks with JFR's {@code jdk.VirtualThreadPinned} event, the event behind
+ * {@code -Djdk.tracePinnedThreads}, that the blocking calls of a match made
+ * from virtual threads do not pin their carrier: the first, contended
+ * initialization of the embedding model, the embedding call itself, whose
+ * HTTP request is stood in for by a sleep, and a post lookup through the
+ * MongoDB driver.
+ */
+class VectorEmbeddingsTest {
+
+    private static final Object MONITOR = new Object();
+
+    @SuppressWarnings("unchecked")
+    private final Supplier<HuggingFaceEmbeddingModel> defaultFactory = (Supplier<HuggingFaceEmbeddingModel>)
+            ReflectionTestUtils.getField(VectorEmbeddings.class, "embeddingModelFactory");
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(VectorEmbeddings.class, "embeddingModel", null);
+        ReflectionTestUtils.setField(VectorEmbeddings.class, "embeddingModelFactory", defaultFactory);
+    }
+
+    @Test
+    void pinnedEvents_ShouldReportASleepInsideSynchronized() throws Exception {
+        // Proves the recording below would catch pinning if there was any
+        List<RecordedEvent> pinned = pinnedEventsDuring(() -> {
+            synchronized (MONITOR) {
+                Thread.sleep(50);
+            }
+            return null;
+        });
+
+        assertTrue(pinned.stream().anyMatch(event -> inStack(event, VectorEmbeddingsTest.class.getName())));
+    }
+
+    @Test
+    void getEmbedding_ShouldNotPinTheCarrierThread() throws Exception {
+        HuggingFaceEmbeddingModel model = mock(HuggingFaceEmbeddingModel.class);
+        when(model.embed(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return Response.from(Embedding.from(new float[] {0.1f, 0.2f}));
+        });
+        AtomicInteger created = new AtomicInteger();
+        // Slow enough that every thread arrives while the first one is still initializing
+        Supplier<HuggingFaceEmbeddingModel> factory = () -> {
+            created.incrementAndGet();
+            sleepQuietly(200);
+            return model;
+        };
+        ReflectionTestUtils.setField(VectorEmbeddings.class, "embeddingModelFactory", factory);
+        VectorEmbeddings embeddings = new VectorEmbeddings();
+
+        List<RecordedEvent> pinned = pinnedEventsDuring(() -> embeddings.getEmbedding("Java developer"));
+
+        assertEquals(1, created.get());
+        assertEquals(List.of(), pinned.stream()
+                .filter(event -> inStack(event, VectorEmbeddings.class.getName())).toList());
+    }
+
+    @Test
+    void findById_ShouldNotPinTheCarrierThreadInTheMongoDriver() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort(); // nothing listens once it is closed
+        }
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://localhost:" + port))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(300, TimeUnit.MILLISECONDS))
+                .build();
+        try (MongoClient client = MongoClients.create(settings)) {
+            PostService service = new PostService();
+            ReflectionTestUtils.setField(service, "mongoTemplate", new MongoTemplate(client, "sample_db"));
+            ReflectionTestUtils.setField(service, "postCache", mock(PostCache.class));
+            PostFields fields = PostFields.parse("jobTitle");
+
+            // Every lookup waits in server selection until it times out
+            List<RecordedEvent> pinned = pinnedEventsDuring(() -> {
+                RuntimeException e = assertThrows(RuntimeException.class,
+                        () -> service.findById("65f1c0ffee0000000000abcd", fields));
+                return assertInstanceOf(MongoTimeoutException.class, NestedExceptionUtils.getRootCause(e));
+            });
+
+            assertEquals(List.of(), pinned.stream()
+                    .filter(event -> inStack(event, "com.mongodb.") || inStack(event, PostService.class.getName()))
+                    .toList());
+        }
+    }
+
+    /**
+     * Runs the task on 32 virtual threads at once and returns the pinning
+     * events recorded meanwhile.
+     */
+    private static List<RecordedEvent> pinnedEventsDuring(Callable<Object> task) throws Exception {
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(10)).withStackTrace();
+            recording.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Future<Object> result : executor.invokeAll(Collections.nCopies(32, task))) {
+                    result.get();
+                }
+            }
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * @param typeName a class name, or a package prefix ending in a dot
+     */
+    private static boolean inStack(RecordedEvent event, String typeName) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName())
+                .anyMatch(name -> typeName.endsWith(".") ? name.startsWith(typeName) : name.equals(typeName));
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}